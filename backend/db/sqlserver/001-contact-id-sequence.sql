@@ -0,0 +1,42 @@
+-- Moves contact ids from an IDENTITY column to the contact_seq sequence on an existing database.
+--
+-- Run once with the application stopped, before starting a version whose Contact entity uses contact_seq.
+-- ddl-auto=update can do neither step itself: it never removes IDENTITY from an existing column, and it
+-- would create contact_seq starting at 1, below the ids already in use. New databases need nothing.
+-- Safe to run again: each step checks whether it is still needed.
+--
+--   sqlcmd -S localhost -d contactdb3 -E -i backend/db/sqlserver/001-contact-id-sequence.sql
+
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+-- 1. Rebuild contact.id without IDENTITY, keeping every id. Statements naming the new column go through
+--    EXEC, since the batch is compiled before the column exists.
+IF COLUMNPROPERTY(OBJECT_ID('dbo.contact'), 'id', 'IsIdentity') = 1
+BEGIN
+    ALTER TABLE dbo.contact ADD id_new bigint NULL;
+    EXEC('UPDATE dbo.contact SET id_new = id');
+    EXEC('ALTER TABLE dbo.contact ALTER COLUMN id_new bigint NOT NULL');
+
+    DECLARE @pk sysname = (SELECT name FROM sys.key_constraints
+                           WHERE parent_object_id = OBJECT_ID('dbo.contact') AND type = 'PK');
+    EXEC('ALTER TABLE dbo.contact DROP CONSTRAINT ' + QUOTENAME(@pk));
+    DROP INDEX IF EXISTS idx_contact_user_name ON dbo.contact;
+    ALTER TABLE dbo.contact DROP COLUMN id;
+    EXEC sp_rename 'dbo.contact.id_new', 'id', 'COLUMN';
+
+    EXEC('ALTER TABLE dbo.contact ADD CONSTRAINT PK_contact PRIMARY KEY (id)');
+    EXEC('CREATE INDEX idx_contact_user_name ON dbo.contact (user_id, last_name, first_name, id)');
+END;
+
+-- 2. Start contact_seq past the existing ids. Hibernate's pooled optimizer reads each value as the top of
+--    a block of 50 ids (value - 49 .. value), so the sequence starts at MAX(id) + 50 for the first block
+--    to begin at MAX(id) + 1. An existing sequence, e.g. one ddl-auto created, is moved up if it is behind.
+DECLARE @start bigint = (SELECT ISNULL(MAX(id), 0) FROM dbo.contact WITH (TABLOCKX, HOLDLOCK)) + 50;
+
+IF OBJECT_ID('dbo.contact_seq', 'SO') IS NULL
+    EXEC('CREATE SEQUENCE dbo.contact_seq AS bigint START WITH ' + CAST(@start AS varchar(20)) + ' INCREMENT BY 50');
+ELSE IF (SELECT CAST(current_value AS bigint) FROM sys.sequences WHERE object_id = OBJECT_ID('dbo.contact_seq')) < @start
+    EXEC('ALTER SEQUENCE dbo.contact_seq RESTART WITH ' + CAST(@start AS varchar(20)) + ' INCREMENT BY 50');
+
+COMMIT TRANSACTION;
@@ -0,0 +1,25 @@
+-- Gives contacts stored without a first or last name an empty one.
+--
+-- Every write path requires both names, but rows from before that may hold NULLs. The contact list pages
+-- by seeking on idx_contact_user_name (user_id, last_name, first_name, id), and a NULL name fails every
+-- comparison of that seek, so such a row would be missing from every page after the first.
+-- Can run with the application up: rows are updated in small batches to keep locks short, and each
+-- one's version is bumped so cached ETags of it are refreshed. Safe to run again.
+--
+--   sqlcmd -S localhost -d contactdb3 -E -i backend/db/sqlserver/002-contact-blank-names.sql
+
+SET NOCOUNT ON;
+SET XACT_ABORT ON;
+
+DECLARE @batch int = 5000;
+WHILE 1 = 1
+BEGIN
+    UPDATE TOP (@batch) dbo.contact
+    SET first_name = COALESCE(first_name, ''),
+        last_name = COALESCE(last_name, ''),
+        version = version + 1
+    WHERE first_name IS NULL OR last_name IS NULL;
+
+    IF @@ROWCOUNT < @batch
+        BREAK;
+END;
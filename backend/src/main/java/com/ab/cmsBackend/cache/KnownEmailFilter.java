@@ -0,0 +1,152 @@
+package com.ab.cmsBackend.cache;
+
+import com.ab.cmsBackend.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * "This email may have an account" filter in front of the users table.
+ *
+ * Built from every email at startup and fed on register, so a negative answer means the address
+ * certainly has no account and the database lookup can be skipped. Until the first load completes,
+ * and when disabled with app.user-email-filter.enabled=false, every email is reported as possibly
+ * existing. Deleted accounts linger as false positives until the next scheduled rebuild.
+ * Emails are lower-cased because the production collation matches them case-insensitively.
+ */
+@Component
+public class KnownEmailFilter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(KnownEmailFilter.class);
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    // Set while a rebuild is scanning the table, so registrations during the scan are not lost
+    private volatile BloomFilter building;
+
+    private final AtomicLong insertions = new AtomicLong();
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder positives = new LongAdder();
+
+    @Autowired
+    public KnownEmailFilter(UserRepository userRepository,
+                            @Value("${app.user-email-filter.enabled:true}") boolean enabled,
+                            @Value("${app.user-email-filter.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${app.user-email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        if (current == null || email == null) {
+            return true;
+        }
+        boolean result = current.mightContain(normalize(email));
+        if (result) {
+            positives.increment();
+        } else {
+            negatives.increment();
+        }
+        return result;
+    }
+
+    // Call after the user row is saved, see rebuild for why the order matters
+    public void add(String email) {
+        if (email == null) {
+            return;
+        }
+        String key = normalize(email);
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(key);
+        }
+        BloomFilter pending = building;
+        if (pending != null) {
+            pending.add(key);
+        }
+        insertions.incrementAndGet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Scans the table into a fresh filter and swaps it in. A registration that commits before the
+     * scan reaches its id is picked up by the scan; one that commits after {@code building} is set
+     * is added to it directly by {@link #add}.
+     */
+    @Scheduled(cron = "${app.user-email-filter.rebuild-cron:0 30 3 * * *}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        BloomFilter next = new BloomFilter(Math.max(expectedInsertions, userRepository.count() * 2), falsePositiveRate);
+        building = next;
+        long count = 0;
+        try {
+            long lastId = 0;
+            List<UserRepository.EmailRow> rows;
+            do {
+                rows = userRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(LOAD_BATCH_SIZE));
+                for (UserRepository.EmailRow row : rows) {
+                    if (row.getEmail() != null) {
+                        next.add(normalize(row.getEmail()));
+                    }
+                    lastId = row.getId();
+                }
+                count += rows.size();
+            } while (rows.size() == LOAD_BATCH_SIZE);
+            filter = next;
+            insertions.set(count);
+        } catch (RuntimeException e) {
+            // Keep answering with the previous filter, or "maybe" for everything if there is none
+            logger.warn("Could not load known-email filter: {}", e.getMessage());
+        } finally {
+            building = null;
+        }
+        logger.info("Known-email filter loaded with {} emails in {} ms", count, System.currentTimeMillis() - started);
+    }
+
+    public boolean isLoaded() {
+        return filter != null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("user.email-filter.negatives", negatives, LongAdder::sum).register(registry);
+        FunctionCounter.builder("user.email-filter.positives", positives, LongAdder::sum).register(registry);
+        Gauge.builder("user.email-filter.insertions", insertions, AtomicLong::get).register(registry);
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
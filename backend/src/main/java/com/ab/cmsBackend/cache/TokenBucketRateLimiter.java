@@ -0,0 +1,160 @@
+package com.ab.cmsBackend.cache;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets keyed by an arbitrary string (client IP, email, ...).
+ * Buckets live in lock-striped, access-ordered segments with a hard size bound, so memory stays
+ * bounded under a flood of distinct keys and the least recently used bucket is dropped first.
+ * Buckets refill lazily on access; there is no background thread per key.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int SEGMENTS = 64;
+
+    private final Segment[] segments;
+    private final double capacity;
+    private final double refillPerMilli;
+    private final Clock clock;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, int maxKeys, Clock clock) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refill rate must be positive");
+        }
+        if (maxKeys < SEGMENTS) {
+            throw new IllegalArgumentException("maxKeys must be at least " + SEGMENTS);
+        }
+        this.capacity = capacity;
+        this.refillPerMilli = refillPerSecond / 1000.0;
+        this.clock = clock;
+        this.segments = new Segment[SEGMENTS];
+        int perSegment = (maxKeys + SEGMENTS - 1) / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment, evictions);
+        }
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return 0 when the call is allowed, otherwise the milliseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        long waitMillis = segmentFor(key).tryAcquire(key, clock.millis(), this);
+        if (waitMillis == 0) {
+            allowed.increment();
+        } else {
+            rejected.increment();
+        }
+        return waitMillis;
+    }
+
+    /**
+     * Drops buckets that have refilled completely. Such a bucket is indistinguishable from a new one,
+     * so removing it never changes a decision.
+     */
+    public void evictIdle() {
+        long now = clock.millis();
+        for (Segment segment : segments) {
+            segment.evictFull(now, this);
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long allowedCount() {
+        return allowed.sum();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    // Fractional tokens are kept, so calls closer together than one token's refill time still add up
+    private double refill(Bucket bucket, long now) {
+        long elapsed = now - bucket.updatedAt;
+        if (elapsed <= 0) {
+            return bucket.tokens;
+        }
+        return Math.min(capacity, bucket.tokens + elapsed * refillPerMilli);
+    }
+
+    private Segment segmentFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (SEGMENTS - 1)];
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long updatedAt;
+    }
+
+    private static final class Segment {
+
+        private final LinkedHashMap<String, Bucket> map;
+
+        Segment(int capacity, LongAdder evictions) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        // The lock only covers a map lookup and a little arithmetic, never I/O or waiting
+        synchronized long tryAcquire(String key, long now, TokenBucketRateLimiter limiter) {
+            Bucket bucket = map.get(key);
+            if (bucket == null) {
+                bucket = new Bucket();
+                bucket.tokens = limiter.capacity;
+                bucket.updatedAt = now;
+                map.put(key, bucket);
+            } else {
+                bucket.tokens = limiter.refill(bucket, now);
+                bucket.updatedAt = Math.max(bucket.updatedAt, now);
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - bucket.tokens) / limiter.refillPerMilli));
+        }
+
+        synchronized void evictFull(long now, TokenBucketRateLimiter limiter) {
+            Iterator<Bucket> it = map.values().iterator();
+            while (it.hasNext()) {
+                if (limiter.refill(it.next(), now) >= limiter.capacity) {
+                    it.remove();
+                }
+            }
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.ab.cmsBackend.cache;
+
+import com.ab.cmsBackend.entity.User;
+import com.ab.cmsBackend.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache for user lookups by email and by id.
+ *
+ * The cache holds detached copies, never the managed entity, and every hit returns a fresh copy,
+ * so callers can modify and save what they get back. Writers call {@link #invalidate(User)}; when a
+ * transaction is active the entry is dropped again after commit, and a load that overlaps any
+ * invalidation is not kept, so a slow reader can never put a stale row back.
+ * Disabled with app.user-cache.enabled=false, in which case it simply delegates to the repository.
+ */
+@Component
+public class UserLookupCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final BoundedCache<String, User> byEmail;
+    private final BoundedCache<Long, User> byId;
+
+    // Bumped on every invalidation, see cacheIfUnchanged
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public UserLookupCache(UserRepository userRepository,
+                           @Value("${app.user-cache.enabled:true}") boolean enabled,
+                           @Value("${app.user-cache.max-size:10000}") int maxSize,
+                           @Value("${app.user-cache.ttl:5m}") Duration ttl) {
+        this(userRepository, enabled, maxSize, ttl, Clock.systemUTC());
+    }
+
+    public UserLookupCache(UserRepository userRepository, boolean enabled, int maxSize, Duration ttl, Clock clock) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.byEmail = new BoundedCache<>(maxSize, ttl, clock);
+        this.byId = new BoundedCache<>(maxSize, ttl, clock);
+    }
+
+    public Optional<User> findByEmail(String email) {
+        if (!enabled || email == null) {
+            return userRepository.findByEmail(email);
+        }
+        User cached = byEmail.get(email);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+        long seen = invalidations.get();
+        Optional<User> loaded = userRepository.findByEmail(email);
+        loaded.ifPresent(user -> cacheIfUnchanged(user, seen));
+        return loaded;
+    }
+
+    public Optional<User> findById(Long id) {
+        if (!enabled || id == null) {
+            return userRepository.findById(id);
+        }
+        User cached = byId.get(id);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+        long seen = invalidations.get();
+        Optional<User> loaded = userRepository.findById(id);
+        loaded.ifPresent(user -> cacheIfUnchanged(user, seen));
+        return loaded;
+    }
+
+    public void invalidate(User user) {
+        invalidate(user.getId(), user.getEmail());
+    }
+
+    public void invalidate(Long id, String email) {
+        if (!enabled) {
+            return;
+        }
+        evict(id, email);
+        // Readers may still see the old row until the writer commits, so drop it again afterwards
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id, email);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        byEmail.invalidateAll();
+        byId.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "email", byEmail);
+        bind(registry, "id", byId);
+    }
+
+    private static void bind(MeterRegistry registry, String key, BoundedCache<?, ?> cache) {
+        FunctionCounter.builder("user.cache.hits", cache, BoundedCache::hitCount).tag("key", key).register(registry);
+        FunctionCounter.builder("user.cache.misses", cache, BoundedCache::missCount).tag("key", key).register(registry);
+        FunctionCounter.builder("user.cache.evictions", cache, BoundedCache::evictionCount).tag("key", key).register(registry);
+        Gauge.builder("user.cache.size", cache, BoundedCache::size).tag("key", key).register(registry);
+    }
+
+    private void evict(Long id, String email) {
+        invalidations.incrementAndGet();
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        if (email != null) {
+            byEmail.invalidate(email);
+        }
+    }
+
+    // Put first, then re-check: an invalidation that raced with the load either removes
+    // the entry itself or is seen here and undone by us
+    private void cacheIfUnchanged(User user, long seen) {
+        if (invalidations.get() != seen) {
+            return;
+        }
+        User copy = copyOf(user);
+        byId.put(copy.getId(), copy);
+        if (copy.getEmail() != null) {
+            byEmail.put(copy.getEmail(), copy);
+        }
+        if (invalidations.get() != seen) {
+            evict(copy.getId(), copy.getEmail());
+        }
+    }
+
+    private static User copyOf(User source) {
+        User copy = new User();
+        copy.setId(source.getId());
+        copy.setEmail(source.getEmail());
+        copy.setPhone(source.getPhone());
+        copy.setPassword(source.getPassword());
+        copy.setResetToken(source.getResetToken());
+        copy.setResetTokenExpiry(source.getResetTokenExpiry());
+        return copy;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ab.cmsBackend.config;
+
+import com.ab.cmsBackend.cache.TokenBucketRateLimiter;
+import com.ab.cmsBackend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Locale;
+
+/**
+ * Throttles the public endpoints that cost a BCrypt hash or a database write (login, register,
+ * forgot-password). Each call takes a token from a bucket keyed by client IP and, when the request
+ * names an account, from a second bucket keyed by that email, so neither one noisy client nor a
+ * distributed attack on a single account can monopolise the hashing pool.
+ */
+@Component
+public class AuthRateLimiter implements MeterBinder {
+
+    private final boolean enabled;
+    private final TokenBucketRateLimiter byIp;
+    private final TokenBucketRateLimiter byEmail;
+
+    @Autowired
+    public AuthRateLimiter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.ip.capacity:20}") int ipCapacity,
+                           @Value("${app.rate-limit.ip.refill-per-minute:20}") double ipRefillPerMinute,
+                           @Value("${app.rate-limit.email.capacity:5}") int emailCapacity,
+                           @Value("${app.rate-limit.email.refill-per-minute:5}") double emailRefillPerMinute,
+                           @Value("${app.rate-limit.max-keys:100000}") int maxKeys) {
+        this(enabled, ipCapacity, ipRefillPerMinute, emailCapacity, emailRefillPerMinute, maxKeys, Clock.systemUTC());
+    }
+
+    AuthRateLimiter(boolean enabled, int ipCapacity, double ipRefillPerMinute, int emailCapacity,
+                    double emailRefillPerMinute, int maxKeys, Clock clock) {
+        this.enabled = enabled;
+        this.byIp = new TokenBucketRateLimiter(ipCapacity, ipRefillPerMinute / 60, maxKeys, clock);
+        this.byEmail = new TokenBucketRateLimiter(emailCapacity, emailRefillPerMinute / 60, maxKeys, clock);
+    }
+
+    /**
+     * Takes a token for the action from the client's IP bucket and, if an email is given, from that
+     * account's bucket. Buckets are per action, so failed logins never block a password reset.
+     *
+     * @throws TooManyRequestsException when either bucket is empty
+     */
+    public void check(String action, String clientIp, String email) {
+        if (!enabled) {
+            return;
+        }
+        long waitMillis = byIp.tryAcquire(action + ':' + clientIp);
+        if (waitMillis == 0 && email != null && !email.isBlank()) {
+            waitMillis = byEmail.tryAcquire(action + ':' + email.trim().toLowerCase(Locale.ROOT));
+        }
+        if (waitMillis > 0) {
+            throw new TooManyRequestsException("Too many requests, please try again later",
+                    Math.max(1, (waitMillis + 999) / 1000));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        byIp.evictIdle();
+        byEmail.evictIdle();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "ip", byIp);
+        bind(registry, "email", byEmail);
+    }
+
+    private static void bind(MeterRegistry registry, String key, TokenBucketRateLimiter limiter) {
+        FunctionCounter.builder("auth.rate-limit.allowed", limiter, TokenBucketRateLimiter::allowedCount).tag("key", key).register(registry);
+        FunctionCounter.builder("auth.rate-limit.rejected", limiter, TokenBucketRateLimiter::rejectedCount).tag("key", key).register(registry);
+        FunctionCounter.builder("auth.rate-limit.evictions", limiter, TokenBucketRateLimiter::evictionCount).tag("key", key).register(registry);
+        Gauge.builder("auth.rate-limit.keys", limiter, TokenBucketRateLimiter::size).tag("key", key).register(registry);
+    }
+}
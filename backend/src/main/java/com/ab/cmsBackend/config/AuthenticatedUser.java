@@ -0,0 +1,15 @@
+package com.ab.cmsBackend.config;
+
+import java.security.Principal;
+
+/**
+ * Security principal installed by JwtFilter. Carrying the user id lets services
+ * scope their queries without looking the user up by email first.
+ */
+public record AuthenticatedUser(Long id, String email) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
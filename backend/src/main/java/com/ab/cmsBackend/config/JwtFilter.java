@@ -1,23 +1,50 @@
 package com.ab.cmsBackend.config;
 
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.List;
 
 public class JwtFilter extends OncePerRequestFilter {
 
-    private final String SECRET_KEY = "my-very-long-and-secure-secret-key-that-must-be-at-least-64-characters-long-12345";
+    private static final Logger logger = LoggerFactory.getLogger(JwtFilter.class);
+
+    // Public endpoints never carry a token worth verifying (same list as SecurityConfig)
+    static final List<String> PUBLIC_PATHS = List.of(
+            "/api/auth/**",
+            "/api/user/forgot-password",
+            "/api/user/reset-password",
+            "/api/user/validate-reset-token/**"
+    );
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final JwtTokenProvider jwtTokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList tokenRevocationList;
+
+    public JwtFilter(JwtTokenProvider jwtTokenProvider, VerifiedTokenCache verifiedTokenCache,
+                     TokenRevocationList tokenRevocationList) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationList = tokenRevocationList;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return PUBLIC_PATHS.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -28,27 +55,39 @@ public class JwtFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
             try {
-                SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
-
-                // Validate and parse the token
-                // Use .parser() instead of .builder() for reading tokens
-                String email = Jwts.parser()
-                        .verifyWith(key) // Updated syntax for 0.12.5
-                        .build()
-                        .parseSignedClaims(token) // Updated syntax
-                        .getPayload() // Use .getPayload() instead of .getBody()
-                        .getSubject();
-
-                if (email != null) {
+                VerifiedTokenCache.VerifiedToken verified = verify(token);
+
+                // Checked on every request, cached or not
+                boolean revoked = tokenRevocationList.isRevoked(verified.id(), verified.userId(), verified.issuedAtSeconds());
+
+                if (verified.subject() != null && !revoked) {
                     // This line tells ContactService who the "Current User" is
-                    UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(email, null, new ArrayList<>());
+                    // Tokens issued before the id claim existed only carry the email
+                    Object principal = verified.userId() != null
+                            ? new AuthenticatedUser(verified.userId(), verified.subject())
+                            : verified.subject();
+                    UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(principal, null, new ArrayList<>());
                     SecurityContextHolder.getContext().setAuthentication(auth);
                 }
             } catch (Exception e) {
                 // If token is invalid, the context stays empty and results in 403
-                System.out.println("JWT Validation failed: " + e.getMessage());
+                logger.debug("JWT Validation failed: {}", e.getMessage());
             }
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // Signature and claims are only checked the first time a token is seen
+    private VerifiedTokenCache.VerifiedToken verify(String token) {
+        VerifiedTokenCache.VerifiedToken verified = verifiedTokenCache.get(token);
+        if (verified == null) {
+            Claims claims = jwtTokenProvider.parseClaims(token);
+            verified = new VerifiedTokenCache.VerifiedToken(claims.getId(), claims.getSubject(),
+                    claims.get(JwtTokenProvider.USER_ID_CLAIM, Long.class),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() / 1000 : 0,
+                    claims.getExpiration().getTime());
+            verifiedTokenCache.put(token, verified);
+        }
+        return verified;
+    }
+}
@@ -0,0 +1,196 @@
+package com.ab.cmsBackend.config;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The set of keys tokens may be signed or verified with, each under a key id ("kid").
+ *
+ * Configured as app.jwt.keys.&lt;kid&gt;.* with app.jwt.active-kid naming the one used for new tokens:
+ * <pre>
+ * app.jwt.keys.2026-10.algorithm=ES256
+ * app.jwt.keys.2026-10.private-key=&lt;base64 PKCS#8&gt;   (only on nodes that issue tokens)
+ * app.jwt.keys.2026-10.public-key=&lt;base64 X.509&gt;
+ * app.jwt.keys.legacy.algorithm=HS512
+ * app.jwt.keys.legacy.secret=&lt;64+ characters&gt;
+ * </pre>
+ * To rotate, add the new key, switch active-kid, and drop the old key once the access-token lifetime
+ * has passed. Tokens signed with the old key keep verifying in the meantime, so nobody is logged out.
+ * Without any keys configured, app.jwt.secret is used as a single HMAC key; it also verifies tokens
+ * issued before kid headers existed.
+ */
+@Component
+public class JwtKeyRing {
+
+    static final String DEFAULT_KID = "default";
+
+    private final String activeKid;
+    private final Key signingKey;
+    private final SecureDigestAlgorithm<Key, ?> signingAlgorithm;
+    // Read-only after construction, so lookups need no locking
+    private final Map<String, Key> verificationKeys;
+
+    @Autowired
+    public JwtKeyRing(Environment environment) {
+        this(Binder.get(environment).bind("app.jwt.keys", Bindable.mapOf(String.class, KeyConfig.class))
+                        .orElseGet(Collections::emptyMap),
+                environment.getProperty("app.jwt.active-kid", DEFAULT_KID),
+                environment.getProperty("app.jwt.secret"));
+    }
+
+    JwtKeyRing(Map<String, KeyConfig> keys, String activeKid, String legacySecret) {
+        Map<String, Key> verification = new HashMap<>();
+        Map<String, Key> signing = new HashMap<>();
+        Map<String, SecureDigestAlgorithm<Key, ?>> algorithms = new HashMap<>();
+
+        if (legacySecret != null && !legacySecret.isBlank() && !keys.containsKey(DEFAULT_KID)) {
+            byte[] secret = legacySecret.getBytes(StandardCharsets.UTF_8);
+            Key key = Keys.hmacShaKeyFor(secret);
+            verification.put(DEFAULT_KID, key);
+            signing.put(DEFAULT_KID, key);
+            algorithms.put(DEFAULT_KID, algorithmFor(hmacAlgorithmFor(secret)));
+        }
+        keys.forEach((kid, config) -> {
+            if (config.getAlgorithm() == null || config.getAlgorithm().toUpperCase(Locale.ROOT).startsWith("HS")) {
+                byte[] secret = require(kid, "secret", config.getSecret()).getBytes(StandardCharsets.UTF_8);
+                Key key = Keys.hmacShaKeyFor(secret);
+                verification.put(kid, key);
+                signing.put(kid, key);
+                algorithms.put(kid, algorithmFor(config.getAlgorithm() == null
+                        ? hmacAlgorithmFor(secret) : config.getAlgorithm().toUpperCase(Locale.ROOT)));
+            } else {
+                String algorithm = config.getAlgorithm();
+                algorithms.put(kid, algorithmFor(algorithm));
+                verification.put(kid, publicKey(kid, algorithm, require(kid, "public-key", config.getPublicKey())));
+                if (config.getPrivateKey() != null && !config.getPrivateKey().isBlank()) {
+                    signing.put(kid, privateKey(kid, algorithm, config.getPrivateKey()));
+                }
+            }
+        });
+
+        if (!verification.containsKey(activeKid)) {
+            throw new IllegalStateException("app.jwt.active-kid '" + activeKid + "' is not a configured key");
+        }
+        this.activeKid = activeKid;
+        // Verify-only nodes carry public keys and never sign
+        this.signingKey = signing.get(activeKid);
+        this.signingAlgorithm = algorithms.get(activeKid);
+        this.verificationKeys = Map.copyOf(verification);
+    }
+
+    public static JwtKeyRing ofSecret(String secret) {
+        return new JwtKeyRing(Map.of(), DEFAULT_KID, secret);
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public Key getSigningKey() {
+        if (signingKey == null) {
+            throw new IllegalStateException("No private key configured for app.jwt.active-kid '" + activeKid + "'");
+        }
+        return signingKey;
+    }
+
+    public SecureDigestAlgorithm<Key, ?> getSigningAlgorithm() {
+        return signingAlgorithm;
+    }
+
+    /**
+     * Picks the verification key from the token's kid header; tokens without one predate key ids
+     * and were signed with the default key.
+     */
+    public LocatorAdapter<Key> locator() {
+        return new LocatorAdapter<>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                String kid = header.getKeyId() != null ? header.getKeyId() : DEFAULT_KID;
+                Key key = verificationKeys.get(kid);
+                if (key == null) {
+                    throw new SignatureException("Unknown signing key id: " + kid);
+                }
+                return key;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SecureDigestAlgorithm<Key, ?> algorithmFor(String name) {
+        SecureDigestAlgorithm<?, ?> algorithm = Jwts.SIG.get().get(name);
+        if (algorithm == null) {
+            throw new IllegalStateException("Unsupported JWT algorithm: " + name);
+        }
+        return (SecureDigestAlgorithm<Key, ?>) algorithm;
+    }
+
+    // Same choice signWith(key) made before algorithms were configurable: the strongest the key allows
+    private static String hmacAlgorithmFor(byte[] secret) {
+        return secret.length >= 64 ? "HS512" : secret.length >= 48 ? "HS384" : "HS256";
+    }
+
+    private static String require(String kid, String property, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("app.jwt.keys." + kid + "." + property + " is required");
+        }
+        return value;
+    }
+
+    private static PublicKey publicKey(String kid, String algorithm, String encoded) {
+        try {
+            return keyFactory(algorithm).generatePublic(new X509EncodedKeySpec(decode(encoded)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid public key for kid '" + kid + "'", e);
+        }
+    }
+
+    private static PrivateKey privateKey(String kid, String algorithm, String encoded) {
+        try {
+            return keyFactory(algorithm).generatePrivate(new PKCS8EncodedKeySpec(decode(encoded)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid private key for kid '" + kid + "'", e);
+        }
+    }
+
+    private static KeyFactory keyFactory(String algorithm) throws GeneralSecurityException {
+        return KeyFactory.getInstance(algorithm.startsWith("ES") ? "EC" : algorithm.startsWith("Ed") ? "EdDSA" : "RSA");
+    }
+
+    // Accepts bare base64 or a PEM block
+    private static byte[] decode(String encoded) {
+        String base64 = encoded.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    @Data
+    public static class KeyConfig {
+        private String algorithm;
+        private String secret;
+        private String publicKey;
+        private String privateKey;
+    }
+}
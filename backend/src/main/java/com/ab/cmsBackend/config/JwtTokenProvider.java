@@ -0,0 +1,62 @@
+package com.ab.cmsBackend.config;
+
+import com.ab.cmsBackend.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Issues and verifies the JWTs used by the API.
+ * New tokens are signed with the key ring's active key and carry its kid; verification looks the key
+ * up by kid, so several keys can be valid at once while a rotation is in progress.
+ * The parser is built once and shared: it is immutable and thread-safe.
+ */
+@Component
+public class JwtTokenProvider {
+
+    public static final String USER_ID_CLAIM = "uid";
+
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+    private final long expirationMs;
+
+    @Autowired
+    public JwtTokenProvider(JwtKeyRing keyRing, @Value("${app.jwt.expiration-ms:900000}") long expirationMs) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parser().keyLocator(keyRing.locator()).build();
+        this.expirationMs = expirationMs;
+    }
+
+    // Single HMAC key, as used before key rotation (secret must be 64+ characters long)
+    public JwtTokenProvider(String secret, long expirationMs) {
+        this(JwtKeyRing.ofSecret(secret), expirationMs);
+    }
+
+    public String generateToken(User user) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .header().keyId(keyRing.getActiveKid()).and()
+                .id(UUID.randomUUID().toString())
+                .subject(user.getEmail())
+                .claim(USER_ID_CLAIM, user.getId())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expirationMs))
+                .signWith(keyRing.getSigningKey(), keyRing.getSigningAlgorithm())
+                .compact();
+    }
+
+    public long getExpirationMs() {
+        return expirationMs;
+    }
+
+    // Throws a JwtException when the signature is invalid or the token has expired
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+}
@@ -1,11 +1,12 @@
 package com.ab.cmsBackend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -16,14 +17,35 @@ import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private final JwtTokenProvider jwtTokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList tokenRevocationList;
+
+    public SecurityConfig(JwtTokenProvider jwtTokenProvider, VerifiedTokenCache verifiedTokenCache,
+                          TokenRevocationList tokenRevocationList) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationList = tokenRevocationList;
+    }
+
+    // BCrypt runs on its own bounded pool so a login burst cannot occupy every request thread.
+    // New hashes are stored as "{bcrypt}..." at the configured cost; older unprefixed hashes keep
+    // verifying and are rehashed in the background on the next successful login.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.password-hashing.bcrypt-strength:10}") int strength,
+            @Value("${app.password-hashing.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${app.password-hashing.queue-capacity:100}") int queueCapacity) {
+        PasswordEncoder bcrypt = new CostAwareBCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(delegating, threads, queueCapacity);
     }
 
     // Unified CORS Configuration
@@ -32,9 +54,12 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         // Adding both common React ports
         configuration.setAllowedOrigins(List.of("http://localhost:3000", "http://localhost:5173"));
-        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         // Use "*" for headers during debugging, or list them specifically
-        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With", "Accept"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With", "Accept",
+                "If-Match", "If-None-Match"));
+        // Scripts need the tag to send it back in If-Match
+        configuration.setExposedHeaders(List.of("ETag"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -50,14 +75,11 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         // Public endpoints
-                        .requestMatchers("/api/auth/**").permitAll()
-                        .requestMatchers("/api/user/forgot-password").permitAll()
-                        .requestMatchers("/api/user/reset-password").permitAll()
-                        .requestMatchers("/api/user/validate-reset-token/**").permitAll()
+                        .requestMatchers(JwtFilter.PUBLIC_PATHS.toArray(String[]::new)).permitAll()
                         // Protected endpoints
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(new JwtFilter(), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(new JwtFilter(jwtTokenProvider, verifiedTokenCache, tokenRevocationList), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,112 @@
+package com.ab.cmsBackend.config;
+
+import com.ab.cmsBackend.cache.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens that must no longer be accepted even though their signature is valid.
+ * Two kinds of entries: a single token (by jti, on logout) and every token of a user issued
+ * before a point in time (on password change/reset).
+ *
+ * The exact maps sit behind a Bloom filter, so the check on the request path is a few hash
+ * probes for the common case of a non-revoked token. Entries are only needed while the tokens
+ * they cover can still be alive, i.e. one access-token lifetime; {@link #purgeExpired()} drops
+ * older entries and rebuilds the filter.
+ */
+@Component
+public class TokenRevocationList implements MeterBinder {
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();   // jti -> token expiry (ms)
+    private final Map<Long, Long> revokedUsers = new ConcurrentHashMap<>();      // user id -> not-before (epoch s)
+    private final long accessTokenTtlMs;
+    private final int expectedEntries;
+    private final Clock clock;
+
+    private volatile BloomFilter filter;
+
+    @Autowired
+    public TokenRevocationList(@Value("${app.jwt.expiration-ms:900000}") long accessTokenTtlMs,
+                               @Value("${app.jwt.revocation.expected-entries:100000}") int expectedEntries) {
+        this(accessTokenTtlMs, expectedEntries, Clock.systemUTC());
+    }
+
+    TokenRevocationList(long accessTokenTtlMs, int expectedEntries, Clock clock) {
+        this.accessTokenTtlMs = accessTokenTtlMs;
+        this.expectedEntries = expectedEntries;
+        this.clock = clock;
+        this.filter = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+    }
+
+    // Writers are rare (logout, password change) and serialized with the rebuild in purgeExpired;
+    // readers never lock
+    public synchronized void revokeToken(String jti, long expiresAtMillis) {
+        if (jti == null) {
+            return;
+        }
+        revokedTokens.put(jti, expiresAtMillis);
+        filter.add(tokenKey(jti));
+    }
+
+    // JWT iat has second precision; tokens issued earlier in the current second stay valid so a
+    // fresh login right after a password reset is not rejected
+    public synchronized void revokeUser(Long userId) {
+        long notBefore = clock.millis() / 1000;
+        revokedUsers.merge(userId, notBefore, Math::max);
+        filter.add(userKey(userId));
+    }
+
+    public boolean isRevoked(String jti, Long userId, long issuedAtSeconds) {
+        BloomFilter current = filter;
+        if (jti != null && current.mightContain(tokenKey(jti)) && revokedTokens.containsKey(jti)) {
+            return true;
+        }
+        if (userId != null && current.mightContain(userKey(userId))) {
+            Long notBefore = revokedUsers.get(userId);
+            return notBefore != null && issuedAtSeconds < notBefore;
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.purge-interval-ms:60000}")
+    public synchronized void purgeExpired() {
+        long now = clock.millis();
+        long oldestLiveIssue = (now - accessTokenTtlMs) / 1000;
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsers.values().removeIf(notBefore -> notBefore <= oldestLiveIssue);
+
+        // Bloom filters cannot forget keys, so build a fresh one from what is left and swap it in
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, size() * 2L), FALSE_POSITIVE_RATE);
+        revokedTokens.keySet().forEach(jti -> rebuilt.add(tokenKey(jti)));
+        revokedUsers.keySet().forEach(userId -> rebuilt.add(userKey(userId)));
+        filter = rebuilt;
+    }
+
+    public int size() {
+        return revokedTokens.size() + revokedUsers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jwt.revocation.size", this, TokenRevocationList::size).register(registry);
+    }
+
+    private static String tokenKey(String jti) {
+        return "j:" + jti;
+    }
+
+    private static String userKey(Long userId) {
+        return "u:" + userId;
+    }
+}
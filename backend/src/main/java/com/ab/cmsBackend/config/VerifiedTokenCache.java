@@ -0,0 +1,75 @@
+package com.ab.cmsBackend.config;
+
+import com.ab.cmsBackend.cache.BoundedCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Remembers bearer tokens that already passed signature verification, so the same token sent
+ * on every request is verified once. Entries are keyed by a SHA-256 digest of the token (the raw
+ * token is never kept) and expire together with the token.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    public record VerifiedToken(String id, String subject, Long userId, long issuedAtSeconds, long expiresAtMillis) {
+    }
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final BoundedCache<String, VerifiedToken> cache;
+
+    @Autowired
+    public VerifiedTokenCache(@Value("${app.jwt.cache.max-size:10000}") int maxSize,
+                              @Value("${app.jwt.expiration-ms:900000}") long maxTtlMs) {
+        this(maxSize, maxTtlMs, Clock.systemUTC());
+    }
+
+    VerifiedTokenCache(int maxSize, long maxTtlMs, Clock clock) {
+        this.cache = new BoundedCache<>(maxSize, Duration.ofMillis(maxTtlMs), clock);
+    }
+
+    public VerifiedToken get(String token) {
+        return cache.get(digest(token));
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        cache.put(digest(token), verified, verified.expiresAtMillis());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.cache.hits", cache, BoundedCache::hitCount).register(registry);
+        FunctionCounter.builder("jwt.cache.misses", cache, BoundedCache::missCount).register(registry);
+        FunctionCounter.builder("jwt.cache.evictions", cache, BoundedCache::evictionCount).register(registry);
+        Gauge.builder("jwt.cache.size", cache, BoundedCache::size).register(registry);
+    }
+
+    BoundedCache<String, VerifiedToken> delegate() {
+        return cache;
+    }
+
+    private static String digest(String token) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -1,13 +1,20 @@
 package com.ab.cmsBackend.controller;
 
+import com.ab.cmsBackend.config.AuthRateLimiter;
 import com.ab.cmsBackend.dto.LoginDto;
+import com.ab.cmsBackend.dto.RefreshTokenDto;
 import com.ab.cmsBackend.dto.RegisterDto;
+import com.ab.cmsBackend.dto.TokenResponseDto;
 import com.ab.cmsBackend.service.AuthService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -18,22 +25,42 @@ public class AuthController {
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
     private final AuthService authService;
+    private final AuthRateLimiter authRateLimiter;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, AuthRateLimiter authRateLimiter) {
         this.authService = authService;
+        this.authRateLimiter = authRateLimiter;
     }
 
     @PostMapping("/register")
-    public ResponseEntity<String> register(@RequestBody RegisterDto registerDto) {
+    public ResponseEntity<String> register(@RequestBody RegisterDto registerDto, HttpServletRequest request) {
         logger.info("Registering user: {}", registerDto.getEmail());
+        authRateLimiter.check("register", request.getRemoteAddr(), null);
         authService.register(registerDto);
         return ResponseEntity.ok("User registered");
     }
 
     @PostMapping("/login")
-    public ResponseEntity<String> login(@RequestBody LoginDto loginDto) {
+    public ResponseEntity<TokenResponseDto> login(@RequestBody LoginDto loginDto, HttpServletRequest request) {
         logger.info("Logging in user: {}", loginDto.getEmail());
-        String token = authService.login(loginDto);
-        return ResponseEntity.ok(token);
+        authRateLimiter.check("login", request.getRemoteAddr(), loginDto.getEmail());
+        TokenResponseDto tokens = authService.login(loginDto);
+        return ResponseEntity.ok(tokens);
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponseDto> refresh(@Valid @RequestBody RefreshTokenDto refreshTokenDto) {
+        logger.info("Refreshing access token");
+        return ResponseEntity.ok(authService.refresh(refreshTokenDto.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<String> logout(@RequestBody(required = false) RefreshTokenDto refreshTokenDto,
+                                         @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader) {
+        logger.info("Logging out");
+        String refreshToken = refreshTokenDto != null ? refreshTokenDto.getRefreshToken() : null;
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        authService.logout(refreshToken, accessToken);
+        return ResponseEntity.ok("Logged out");
     }
 }
@@ -0,0 +1,33 @@
+package com.ab.cmsBackend.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+// GET responses tagged with a cheaply computed strong ETag, so revalidation skips loading the body
+final class ConditionalGet {
+
+    // Browsers keep the response but revalidate it on every use; shared caches must not keep it at all
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Answers 304 when the client already holds the tagged version, without calling {@code body};
+     * otherwise sends the body with the tag. A null tag just sends the body.
+     */
+    static <T> ResponseEntity<T> respond(WebRequest request, String etag, Supplier<T> body) {
+        if (etag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        // Sets the ETag header either way, and the 304 status on a match
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body.get());
+    }
+}
@@ -1,15 +1,23 @@
 package com.ab.cmsBackend.controller;
 
+import com.ab.cmsBackend.dto.BulkContactResultDto;
 import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.dto.ContactPageDto;
+import com.ab.cmsBackend.service.ContactEtags;
 import com.ab.cmsBackend.service.ContactService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 @RestController
@@ -26,16 +34,57 @@ public class ContactController {
 
     @GetMapping
     public ResponseEntity<Page<ContactDto>> getAllContacts(@RequestParam(defaultValue = "0") int page,
-                                                           @RequestParam(defaultValue = "10") int size) {
+                                                           @RequestParam(defaultValue = "10") int size,
+                                                           WebRequest request) {
         logger.info("Fetching contacts page: {}", page);
-        return ResponseEntity.ok(contactService.getAllContacts(page, size));
+        return ConditionalGet.respond(request, contactService.getContactsEtag(), () -> contactService.getAllContacts(page, size));
     }
 
+    // Page by number without the total, which saves the COUNT query behind every /api/contacts call
+    @GetMapping("/slice")
+    public ResponseEntity<ContactPageDto> getContactSlice(@RequestParam(defaultValue = "0") int page,
+                                                          @RequestParam(defaultValue = "10") int size,
+                                                          WebRequest request) {
+        logger.info("Fetching contacts slice: {}", page);
+        return ConditionalGet.respond(request, contactService.getContactsEtag(), () -> contactService.getContactSlice(page, size));
+    }
+
+    @GetMapping("/count")
+    public ResponseEntity<Long> countContacts() {
+        return ResponseEntity.ok(contactService.countContacts());
+    }
+
+    // Cursor-paged listing in name order; stays fast at any depth, but has no total or page numbers
+    @GetMapping("/scroll")
+    public ResponseEntity<ContactPageDto> scrollContacts(@RequestParam(defaultValue = "10") int size,
+                                                         @RequestParam(required = false) String cursor) {
+        logger.info("Fetching contacts after cursor: {}", cursor);
+        return ResponseEntity.ok(contactService.listContacts(size, cursor));
+    }
 
+    // Bounded pages: continue with ?cursor=<nextCursor> rather than ever larger page numbers
     @GetMapping("/search")
-    public ResponseEntity<List<ContactDto>> searchContacts(@RequestParam String query) {
-        logger.info("Searching contacts with query: {}", query);
-        return ResponseEntity.ok(contactService.searchContacts(query));
+    public ResponseEntity<ContactPageDto> searchContacts(@RequestParam String query,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "10") int size,
+                                                         @RequestParam(required = false) Long cursor) {
+        logger.info("Searching contacts with query: {}, page: {}", query, page);
+        return ResponseEntity.ok(contactService.searchContacts(query, page, size, cursor));
+    }
+
+    // Relevance-ranked search over all fields with prefix matching
+    @GetMapping("/search/ranked")
+    public ResponseEntity<List<ContactDto>> rankedSearch(@RequestParam String query,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        logger.info("Ranked search with query: {}", query);
+        return ResponseEntity.ok(contactService.rankedSearch(query, limit));
+    }
+
+    @PostMapping("/search/reindex")
+    public ResponseEntity<String> rebuildSearchIndex() {
+        logger.info("Rebuilding search index");
+        contactService.rebuildSearchIndex();
+        return ResponseEntity.ok("Search index rebuilt");
     }
 
    /* @PostMapping
@@ -56,22 +105,62 @@ public class ContactController {
        return ResponseEntity.ok(contactService.createContact(contactDto));
    }
 
+    // With If-Match, answers 412 unless the tag is still current; without it, the last writer wins
     @PutMapping("/{id}")
-    public ResponseEntity<ContactDto> updateContact(@PathVariable Long id, @Valid @RequestBody ContactDto contactDto) {
+    public ResponseEntity<ContactDto> updateContact(@PathVariable Long id, @Valid @RequestBody ContactDto contactDto,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Updating contact id: {}", id);
-        return ResponseEntity.ok(contactService.updateContact(id, contactDto));
+        Set<Long> expectedVersions = ContactEtags.versions(id, ifMatch);
+        ContactDto saved = contactService.updateContact(id, contactDto, expectedVersions);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        // With a single matching version, the update left the next one
+        if (expectedVersions != null && expectedVersions.size() == 1) {
+            response.eTag(ContactEtags.of(id, expectedVersions.iterator().next() + 1));
+        }
+        return response.body(saved);
+    }
+
+    // JSON merge patch: only the fields sent are changed, and only those columns are written
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ContactDto> patchContact(@PathVariable Long id, @RequestBody Map<String, Object> patch,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        logger.info("Patching contact id: {}", id);
+        ContactService.TaggedContact patched = contactService.patchContact(id, patch, ContactEtags.versions(id, ifMatch));
+        return ResponseEntity.ok().eTag(patched.etag()).body(patched.contact());
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteContact(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteContact(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Deleting contact id: {}", id);
-        contactService.deleteContact(id);
+        contactService.deleteContact(id, ContactEtags.versions(id, ifMatch));
         return ResponseEntity.ok().build();
     }
 
+    // Bulk writes take up to app.contacts.max-bulk-size items and answer with one result per item, in request order.
+    // Items that fail validation are reported and skipped; the rest are written in JDBC batches.
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkContactResultDto>> createContacts(@RequestBody List<ContactDto> contacts) {
+        logger.info("Creating {} contacts", contacts.size());
+        return ResponseEntity.ok(contactService.createContacts(contacts));
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<List<BulkContactResultDto>> updateContacts(@RequestBody List<ContactDto> contacts) {
+        logger.info("Updating {} contacts", contacts.size());
+        return ResponseEntity.ok(contactService.updateContacts(contacts));
+    }
+
+    // POST rather than DELETE, since request bodies on DELETE are dropped by some clients and proxies
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<List<BulkContactResultDto>> deleteContacts(@RequestBody List<Long> ids) {
+        logger.info("Deleting {} contacts", ids.size());
+        return ResponseEntity.ok(contactService.deleteContacts(ids));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ContactDto> getContactById(@PathVariable Long id) {
+    public ResponseEntity<ContactDto> getContactById(@PathVariable Long id, WebRequest request) {
         logger.info("Fetching contact id: {}", id);
-        return ResponseEntity.ok(contactService.getContactById(id));
+        return ConditionalGet.respond(request, contactService.getContactEtag(id), () -> contactService.getContactById(id));
     }
-}
\ No newline at end of file
+}
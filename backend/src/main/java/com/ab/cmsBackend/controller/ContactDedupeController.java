@@ -0,0 +1,42 @@
+package com.ab.cmsBackend.controller;
+
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.dto.DuplicateClusterDto;
+import com.ab.cmsBackend.dto.MergeContactsDto;
+import com.ab.cmsBackend.service.ContactDedupeService;
+import com.ab.cmsBackend.service.ContactService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/contacts")
+public class ContactDedupeController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactDedupeController.class);
+
+    private final ContactDedupeService contactDedupeService;
+    private final ContactService contactService;
+
+    public ContactDedupeController(ContactDedupeService contactDedupeService, ContactService contactService) {
+        this.contactDedupeService = contactDedupeService;
+        this.contactService = contactService;
+    }
+
+    @GetMapping("/duplicates")
+    public ResponseEntity<List<DuplicateClusterDto>> findDuplicates(@RequestParam(required = false) Double minScore,
+                                                                    @RequestParam(defaultValue = "20") int limit) {
+        logger.info("Finding duplicate contacts, minScore: {}", minScore);
+        return ResponseEntity.ok(contactDedupeService.findDuplicates(minScore, limit));
+    }
+
+    @PostMapping("/merge")
+    public ResponseEntity<ContactDto> mergeContacts(@Valid @RequestBody MergeContactsDto request) {
+        logger.info("Merging contacts {} into {}", request.getSourceIds(), request.getTargetId());
+        return ResponseEntity.ok(contactService.mergeContacts(request.getTargetId(), request.getSourceIds()));
+    }
+}
@@ -0,0 +1,36 @@
+package com.ab.cmsBackend.controller;
+
+import com.ab.cmsBackend.service.ContactExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/contacts/export")
+public class ContactExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactExportController.class);
+
+    private final ContactExportService contactExportService;
+
+    public ContactExportController(ContactExportService contactExportService) {
+        this.contactExportService = contactExportService;
+    }
+
+    // ?format=csv (default) or ndjson; the body is written after this returns, as rows are read
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportContacts(@RequestParam(defaultValue = "csv") String format) {
+        ContactExportService.Format exportFormat = ContactExportService.Format.of(format);
+        logger.info("Exporting contacts as {}", exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("contacts." + exportFormat.extension()).build().toString())
+                .body(contactExportService.export(exportFormat));
+    }
+}
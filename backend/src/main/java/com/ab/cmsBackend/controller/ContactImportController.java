@@ -0,0 +1,39 @@
+package com.ab.cmsBackend.controller;
+
+import com.ab.cmsBackend.dto.ImportJobDto;
+import com.ab.cmsBackend.service.ContactImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/contacts/import")
+public class ContactImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactImportController.class);
+
+    private final ContactImportService contactImportService;
+
+    public ContactImportController(ContactImportService contactImportService) {
+        this.contactImportService = contactImportService;
+    }
+
+    // Answers 202 at once; poll the Location for progress and rejected rows
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDto> startImport(@RequestParam("file") MultipartFile file) throws IOException {
+        logger.info("Starting contact import of {} bytes", file.getSize());
+        ImportJobDto job = contactImportService.startImport(file);
+        return ResponseEntity.accepted().location(URI.create("/api/contacts/import/" + job.getId())).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobDto> getImport(@PathVariable String id) {
+        return ResponseEntity.ok(contactImportService.getJob(id));
+    }
+}
@@ -0,0 +1,44 @@
+package com.ab.cmsBackend.controller;
+
+import com.ab.cmsBackend.dto.ContactChangesDto;
+import com.ab.cmsBackend.service.ContactEventStream;
+import com.ab.cmsBackend.service.ContactSyncService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/contacts")
+public class ContactSyncController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactSyncController.class);
+
+    private final ContactSyncService contactSyncService;
+    private final ContactEventStream contactEventStream;
+
+    public ContactSyncController(ContactSyncService contactSyncService, ContactEventStream contactEventStream) {
+        this.contactSyncService = contactSyncService;
+        this.contactEventStream = contactEventStream;
+    }
+
+    // Start without since; keep calling with the returned cursor while hasMore, then poll. 410 means reload.
+    @GetMapping("/changes")
+    public ResponseEntity<ContactChangesDto> getChanges(@RequestParam(required = false) String since,
+                                                        @RequestParam(defaultValue = "100") int limit) {
+        logger.info("Fetching contact changes since: {}", since);
+        return ResponseEntity.ok(contactSyncService.getChanges(since, limit));
+    }
+
+    // A "contacts" event per write, listing its changes as the feed does; take a feed cursor first and catch up on reconnect
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges() {
+        logger.info("Opening contact event stream");
+        return contactEventStream.subscribe();
+    }
+}
@@ -1,17 +1,24 @@
 package com.ab.cmsBackend.controller;
 
+import com.ab.cmsBackend.config.AuthRateLimiter;
 import com.ab.cmsBackend.dto.ForgotPasswordDto;
 import com.ab.cmsBackend.dto.RegisterDto;
 import com.ab.cmsBackend.dto.ResetPasswordDto;
+import com.ab.cmsBackend.service.PasswordResetDispatcher;
 import com.ab.cmsBackend.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/user")
@@ -20,16 +27,29 @@ public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     private final UserService userService;
+    private final AuthRateLimiter authRateLimiter;
+    private final PasswordResetDispatcher passwordResetDispatcher;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, AuthRateLimiter authRateLimiter,
+                          PasswordResetDispatcher passwordResetDispatcher) {
         this.userService = userService;
+        this.authRateLimiter = authRateLimiter;
+        this.passwordResetDispatcher = passwordResetDispatcher;
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<RegisterDto> getProfile() {
+    public ResponseEntity<RegisterDto> getProfile(WebRequest request) {
         // Assume user is authenticated, get from security context
         logger.info("Fetching user profile");
-        return ResponseEntity.ok(userService.getProfile());
+        // Comes from the user lookup cache, so a revalidation costs no query and no serialization
+        RegisterDto profile = userService.getProfile();
+        return ConditionalGet.respond(request, profile == null ? null : profileEtag(profile), () -> profile);
+    }
+
+    // A digest of everything the profile shows; the email makes it unique per user
+    static String profileEtag(RegisterDto profile) {
+        String content = profile.getEmail() + "\n" + Objects.toString(profile.getPhone(), "");
+        return DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
     }
 
     @PutMapping("/change-password")
@@ -43,27 +63,18 @@ public class UserController {
 
     @PostMapping("/forgot-password")
     public ResponseEntity<Map<String, String>> forgotPassword(
-            @Valid @RequestBody ForgotPasswordDto request) {
+            @Valid @RequestBody ForgotPasswordDto request, HttpServletRequest httpRequest) {
         logger.info("MS SQL: Forgot password request for email: {}", request.getEmail());
+        authRateLimiter.check("forgot-password", httpRequest.getRemoteAddr(), request.getEmail());
 
-        try {
-            userService.initiatePasswordReset(request.getEmail());
-
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Password reset email sent successfully");
-            response.put("note", "Check server logs for reset link (development mode)");
-
-            return ResponseEntity.ok(response);
+        // The lookup, token write and email run after the response, so known and unknown
+        // addresses get the same answer in the same time
+        passwordResetDispatcher.dispatch(request.getEmail());
 
-        } catch (RuntimeException e) {
-            // For security, return success even if user doesn't exist
-            logger.warn("MS SQL: Password reset request handled - {}", e.getMessage());
-
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "If an account exists with this email, you will receive a password reset link");
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "If an account exists with this email, you will receive a password reset link");
 
-            return ResponseEntity.ok(response);
-        }
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping("/reset-password")
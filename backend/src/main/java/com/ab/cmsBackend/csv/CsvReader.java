@@ -0,0 +1,116 @@
+package com.ab.cmsBackend.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time, so only the current record is ever held in memory.
+ * Fields may be quoted, with "" for a literal quote; quoted fields may span lines. Lines may end in
+ * LF or CRLF, and a leading byte order mark is skipped. A field longer than {@code maxFieldLength}
+ * fails the read, which keeps a file with a runaway quote from being buffered whole.
+ */
+public class CsvReader {
+
+    private final Reader reader;
+    private final int maxFieldLength;
+    private final StringBuilder field = new StringBuilder();
+
+    private int peeked = -2;
+    private long line = 1;
+    private long recordLine;
+    private boolean started;
+
+    // The reader should be buffered; it is read one character at a time
+    public CsvReader(Reader reader, int maxFieldLength) {
+        this.reader = reader;
+        this.maxFieldLength = maxFieldLength;
+    }
+
+    /**
+     * @return the fields of the next record, or null at the end of the input
+     */
+    public List<String> next() throws IOException {
+        if (!started) {
+            started = true;
+            if (peek() == '\uFEFF') {
+                read();
+            }
+        }
+        if (peek() == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        while (true) {
+            fields.add(readField());
+            int c = read();
+            if (c == ',') {
+                continue;
+            }
+            if (c == '\r' && peek() == '\n') {
+                read();
+            }
+            return fields;
+        }
+    }
+
+    // Line on which the record last returned by next() starts, counting from 1
+    public long getLine() {
+        return recordLine;
+    }
+
+    // Leaves the delimiter (comma, line end or end of input) unread
+    private String readField() throws IOException {
+        field.setLength(0);
+        if (peek() != '"') {
+            while (peek() != ',' && peek() != '\n' && peek() != '\r' && peek() != -1) {
+                append(read());
+            }
+            return field.toString();
+        }
+        read();
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IOException("Line " + recordLine + ": unterminated quoted field");
+            }
+            if (c == '"') {
+                if (peek() != '"') {
+                    break;
+                }
+                read();
+            }
+            append(c);
+        }
+        // Tolerate stray text after the closing quote rather than rejecting the record
+        while (peek() != ',' && peek() != '\n' && peek() != '\r' && peek() != -1) {
+            append(read());
+        }
+        return field.toString();
+    }
+
+    private void append(int c) throws IOException {
+        if (field.length() >= maxFieldLength) {
+            throw new IOException("Line " + recordLine + ": field longer than " + maxFieldLength + " characters");
+        }
+        field.append((char) c);
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        peeked = -2;
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ab.cmsBackend.csv;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes RFC 4180 CSV, the counterpart of {@link CsvReader}. Fields containing a comma, quote or line
+ * break are quoted; null is written as an empty field. Records end in CRLF. Nothing is buffered here,
+ * so pass a buffered writer.
+ *
+ * Files meant for spreadsheets should escape formulas: Excel and Sheets run a field starting with
+ * =, +, -, @, tab or CR as a formula (CSV injection), so such fields are written quoted behind a '.
+ */
+public class CsvWriter {
+
+    private static final String FORMULA_TRIGGERS = "=+-@\t\r";
+
+    private final Writer writer;
+    private final boolean escapeFormulas;
+
+    public CsvWriter(Writer writer) {
+        this(writer, false);
+    }
+
+    public CsvWriter(Writer writer, boolean escapeFormulas) {
+        this.writer = writer;
+        this.escapeFormulas = escapeFormulas;
+    }
+
+    /**
+     * Undoes the formula escaping on a field read back from a file this class wrote, so exported contacts
+     * import unchanged.
+     */
+    public static String unescapeFormula(String field) {
+        return field.length() > 1 && field.charAt(0) == '\'' && isFormula(field.substring(1)) ? field.substring(1) : field;
+    }
+
+    private static boolean isFormula(String field) {
+        return !field.isEmpty() && FORMULA_TRIGGERS.indexOf(field.charAt(0)) >= 0;
+    }
+
+    public void writeRecord(String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(fields[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String field) throws IOException {
+        if (field == null) {
+            return;
+        }
+        if (escapeFormulas && isFormula(field)) {
+            field = "'" + field;
+        } else if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            writer.write(field);
+            return;
+        }
+        // Escaped formulas are always quoted, as OWASP recommends against CSV injection
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,280 @@
+package com.ab.cmsBackend.dedupe;
+
+import com.ab.cmsBackend.dto.ContactDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Finds likely duplicates among one user's contacts without comparing every pair.
+ *
+ * Each contact goes into a block for every normalized email address, for the last ten digits of every phone
+ * number and for the Soundex codes of its last and first name. Only contacts that share a block are compared,
+ * and within a block each contact is only compared with the next {@code window} contacts in name order
+ * (sorted neighbourhood), so the work grows with contacts x keys x window rather than with the square of
+ * the contact count, however large a block gets. Blocks are scored in parallel on the given pool.
+ *
+ * Pairs scoring at least the minimum score are joined into clusters, strongest pairs first, so A~B and B~C
+ * put all three in one cluster. A cluster's score is that of the weakest pair holding it together.
+ */
+public class DuplicateFinder {
+
+    public record Cluster(double score, List<ContactDto> contacts) {
+    }
+
+    // Blocks handed to one fork-join task before it stops splitting
+    private static final int BLOCKS_PER_TASK = 256;
+
+    private final ForkJoinPool pool;
+    private final int window;
+
+    public DuplicateFinder(ForkJoinPool pool, int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be at least 1");
+        }
+        this.pool = pool;
+        this.window = window;
+    }
+
+    /**
+     * @return clusters of two or more contacts, highest score first
+     */
+    public List<Cluster> find(List<ContactDto> contacts, double minScore) {
+        Profile[] profiles = new Profile[contacts.size()];
+        // Normalizing is most of the per-contact work, so it runs on the pool too
+        pool.submit(() -> IntStream.range(0, profiles.length).parallel()
+                .forEach(i -> profiles[i] = new Profile(contacts.get(i)))).join();
+        Map<String, List<Integer>> blocks = new HashMap<>();
+        for (int i = 0; i < profiles.length; i++) {
+            for (String key : profiles[i].blockingKeys()) {
+                blocks.computeIfAbsent(key, k -> new ArrayList<>(2)).add(i);
+            }
+        }
+        List<int[]> candidates = new ArrayList<>();
+        for (List<Integer> block : blocks.values()) {
+            if (block.size() > 1) {
+                candidates.add(block.stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+
+        List<Edge> edges = pool.invoke(new ScoreBlocks(candidates, 0, candidates.size(), profiles, window, minScore));
+        edges.sort(Comparator.comparingDouble(Edge::score).reversed());
+        return cluster(contacts, edges);
+    }
+
+    /**
+     * Likelihood that two contacts are the same person, from 0 to 1. Combines name similarity, a shared email
+     * address and a shared phone number as independent evidence: the same name alone scores 0.7, a shared email
+     * with an unrelated name around 0.93, and the same name and phone 0.94.
+     */
+    public static double score(ContactDto a, ContactDto b) {
+        return score(new Profile(a), new Profile(b));
+    }
+
+    private static double score(Profile a, Profile b) {
+        double name = a.name.isEmpty() || b.name.isEmpty() ? 0.0 : JaroWinkler.similarity(a.name, b.name);
+        double email = intersects(a.emails, b.emails) ? 1.0 : 0.0;
+        double phone = intersects(a.phones, b.phones) ? 1.0 : 0.0;
+        return 1.0 - (1.0 - 0.7 * name) * (1.0 - 0.9 * email) * (1.0 - 0.8 * phone);
+    }
+
+    private static boolean intersects(String[] a, String[] b) {
+        for (String x : a) {
+            for (String y : b) {
+                if (x.equals(y)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<Cluster> cluster(List<ContactDto> contacts, List<Edge> edges) {
+        int[] parent = new int[contacts.size()];
+        int[] size = new int[contacts.size()];
+        double[] weakest = new double[contacts.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+            size[i] = 1;
+            weakest[i] = 1.0;
+        }
+        for (Edge edge : edges) {
+            int a = root(parent, edge.a());
+            int b = root(parent, edge.b());
+            if (a == b) {
+                continue;
+            }
+            if (size[a] < size[b]) {
+                int swap = a;
+                a = b;
+                b = swap;
+            }
+            parent[b] = a;
+            size[a] += size[b];
+            // Edges arrive strongest first, so the joining edge is the weakest link so far
+            weakest[a] = Math.min(Math.min(weakest[a], weakest[b]), edge.score());
+        }
+
+        Map<Integer, List<ContactDto>> members = new HashMap<>();
+        for (int i = 0; i < parent.length; i++) {
+            int r = root(parent, i);
+            if (size[r] > 1) {
+                members.computeIfAbsent(r, k -> new ArrayList<>()).add(contacts.get(i));
+            }
+        }
+        List<Cluster> clusters = new ArrayList<>(members.size());
+        members.forEach((r, list) -> {
+            list.sort(Comparator.comparing(ContactDto::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+            clusters.add(new Cluster(weakest[r], list));
+        });
+        clusters.sort(Comparator.comparingDouble(Cluster::score).reversed()
+                .thenComparing(cluster -> -cluster.contacts().size()));
+        return clusters;
+    }
+
+    private static int root(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private record Edge(int a, int b, double score) {
+    }
+
+    private static final class ScoreBlocks extends RecursiveTask<List<Edge>> {
+
+        private final List<int[]> blocks;
+        private final int from;
+        private final int to;
+        private final Profile[] profiles;
+        private final int window;
+        private final double minScore;
+
+        ScoreBlocks(List<int[]> blocks, int from, int to, Profile[] profiles, int window, double minScore) {
+            this.blocks = blocks;
+            this.from = from;
+            this.to = to;
+            this.profiles = profiles;
+            this.window = window;
+            this.minScore = minScore;
+        }
+
+        @Override
+        protected List<Edge> compute() {
+            if (to - from > BLOCKS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                ScoreBlocks left = new ScoreBlocks(blocks, from, middle, profiles, window, minScore);
+                left.fork();
+                List<Edge> edges = new ScoreBlocks(blocks, middle, to, profiles, window, minScore).compute();
+                edges.addAll(left.join());
+                return edges;
+            }
+            List<Edge> edges = new ArrayList<>();
+            for (int b = from; b < to; b++) {
+                int[] block = blocks.get(b);
+                if (block.length > window + 1) {
+                    // Only large blocks need ordering; small ones compare all pairs anyway
+                    block = Arrays.stream(block).boxed()
+                            .sorted(Comparator.comparing((Integer i) -> profiles[i].name))
+                            .mapToInt(Integer::intValue).toArray();
+                }
+                for (int i = 0; i < block.length; i++) {
+                    for (int j = i + 1; j < Math.min(block.length, i + 1 + window); j++) {
+                        double score = score(profiles[block[i]], profiles[block[j]]);
+                        if (score >= minScore) {
+                            edges.add(new Edge(block[i], block[j], score));
+                        }
+                    }
+                }
+            }
+            return edges;
+        }
+    }
+
+    // The normalized fields a contact is blocked and scored on, computed once per contact
+    private static final class Profile {
+
+        private final String name;
+        private final String[] emails;
+        private final String[] phones;
+        private final String phonetic;
+
+        Profile(ContactDto contact) {
+            name = normalizeName(Objects.toString(contact.getFirstName(), "") + " " + Objects.toString(contact.getLastName(), ""));
+            emails = distinct(normalizeEmail(contact.getEmailWork()), normalizeEmail(contact.getEmailPersonal()));
+            phones = distinct(normalizePhone(contact.getPhoneWork()), normalizePhone(contact.getPhoneHome()),
+                    normalizePhone(contact.getPhonePersonal()));
+            String first = Soundex.encode(contact.getFirstName());
+            String last = Soundex.encode(contact.getLastName());
+            phonetic = first.isEmpty() && last.isEmpty() ? null : last + first;
+        }
+
+        List<String> blockingKeys() {
+            List<String> keys = new ArrayList<>(emails.length + phones.length + 1);
+            for (String email : emails) {
+                keys.add("e:" + email);
+            }
+            for (String phone : phones) {
+                keys.add("p:" + phone);
+            }
+            if (phonetic != null) {
+                keys.add("n:" + phonetic);
+            }
+            return keys;
+        }
+
+        private static String normalizeName(String name) {
+            return name.toLowerCase(Locale.ROOT)
+                    .replaceAll("[^\\p{L}\\p{N} ]", "").trim().replaceAll(" +", " ");
+        }
+
+        // Case-insensitive, and "jane+work@example.com" is the same mailbox as "jane@example.com"
+        private static String normalizeEmail(String email) {
+            if (email == null || email.isBlank()) {
+                return null;
+            }
+            String normalized = email.trim().toLowerCase(Locale.ROOT);
+            int at = normalized.indexOf('@');
+            int plus = normalized.indexOf('+');
+            if (at > 0 && plus > 0 && plus < at) {
+                normalized = normalized.substring(0, plus) + normalized.substring(at);
+            }
+            return normalized;
+        }
+
+        // Digits only, last ten so "+1 (555) 010-0000" and "555-010-0000" match; too short to be a number is ignored
+        private static String normalizePhone(String phone) {
+            if (phone == null) {
+                return null;
+            }
+            String digits = phone.replaceAll("\\D", "");
+            if (digits.length() < 7) {
+                return null;
+            }
+            return digits.length() > 10 ? digits.substring(digits.length() - 10) : digits;
+        }
+
+        private static String[] distinct(String... values) {
+            Set<String> set = new LinkedHashSet<>();
+            for (String value : values) {
+                if (value != null) {
+                    set.add(value);
+                }
+            }
+            return set.toArray(String[]::new);
+        }
+    }
+}
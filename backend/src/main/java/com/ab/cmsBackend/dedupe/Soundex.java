@@ -0,0 +1,49 @@
+package com.ab.cmsBackend.dedupe;
+
+import java.util.Locale;
+
+/**
+ * American Soundex: a letter and three digits that sound-alike names share ("Robert" and "Rupert" are
+ * both R163). Characters other than A-Z are ignored; a name without any gives "".
+ */
+public final class Soundex {
+
+    //                                      ABCDEFGHIJKLMNOPQRSTUVWXYZ
+    private static final String CODES = "01230120022455012623010202";
+
+    private Soundex() {
+    }
+
+    public static String encode(String name) {
+        if (name == null) {
+            return "";
+        }
+        String upper = name.toUpperCase(Locale.ROOT);
+        StringBuilder code = new StringBuilder(4);
+        char last = 0;
+        for (int i = 0; i < upper.length() && code.length() < 4; i++) {
+            char c = upper.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                continue;
+            }
+            char digit = CODES.charAt(c - 'A');
+            if (code.length() == 0) {
+                code.append(c);
+                last = digit;
+            } else if (digit != '0' && digit != last) {
+                code.append(digit);
+                last = digit;
+            } else if (c != 'H' && c != 'W') {
+                // Vowels separate equal codes; H and W do not
+                last = digit;
+            }
+        }
+        if (code.length() == 0) {
+            return "";
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.ab.cmsBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Outcome of one item of a bulk request; results come back in request order
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkContactResultDto {
+
+    public enum Status {
+        CREATED, UPDATED, DELETED, INVALID, NOT_FOUND
+    }
+
+    private int index; // position of the item in the request
+    private Status status;
+    private Long id;
+    private List<String> errors; // validation messages, only for INVALID
+}
@@ -0,0 +1,20 @@
+package com.ab.cmsBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One contact that changed: its current state, or a tombstone if it no longer exists
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactChangeDto {
+
+    public enum Type {
+        UPSERT, DELETE
+    }
+
+    private Long contactId;
+    private Type type;
+    private ContactDto contact; // null for DELETE
+}
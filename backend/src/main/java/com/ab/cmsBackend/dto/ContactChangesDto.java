@@ -0,0 +1,17 @@
+package com.ab.cmsBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One batch of the delta sync feed, oldest change first
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactChangesDto {
+    private List<ContactChangeDto> changes;
+    private String cursor; // pass back as ?since= for the changes after this batch
+    private boolean hasMore; // another batch is ready now; otherwise poll again later with the cursor
+}
@@ -2,8 +2,10 @@ package com.ab.cmsBackend.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class ContactDto {
     private Long id;
 
@@ -21,4 +23,18 @@ public class ContactDto {
     private String phonePersonal;
 
     private Long userId; // This will be set from logged-in user, not from frontend
-}
\ No newline at end of file
+
+    // Used by the JPQL constructor expressions in ContactRepository
+    public ContactDto(Long id, String firstName, String lastName, String title, String emailWork,
+                      String emailPersonal, String phoneWork, String phoneHome, String phonePersonal) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.title = title;
+        this.emailWork = emailWork;
+        this.emailPersonal = emailPersonal;
+        this.phoneWork = phoneWork;
+        this.phoneHome = phoneHome;
+        this.phonePersonal = phonePersonal;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ab.cmsBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One bounded page of contacts; there is no total, only whether another page follows
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactPageDto {
+    private List<ContactDto> content;
+    private int page; // 0 when the page was addressed by cursor
+    private int size;
+    private boolean hasNext;
+    private String nextCursor; // pass back as ?cursor= to continue after the last contact of this page
+}
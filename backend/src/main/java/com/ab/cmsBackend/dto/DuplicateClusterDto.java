@@ -0,0 +1,16 @@
+package com.ab.cmsBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Contacts that probably describe the same person; pass their ids to /api/contacts/merge to combine them
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateClusterDto {
+    private double score; // 0-1, the weakest match holding the cluster together
+    private List<ContactDto> contacts;
+}
@@ -0,0 +1,26 @@
+package com.ab.cmsBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Progress of a CSV contact import, as returned by /api/contacts/import/{id}
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDto {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private String id;
+    private Status status;
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private List<RejectedRowDto> rejectedRows; // the first app.contact-import.max-rejections-reported only
+    private String error; // why a FAILED import stopped; rows committed before that stay imported
+}
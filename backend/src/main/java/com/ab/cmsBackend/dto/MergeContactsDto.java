@@ -0,0 +1,21 @@
+package com.ab.cmsBackend.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MergeContactsDto {
+
+    @NotNull(message = "Target id is required")
+    private Long targetId; // the contact that is kept
+
+    @NotEmpty(message = "Source ids are required")
+    private List<Long> sourceIds; // merged into the target, then deleted
+}
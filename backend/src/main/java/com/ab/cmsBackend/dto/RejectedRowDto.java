@@ -0,0 +1,15 @@
+package com.ab.cmsBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejectedRowDto {
+    private long line; // line of the CSV file the row starts on, the header being line 1
+    private List<String> errors;
+}
@@ -2,12 +2,21 @@ package com.ab.cmsBackend.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Data
+// Serves the keyset listing: one user's contacts in (last name, first name, id) order, seekable from any row.
+// Names must not be NULL for that; db/sqlserver/002-contact-blank-names.sql backfills older rows
+@Table(indexes = @Index(name = "idx_contact_user_name", columnList = "user_id, last_name, first_name, id"))
 public class Contact {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids come from a sequence in blocks of 50, so inserts need no round trip for the key and can be batched.
+    // Databases created while this was IDENTITY need db/sqlserver/001-contact-id-sequence.sql first
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contact_seq")
+    @SequenceGenerator(name = "contact_seq", sequenceName = "contact_seq", allocationSize = 50)
     private Long id;
     private String firstName;
     private String lastName;
@@ -18,6 +27,14 @@ public class Contact {
     private String phoneHome;
     private String phonePersonal;
 
-    @ManyToOne
+    // Bumped by every update; the detail ETag is built from it, and conditional writes check it. The default fills rows that predate the column
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
+    // Only the id is needed on the write paths, and a proxy answers that without a query
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 }
@@ -0,0 +1,39 @@
+package com.ab.cmsBackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// One entry of a user's contact change log, read by the delta sync feed. Entries carry no contact data;
+// the feed joins the current state, so a deleted contact leaves nothing behind but its id.
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "contact_change", indexes = {
+        // The feed's keyset: one user's entries in (list version, contact id) order
+        @Index(name = "idx_contact_change_user_version", columnList = "user_id, list_version, contact_id", unique = true),
+        @Index(name = "idx_contact_change_time", columnList = "changed_at")
+})
+public class ContactChange {
+    @Id
+    // Sequence ids in blocks, like contacts, so a bulk write logs its entries in JDBC batches
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contact_change_seq")
+    @SequenceGenerator(name = "contact_change_seq", sequenceName = "contact_change_seq", allocationSize = 50)
+    private Long id;
+    private Long userId;
+    // The user's list version the write moved to; orders the log, since writes for one user serialize on it
+    private long listVersion;
+    private Long contactId;
+    private boolean deleted;
+    private Instant changedAt;
+
+    public ContactChange(Long userId, long listVersion, Long contactId, boolean deleted, Instant changedAt) {
+        this.userId = userId;
+        this.listVersion = listVersion;
+        this.contactId = contactId;
+        this.deleted = deleted;
+        this.changedAt = changedAt;
+    }
+}
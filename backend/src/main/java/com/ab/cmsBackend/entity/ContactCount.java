@@ -0,0 +1,26 @@
+package com.ab.cmsBackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+// Running number of contacts per user, so the count endpoint never scans the contact table,
+// and a version of the user's contact list that changes with every write to it
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "contact_count")
+public class ContactCount {
+    @Id
+    private Long userId;
+    private long contacts;
+    @ColumnDefault("0")
+    private long listVersion;
+
+    public ContactCount(Long userId, long contacts) {
+        this(userId, contacts, 0);
+    }
+}
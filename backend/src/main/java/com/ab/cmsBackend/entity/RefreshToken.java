@@ -0,0 +1,21 @@
+package com.ab.cmsBackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "idx_refresh_token_user", columnList = "userId")
+})
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String tokenHash; // SHA-256 of the token, the token itself is never stored
+    private Long userId;
+    private LocalDateTime expiresAt;
+}
@@ -6,7 +6,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "users") // Avoid conflict with reserved word
+@Table(name = "users", // Avoid conflict with reserved word
+        indexes = @Index(name = "idx_users_email", columnList = "email"))
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
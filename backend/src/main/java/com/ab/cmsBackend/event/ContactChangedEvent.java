@@ -0,0 +1,28 @@
+package com.ab.cmsBackend.event;
+
+import com.ab.cmsBackend.dto.ContactDto;
+
+/**
+ * Published by ContactService after a contact is created, updated or deleted.
+ * Carries the full state after the change (null for deletes), so listeners can apply it without
+ * reading the database again. Listeners use @TransactionalEventListener so they only see committed
+ * changes.
+ */
+public record ContactChangedEvent(Long userId, Long contactId, Type type, ContactDto contact) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static ContactChangedEvent created(Long userId, ContactDto contact) {
+        return new ContactChangedEvent(userId, contact.getId(), Type.CREATED, contact);
+    }
+
+    public static ContactChangedEvent updated(Long userId, ContactDto contact) {
+        return new ContactChangedEvent(userId, contact.getId(), Type.UPDATED, contact);
+    }
+
+    public static ContactChangedEvent deleted(Long userId, Long contactId) {
+        return new ContactChangedEvent(userId, contactId, Type.DELETED, null);
+    }
+}
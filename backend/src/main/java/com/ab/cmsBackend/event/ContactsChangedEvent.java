@@ -0,0 +1,11 @@
+package com.ab.cmsBackend.event;
+
+import java.util.List;
+
+/**
+ * Published by ContactService once per write, after the ContactChangedEvents it is made of.
+ * For listeners that handle a write as a whole, such as the event stream, which would otherwise
+ * get one message per contact of a bulk write.
+ */
+public record ContactsChangedEvent(Long userId, List<ContactChangedEvent> changes) {
+}
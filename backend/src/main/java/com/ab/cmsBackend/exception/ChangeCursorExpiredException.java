@@ -0,0 +1,12 @@
+package com.ab.cmsBackend.exception;
+
+/**
+ * Thrown when a delta sync cursor is older than the change log's retention. Entries after it may have
+ * been pruned, so the client has to reload its contacts and start over with a fresh cursor.
+ */
+public class ChangeCursorExpiredException extends RuntimeException {
+
+    public ChangeCursorExpiredException() {
+        super("Change cursor expired; reload the contacts and start again without since");
+    }
+}
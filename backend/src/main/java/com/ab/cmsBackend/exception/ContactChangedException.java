@@ -0,0 +1,12 @@
+package com.ab.cmsBackend.exception;
+
+/**
+ * Thrown when a conditional write names a contact version that is no longer current,
+ * i.e. someone else changed the contact since the client read it.
+ */
+public class ContactChangedException extends RuntimeException {
+
+    public ContactChangedException(Long id) {
+        super("Contact was changed by someone else: " + id);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ab.cmsBackend.exception;
+
+/**
+ * Thrown when a contact does not exist or belongs to another user. Both map to the same 404 so
+ * callers cannot probe which contact ids exist.
+ */
+public class ContactNotFoundException extends RuntimeException {
+
+    public ContactNotFoundException(Long id) {
+        super("Contact not found: " + id);
+    }
+}
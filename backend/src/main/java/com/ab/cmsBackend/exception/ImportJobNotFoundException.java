@@ -0,0 +1,11 @@
+package com.ab.cmsBackend.exception;
+
+/**
+ * Thrown when an import job id is unknown, has expired or belongs to another user.
+ */
+public class ImportJobNotFoundException extends RuntimeException {
+
+    public ImportJobNotFoundException(String id) {
+        super("Import job not found: " + id);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ab.cmsBackend.exception;
+
+/**
+ * Thrown when a refresh token is unknown, already used or expired. The client has to log in again.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,29 @@
+package com.ab.cmsBackend.repository;
+
+import com.ab.cmsBackend.entity.ContactChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface ContactChangeRepository extends JpaRepository<ContactChange, Long> {
+
+    // Keyset read straight off idx_contact_change_user_version, so its cost does not grow with the log
+    @Query("SELECT c FROM ContactChange c WHERE c.userId = :userId AND c.listVersion >= :listVersion"
+            + " AND (c.listVersion > :listVersion OR c.contactId > :contactId)"
+            + " ORDER BY c.listVersion, c.contactId")
+    List<ContactChange> findAfter(Long userId, long listVersion, long contactId, Limit limit);
+
+    @Query("SELECT c.id FROM ContactChange c WHERE c.changedAt < :cutoff ORDER BY c.changedAt")
+    List<Long> findIdsChangedBefore(Instant cutoff, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ContactChange c WHERE c.id IN :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
+}
@@ -0,0 +1,48 @@
+package com.ab.cmsBackend.repository;
+
+import com.ab.cmsBackend.entity.ContactCount;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ContactCountRepository extends JpaRepository<ContactCount, Long> {
+
+    // A plain insert, unlike save, which would overwrite a row another request created in the meantime
+    @Modifying
+    @Transactional
+    @Query("INSERT INTO ContactCount (userId, contacts, listVersion) VALUES (:userId, :contacts, 0)")
+    int insert(@Param("userId") Long userId, @Param("contacts") long contacts);
+
+    // Runs inside the transaction that inserts or deletes the contacts, so both commit or neither does
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("UPDATE ContactCount c SET c.contacts = c.contacts + :delta, c.listVersion = c.listVersion + 1"
+            + " WHERE c.userId = :userId")
+    int adjust(@Param("userId") Long userId, @Param("delta") long delta);
+
+    // For writes that change contacts without changing how many there are
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("UPDATE ContactCount c SET c.listVersion = c.listVersion + 1 WHERE c.userId = :userId")
+    int touch(@Param("userId") Long userId);
+
+    @Query("SELECT c.listVersion FROM ContactCount c WHERE c.userId = :userId")
+    long findListVersion(@Param("userId") Long userId);
+
+    @Query("SELECT c.userId FROM ContactCount c WHERE c.userId > :afterUserId ORDER BY c.userId")
+    List<Long> findUserIdsAfter(@Param("afterUserId") Long afterUserId, Limit limit);
+
+    // Resets the counters in a user id range that drifted from the contact table; returns how many did
+    @Modifying
+    @Transactional
+    @Query("UPDATE ContactCount cc SET cc.contacts = (SELECT COUNT(c) FROM Contact c WHERE c.user.id = cc.userId)"
+            + " WHERE cc.userId BETWEEN :fromUserId AND :toUserId"
+            + " AND cc.contacts <> (SELECT COUNT(c) FROM Contact c WHERE c.user.id = cc.userId)")
+    int reconcile(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+}
@@ -0,0 +1,16 @@
+package com.ab.cmsBackend.repository;
+
+import java.util.Map;
+
+// Fragment of ContactRepository for updates whose column list is only known at run time
+public interface ContactPatchRepository {
+
+    /**
+     * Sets the given attributes of one contact in a single UPDATE that names only those columns and
+     * bumps the version. Applies only while the contact belongs to the user and is still at the version given.
+     *
+     * @param changes new values by Contact attribute name; a null value clears the column
+     * @return the number of rows updated, 0 or 1
+     */
+    int patchByIdAndUserIdAndVersion(Long id, Long userId, long version, Map<String, String> changes);
+}
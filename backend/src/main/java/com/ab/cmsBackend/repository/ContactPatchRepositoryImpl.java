@@ -0,0 +1,36 @@
+package com.ab.cmsBackend.repository;
+
+import com.ab.cmsBackend.entity.Contact;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.Map;
+
+class ContactPatchRepositoryImpl implements ContactPatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // A criteria update rather than @DynamicUpdate on the entity, which would stop Hibernate batching the bulk updates
+    @Override
+    public int patchByIdAndUserIdAndVersion(Long id, Long userId, long version, Map<String, String> changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Contact> update = cb.createCriteriaUpdate(Contact.class);
+        Root<Contact> contact = update.from(Contact.class);
+        changes.forEach((attribute, value) -> {
+            if (value == null) {
+                update.set(contact.<String>get(attribute), cb.nullLiteral(String.class));
+            } else {
+                update.set(contact.<String>get(attribute), value);
+            }
+        });
+        update.set(contact.<Long>get("version"), cb.sum(contact.<Long>get("version"), 1L));
+        update.where(cb.equal(contact.get("id"), id),
+                cb.equal(contact.get("user").get("id"), userId),
+                cb.equal(contact.get("version"), version));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -1,17 +1,150 @@
 package com.ab.cmsBackend.repository;
 
+import com.ab.cmsBackend.dto.ContactDto;
 import com.ab.cmsBackend.entity.Contact;
 import com.ab.cmsBackend.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ContactRepository extends JpaRepository<Contact, Long>, ContactPatchRepository {
+
+    // Reads select straight into DTOs: no managed entities, no snapshots for dirty checking, no user join
+    String SELECT_DTO = "SELECT new com.ab.cmsBackend.dto.ContactDto(c.id, c.firstName, c.lastName, c.title,"
+            + " c.emailWork, c.emailPersonal, c.phoneWork, c.phoneHome, c.phonePersonal) FROM Contact c ";
 
-public interface ContactRepository extends JpaRepository<Contact, Long> {
     Page<Contact> findByUser(User user, Pageable pageable);
 
-    @Query("SELECT c FROM Contact c WHERE c.user = :user AND (c.firstName LIKE %:query% OR c.lastName LIKE %:query%)")
-    List<Contact> searchByUserAndQuery(User user, String query);
-}
\ No newline at end of file
+    // Filters on the foreign key column, so no user lookup or join is needed
+    Page<Contact> findByUserId(Long userId, Pageable pageable);
+
+    @Query(value = SELECT_DTO + "WHERE c.user.id = :userId",
+            countQuery = "SELECT COUNT(c) FROM Contact c WHERE c.user.id = :userId")
+    Page<ContactDto> findDtosByUserId(Long userId, Pageable pageable);
+
+    // Same rows as findDtosByUserId without the COUNT query a Page needs
+    @Query(SELECT_DTO + "WHERE c.user.id = :userId")
+    Slice<ContactDto> findSliceByUserId(Long userId, Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE c.id = :id AND c.user.id = :userId")
+    Optional<ContactDto> findDtoByIdAndUserId(Long id, Long userId);
+
+    long countByUserId(Long userId);
+
+    // Just the version column, enough to answer a conditional GET
+    @Query("SELECT c.version FROM Contact c WHERE c.id = :id AND c.user.id = :userId")
+    Optional<Long> findVersionByIdAndUserId(Long id, Long userId);
+
+    // Ownership is part of the WHERE clause: 0 rows means missing or not yours, with no prior read
+    @Modifying
+    @Query("UPDATE Contact c SET c.firstName = :#{#contact.firstName}, c.lastName = :#{#contact.lastName},"
+            + " c.title = :#{#contact.title}, c.emailWork = :#{#contact.emailWork},"
+            + " c.emailPersonal = :#{#contact.emailPersonal}, c.phoneWork = :#{#contact.phoneWork},"
+            + " c.phoneHome = :#{#contact.phoneHome}, c.phonePersonal = :#{#contact.phonePersonal},"
+            + " c.version = c.version + 1 WHERE c.id = :id AND c.user.id = :userId")
+    int updateByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId, @Param("contact") ContactDto contact);
+
+    // updateByIdAndUserId that also requires one of the given versions to be current
+    @Modifying
+    @Query("UPDATE Contact c SET c.firstName = :#{#contact.firstName}, c.lastName = :#{#contact.lastName},"
+            + " c.title = :#{#contact.title}, c.emailWork = :#{#contact.emailWork},"
+            + " c.emailPersonal = :#{#contact.emailPersonal}, c.phoneWork = :#{#contact.phoneWork},"
+            + " c.phoneHome = :#{#contact.phoneHome}, c.phonePersonal = :#{#contact.phonePersonal},"
+            + " c.version = c.version + 1 WHERE c.id = :id AND c.user.id = :userId AND c.version IN :versions")
+    int updateByIdAndUserIdAndVersionIn(@Param("id") Long id, @Param("userId") Long userId,
+                                        @Param("versions") Collection<Long> versions, @Param("contact") ContactDto contact);
+
+    @Modifying
+    @Query("DELETE FROM Contact c WHERE c.id = :id AND c.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Contact c WHERE c.id = :id AND c.user.id = :userId AND c.version IN :versions")
+    int deleteByIdAndUserIdAndVersionIn(@Param("id") Long id, @Param("userId") Long userId,
+                                        @Param("versions") Collection<Long> versions);
+
+    @Query("SELECT c FROM Contact c WHERE c.id = :id AND c.user.id = :userId")
+    Optional<Contact> findByIdAndUserId(Long id, Long userId);
+
+    // Everything a user owns, used to build their in-memory search index
+    @Query(SELECT_DTO + "WHERE c.user.id = :userId ORDER BY c.id")
+    List<ContactDto> findAllByUserIdOrderByIdAsc(Long userId);
+
+    // Forward-only cursor over everything a user owns, for exports. Reads in idx_contact_user_name order so rows
+    // arrive as the index is walked, with no sort first. Must be consumed, and closed, inside a transaction.
+    @Query(SELECT_DTO + "WHERE c.user.id = :userId ORDER BY c.user.id, c.lastName, c.firstName, c.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ContactDto> streamByUserId(Long userId);
+
+    // Searches match names containing the query literally, like the in-memory indexes: the query's LIKE
+    // wildcards (%, _ and SQL Server's [) are escaped with \ before it is wrapped in %...%
+    String LIKE_CONTAINS = "(c.firstName LIKE :pattern ESCAPE '\\' OR c.lastName LIKE :pattern ESCAPE '\\')";
+
+    static String containsPattern(String query) {
+        return query == null ? null : "%" + query.replaceAll("[\\\\%_\\[]", "\\\\$0") + "%";
+    }
+
+    default List<Contact> searchByUserAndQuery(User user, String query) {
+        return searchByUserAndPattern(user, containsPattern(query));
+    }
+
+    default List<Contact> searchByUserIdAndQuery(Long userId, String query) {
+        return searchByUserIdAndPattern(userId, containsPattern(query));
+    }
+
+    // One page of matches after a contact id, in id order; as a Slice it reads size + 1 rows and runs no count
+    default Slice<ContactDto> searchPageByUserIdAndQuery(Long userId, String query, Long afterId, Pageable pageable) {
+        return searchPageByUserIdAndPattern(userId, containsPattern(query), afterId, pageable);
+    }
+
+    @Query("SELECT c FROM Contact c WHERE c.user = :user AND " + LIKE_CONTAINS)
+    List<Contact> searchByUserAndPattern(User user, String pattern);
+
+    @Query("SELECT c FROM Contact c WHERE c.user.id = :userId AND " + LIKE_CONTAINS)
+    List<Contact> searchByUserIdAndPattern(Long userId, String pattern);
+
+    @Query(SELECT_DTO + "WHERE c.user.id = :userId AND c.id > :afterId AND " + LIKE_CONTAINS + " ORDER BY c.id")
+    Slice<ContactDto> searchPageByUserIdAndPattern(Long userId, String pattern, Long afterId, Pageable pageable);
+
+    // Keyset listing in (lastName, firstName, id) order, read straight off idx_contact_user_name with no OFFSET or COUNT.
+    // Ordering by user id too (constant here) lets the planner see that the index is already in this order, and the
+    // redundant lastName >= bound gives it a start point to seek to instead of filtering from the user's first row.
+    @Query(SELECT_DTO + "WHERE c.user.id = :userId ORDER BY c.user.id, c.lastName, c.firstName, c.id")
+    List<ContactDto> findFirstPageByUserId(Long userId, Limit limit);
+
+    @Query(SELECT_DTO + "WHERE c.user.id = :userId AND c.lastName >= :lastName"
+            + " AND (c.lastName > :lastName OR (c.lastName = :lastName AND (c.firstName > :firstName"
+            + " OR (c.firstName = :firstName AND c.id > :id))))"
+            + " ORDER BY c.user.id, c.lastName, c.firstName, c.id")
+    List<ContactDto> findPageByUserIdAfter(Long userId, String lastName, String firstName, Long id, Limit limit);
+
+    // Entities rather than DTOs: bulk updates change them in place and the flush batches the UPDATEs
+    @Query("SELECT c FROM Contact c WHERE c.id IN :ids AND c.user.id = :userId")
+    List<Contact> findAllByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    @Query(SELECT_DTO + "WHERE c.id IN :ids AND c.user.id = :userId")
+    List<ContactDto> findDtosByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    @Query("SELECT c.id FROM Contact c WHERE c.id IN :ids AND c.user.id = :userId")
+    List<Long> findIdsByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Contact c WHERE c.id IN :ids AND c.user.id = :userId")
+    int deleteAllByIdInAndUserId(Collection<Long> ids, Long userId);
+}
@@ -1,9 +1,12 @@
 package com.ab.cmsBackend.repository;
 
 import com.ab.cmsBackend.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,10 +14,25 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
+    // Keyset-paged scan of all emails, used to build the known-email filter
+    List<EmailRow> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    interface EmailRow {
+        Long getId();
+
+        String getEmail();
+    }
+
     // New method for password reset
     @Query("SELECT u FROM User u WHERE u.resetToken = :token")
     Optional<User> findByResetToken(@Param("token") String token);
 
+    // Replaces the hash only if nobody changed the password since it was read
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int updatePasswordIfUnchanged(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
     // Method to find expired tokens
     @Query("SELECT u FROM User u WHERE u.resetTokenExpiry < CURRENT_TIMESTAMP AND u.resetToken IS NOT NULL")
     List<User> findUsersWithExpiredTokens();
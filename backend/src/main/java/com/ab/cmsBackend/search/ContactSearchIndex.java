@@ -0,0 +1,203 @@
+package com.ab.cmsBackend.search;
+
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.event.ContactChangedEvent;
+import com.ab.cmsBackend.repository.ContactRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * In-memory trigram indexes for contact search, one per user.
+ *
+ * A user's index is built on their first search and then kept current from ContactChangedEvents,
+ * so later searches never touch the database. Indexes are held through soft references in an LRU map
+ * bounded by app.search-index.max-users: the least recently searched users go first, and the garbage
+ * collector may drop any index when the heap runs short. A dropped index is rebuilt on the next search.
+ *
+ * While an index is loading, changes are queued and replayed on top of the loaded rows, and other
+ * searches for that user use the database, so nobody waits on a load.
+ */
+@Component
+public class ContactSearchIndex implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactSearchIndex.class);
+
+    private final Function<Long, List<ContactDto>> loader;
+    private final boolean enabled;
+    private final Map<Long, SoftReference<Holder>> indexes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public ContactSearchIndex(ContactRepository contactRepository,
+                              @Value("${app.search-index.enabled:true}") boolean enabled,
+                              @Value("${app.search-index.max-users:1000}") int maxUsers) {
+        this(contactRepository::findAllByUserIdOrderByIdAsc, enabled, maxUsers);
+    }
+
+    ContactSearchIndex(Function<Long, List<ContactDto>> loader, boolean enabled, int maxUsers) {
+        this.loader = loader;
+        this.enabled = enabled;
+        this.indexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, SoftReference<Holder>> eldest) {
+                if (size() > maxUsers) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Searches the user's index, building it first if needed.
+     *
+     * @return empty when the index is disabled or another request is still loading it; the caller
+     * should then run the database query instead
+     */
+    public Optional<List<ContactDto>> search(Long userId, String query) {
+        return readyIndex(userId).map(index -> index.search(query));
+    }
+
+    /**
+     * Like {@link #search(Long, String)} but returns at most {@code limit} matches with an id above
+     * {@code afterId}, in id order.
+     */
+    public Optional<List<ContactDto>> search(Long userId, String query, long afterId, int limit) {
+        return readyIndex(userId).map(index -> index.search(query, afterId, limit));
+    }
+
+    private Optional<TrigramIndex> readyIndex(Long userId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Holder holder;
+        boolean mustLoad = false;
+        synchronized (indexes) {
+            SoftReference<Holder> ref = indexes.get(userId);
+            holder = ref != null ? ref.get() : null;
+            if (holder == null) {
+                if (ref != null) {
+                    evictions.increment();
+                }
+                holder = new Holder();
+                indexes.put(userId, new SoftReference<>(holder));
+                mustLoad = true;
+            }
+        }
+        if (mustLoad) {
+            load(userId, holder);
+        }
+        TrigramIndex index = holder.readyIndex();
+        if (index == null) {
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(index);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChanged(ContactChangedEvent event) {
+        Holder holder;
+        synchronized (indexes) {
+            SoftReference<Holder> ref = indexes.get(event.userId());
+            holder = ref != null ? ref.get() : null;
+        }
+        // No index yet: the next search loads the current rows anyway
+        if (holder != null) {
+            holder.apply(event);
+        }
+    }
+
+    public void invalidate(Long userId) {
+        synchronized (indexes) {
+            indexes.remove(userId);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("contact.search-index.hits", hits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("contact.search-index.loads", loads, LongAdder::sum).register(registry);
+        FunctionCounter.builder("contact.search-index.evictions", evictions, LongAdder::sum).register(registry);
+        Gauge.builder("contact.search-index.users", this, ContactSearchIndex::size).register(registry);
+    }
+
+    int size() {
+        synchronized (indexes) {
+            return indexes.size();
+        }
+    }
+
+    private void load(Long userId, Holder holder) {
+        try {
+            List<ContactDto> contacts = loader.apply(userId);
+            holder.ready(contacts);
+            loads.increment();
+        } catch (RuntimeException e) {
+            logger.warn("Could not build search index for user {}: {}", userId, e.getMessage());
+            synchronized (indexes) {
+                SoftReference<Holder> ref = indexes.get(userId);
+                if (ref != null && ref.get() == holder) {
+                    indexes.remove(userId);
+                }
+            }
+        }
+    }
+
+    private static final class Holder {
+
+        private final TrigramIndex index = new TrigramIndex();
+        // Changes seen while loading; null once the loaded rows are in
+        private List<ContactChangedEvent> pending = new ArrayList<>();
+        private volatile boolean loaded;
+
+        synchronized void apply(ContactChangedEvent event) {
+            if (pending != null) {
+                pending.add(event);
+            } else {
+                applyTo(index, event);
+            }
+        }
+
+        // Replaying after the snapshot is safe: events carry full state and deletes are idempotent
+        synchronized void ready(List<ContactDto> contacts) {
+            contacts.forEach(index::upsert);
+            pending.forEach(event -> applyTo(index, event));
+            pending = null;
+            loaded = true;
+        }
+
+        TrigramIndex readyIndex() {
+            return loaded ? index : null;
+        }
+
+        private static void applyTo(TrigramIndex index, ContactChangedEvent event) {
+            if (event.type() == ContactChangedEvent.Type.DELETED) {
+                index.remove(event.contactId());
+            } else {
+                index.upsert(event.contact());
+            }
+        }
+    }
+}
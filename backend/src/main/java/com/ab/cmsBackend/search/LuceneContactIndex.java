@@ -0,0 +1,413 @@
+package com.ab.cmsBackend.search;
+
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.event.ContactChangedEvent;
+import com.ab.cmsBackend.repository.ContactRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * On-disk Lucene index over every contact field, for ranked search with prefix matching.
+ *
+ * One index holds all users; every document carries its owner's id and every query filters on it,
+ * so each user only ever sees their own partition. A user's partition is built from the database
+ * the first time they search (a marker document records that it is complete, so this survives
+ * restarts) and can be rebuilt on demand. After that it is kept current from ContactChangedEvents.
+ * Searches go through a SearcherManager that a background thread refreshes near-real-time, so
+ * a write is visible to search within app.lucene.max-staleness-ms without a commit per write.
+ * Commits (durability) happen on a schedule and on shutdown.
+ *
+ * Updates made after the last commit are lost if the process dies, while the markers already committed
+ * survive. Only the shutdown commit is flagged clean, so on startup an index whose last commit is not
+ * drops every marker, and each partition is rebuilt from the database on its next search.
+ */
+@Component
+public class LuceneContactIndex implements MeterBinder, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(LuceneContactIndex.class);
+
+    static final int MAX_RESULTS = 100;
+
+    private static final String ID = "id";
+    private static final String USER_ID = "userId";
+    private static final String KIND = "kind";
+    private static final String KIND_CONTACT = "contact";
+    private static final String KIND_MARKER = "marker";
+    private static final String PHONE_DIGITS = "phoneDigits";
+    private static final String CLEAN_SHUTDOWN = "cleanShutdown";
+
+    // Searchable fields and their weight; a name hit outranks a phone hit
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            "firstName", 3f,
+            "lastName", 3f,
+            "title", 1.5f,
+            "emailWork", 2f,
+            "emailPersonal", 2f,
+            "phoneWork", 1f,
+            "phoneHome", 1f,
+            "phonePersonal", 1f
+    );
+    private static final float PREFIX_WEIGHT = 0.5f;
+    private static final int LOCK_STRIPES = 64;
+
+    private final boolean enabled;
+    private final Function<Long, List<ContactDto>> loader;
+    private final Analyzer analyzer = new StandardAnalyzer(CharArraySet.EMPTY_SET);
+    private final Object[] userLocks = new Object[LOCK_STRIPES];
+    private final Set<Long> readyUsers = ConcurrentHashMap.newKeySet();
+
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+
+    @Autowired
+    public LuceneContactIndex(ContactRepository contactRepository,
+                              @Value("${app.lucene.enabled:true}") boolean enabled,
+                              @Value("${app.lucene.path:data/contact-index}") String path,
+                              @Value("${app.lucene.max-staleness-ms:1000}") long maxStalenessMs) throws IOException {
+        this(enabled ? FSDirectory.open(Path.of(path)) : null,
+                contactRepository::findAllByUserIdOrderByIdAsc,
+                maxStalenessMs);
+    }
+
+    public LuceneContactIndex(Directory directory, Function<Long, List<ContactDto>> loader, long maxStalenessMs)
+            throws IOException {
+        this.enabled = directory != null;
+        this.loader = loader;
+        this.directory = directory;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            userLocks[i] = new Object();
+        }
+        if (!enabled) {
+            this.writer = null;
+            this.searcherManager = null;
+            this.reopenThread = null;
+            return;
+        }
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        if (!closedCleanly(writer)) {
+            writer.deleteDocuments(new Term(KIND, KIND_MARKER));
+            logger.warn("Search index was not shut down cleanly; partitions are rebuilt on their next search");
+        }
+        // Every commit until shutdown says the index may be behind, so a crash from here on is noticed
+        writer.setLiveCommitData(Map.of(CLEAN_SHUTDOWN, "false").entrySet());
+        writer.commit();
+        this.searcherManager = new SearcherManager(writer, new SearcherFactory());
+        this.reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager,
+                maxStalenessMs / 1000.0, 0.01);
+        reopenThread.setName("lucene-nrt-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Ranked search over the user's contacts, best match first. Every word of the query must match
+     * some field, either exactly or as a prefix; exact and name matches score higher.
+     *
+     * @return empty when the index is disabled
+     */
+    public Optional<List<ContactDto>> search(Long userId, String query, int limit) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        ensureBuilt(userId);
+        Query luceneQuery = buildQuery(userId, query);
+        if (luceneQuery == null) {
+            return Optional.of(List.of());
+        }
+        searches.increment();
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(luceneQuery, Math.max(1, Math.min(limit, MAX_RESULTS)));
+                StoredFields storedFields = searcher.storedFields();
+                List<ContactDto> results = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc hit : top.scoreDocs) {
+                    results.add(toDto(storedFields.document(hit.doc)));
+                }
+                return Optional.of(results);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Replaces the user's partition with what is in the database now.
+     */
+    public void rebuild(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lockFor(userId)) {
+            try {
+                List<ContactDto> contacts = loader.apply(userId);
+                writer.deleteDocuments(new Term(USER_ID, userId.toString()));
+                for (ContactDto contact : contacts) {
+                    writer.addDocument(toDocument(userId, contact));
+                }
+                Document marker = new Document();
+                marker.add(new StringField(ID, markerTerm(userId).text(), Field.Store.NO));
+                marker.add(new StringField(KIND, KIND_MARKER, Field.Store.NO));
+                marker.add(new StringField(USER_ID, userId.toString(), Field.Store.NO));
+                long generation = writer.updateDocument(markerTerm(userId), marker);
+                // The caller usually searches straight away, so wait for the rebuild to be visible
+                reopenThread.waitForGeneration(generation);
+                readyUsers.add(userId);
+                rebuilds.increment();
+                logger.info("Rebuilt search index for user {} with {} contacts", userId, contacts.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Runs after commit, so the index never shows a contact whose transaction rolled back
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChanged(ContactChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lockFor(event.userId())) {
+            try {
+                Term id = new Term(ID, event.contactId().toString());
+                if (event.type() == ContactChangedEvent.Type.DELETED) {
+                    writer.deleteDocuments(id);
+                } else {
+                    writer.updateDocument(id, toDocument(event.userId(), event.contact()));
+                }
+                updates.increment();
+            } catch (IOException e) {
+                // The next rebuild repairs the partition; dropping it forces one on the next search
+                logger.warn("Could not update search index for contact {}: {}", event.contactId(), e.getMessage());
+                readyUsers.remove(event.userId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.lucene.commit-interval-ms:30000}")
+    public void commit() throws IOException {
+        if (enabled && writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        reopenThread.close();
+        searcherManager.close();
+        writer.setLiveCommitData(Map.of(CLEAN_SHUTDOWN, "true").entrySet());
+        writer.close();
+        directory.close();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("contact.lucene.searches", searches, LongAdder::sum).register(registry);
+        FunctionCounter.builder("contact.lucene.rebuilds", rebuilds, LongAdder::sum).register(registry);
+        FunctionCounter.builder("contact.lucene.updates", updates, LongAdder::sum).register(registry);
+        if (enabled) {
+            Gauge.builder("contact.lucene.documents", writer, w -> w.getDocStats().numDocs).register(registry);
+        }
+    }
+
+    private void ensureBuilt(Long userId) {
+        if (readyUsers.contains(userId)) {
+            return;
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                if (searcher.count(new TermQuery(markerTerm(userId))) > 0) {
+                    readyUsers.add(userId);
+                    return;
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        synchronized (lockFor(userId)) {
+            if (!readyUsers.contains(userId)) {
+                rebuild(userId);
+            }
+        }
+    }
+
+    Query buildQuery(Long userId, String query) {
+        List<String> terms = analyze(query);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder text = new BooleanQuery.Builder();
+        for (String term : terms) {
+            BooleanQuery.Builder perTerm = new BooleanQuery.Builder();
+            FIELD_BOOSTS.forEach((field, boost) -> {
+                perTerm.add(new BoostQuery(new TermQuery(new Term(field, term)), boost), BooleanClause.Occur.SHOULD);
+                perTerm.add(new BoostQuery(new PrefixQuery(new Term(field, term)), boost * PREFIX_WEIGHT),
+                        BooleanClause.Occur.SHOULD);
+            });
+            text.add(perTerm.build(), BooleanClause.Occur.MUST);
+        }
+        // "555-123" is split into pieces, so the digits also count as a prefix of a whole number
+        BooleanQuery.Builder matches = new BooleanQuery.Builder()
+                .add(text.build(), BooleanClause.Occur.SHOULD);
+        String digits = query.replaceAll("\\D", "");
+        if (digits.length() >= 3) {
+            matches.add(new PrefixQuery(new Term(PHONE_DIGITS, digits)), BooleanClause.Occur.SHOULD);
+        }
+        return new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(USER_ID, userId.toString())), BooleanClause.Occur.FILTER)
+                .add(new TermQuery(new Term(KIND, KIND_CONTACT)), BooleanClause.Occur.FILTER)
+                .add(matches.build(), BooleanClause.Occur.MUST)
+                .build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream("query", text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    // The flag the last commit was made with; a new index has none and no markers either
+    private static boolean closedCleanly(IndexWriter writer) {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (CLEAN_SHUTDOWN.equals(entry.getKey())) {
+                    return Boolean.parseBoolean(entry.getValue());
+                }
+            }
+        }
+        return false;
+    }
+
+    private Object lockFor(Long userId) {
+        return userLocks[Math.floorMod(userId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static Term markerTerm(Long userId) {
+        return new Term(ID, "marker-" + userId);
+    }
+
+    private static Document toDocument(Long userId, ContactDto contact) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, contact.getId().toString(), Field.Store.YES));
+        doc.add(new StringField(USER_ID, userId.toString(), Field.Store.NO));
+        doc.add(new StringField(KIND, KIND_CONTACT, Field.Store.NO));
+        addText(doc, "firstName", contact.getFirstName());
+        addText(doc, "lastName", contact.getLastName());
+        addText(doc, "title", contact.getTitle());
+        addText(doc, "emailWork", contact.getEmailWork());
+        addText(doc, "emailPersonal", contact.getEmailPersonal());
+        addText(doc, "phoneWork", contact.getPhoneWork());
+        addText(doc, "phoneHome", contact.getPhoneHome());
+        addText(doc, "phonePersonal", contact.getPhonePersonal());
+        for (String phone : new String[]{contact.getPhoneWork(), contact.getPhoneHome(), contact.getPhonePersonal()}) {
+            if (phone != null) {
+                doc.add(new StringField(PHONE_DIGITS, phone.replaceAll("\\D", ""), Field.Store.NO));
+            }
+        }
+        return doc;
+    }
+
+    private static void addText(Document doc, String field, String value) {
+        if (value != null) {
+            doc.add(new TextField(field, value, Field.Store.YES));
+        }
+    }
+
+    // Results come from stored fields, so a search never reads the database
+    private static ContactDto toDto(Document doc) {
+        ContactDto dto = new ContactDto();
+        dto.setId(Long.valueOf(doc.get(ID)));
+        dto.setFirstName(doc.get("firstName"));
+        dto.setLastName(doc.get("lastName"));
+        dto.setTitle(doc.get("title"));
+        dto.setEmailWork(doc.get("emailWork"));
+        dto.setEmailPersonal(doc.get("emailPersonal"));
+        dto.setPhoneWork(doc.get("phoneWork"));
+        dto.setPhoneHome(doc.get("phoneHome"));
+        dto.setPhonePersonal(doc.get("phonePersonal"));
+        return dto;
+    }
+}
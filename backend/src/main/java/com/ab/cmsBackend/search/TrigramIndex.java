@@ -0,0 +1,219 @@
+package com.ab.cmsBackend.search;
+
+import com.ab.cmsBackend.dto.ContactDto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Substring index over one user's contact names.
+ *
+ * Every three-character window of the lower-cased first and last name is a posting list (a BitSet of
+ * slot numbers). A query of three or more characters intersects the lists of its own trigrams, which
+ * yields a small superset of the matches, and each candidate is then confirmed with a plain contains.
+ * Shorter queries have no trigrams and scan the slots directly, which is still an in-memory loop.
+ * Matches "first name or last name contains the query, ignoring case", ordered by contact id.
+ */
+class TrigramIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Slot> slots = new ArrayList<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Map<Long, BitSet> postings = new HashMap<>();
+
+    void upsert(ContactDto contact) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(contact.getId());
+            Slot slot = new Slot(copyOf(contact), normalize(contact.getFirstName()), normalize(contact.getLastName()));
+            int index = freeSlots.isEmpty() ? slots.size() : freeSlots.pop();
+            if (index == slots.size()) {
+                slots.add(slot);
+            } else {
+                slots.set(index, slot);
+            }
+            slotById.put(contact.getId(), index);
+            forEachTrigram(slot, trigram -> postings.computeIfAbsent(trigram, k -> new BitSet()).set(index));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long contactId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(contactId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<ContactDto> search(String query) {
+        List<ContactDto> results = new ArrayList<>();
+        if (query == null) {
+            // LIKE against NULL matches nothing
+            return results;
+        }
+        String needle = normalize(query);
+        lock.readLock().lock();
+        try {
+            BitSet candidates = candidatesFor(needle);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                Slot slot = slots.get(i);
+                if (slot != null && slot.matches(needle)) {
+                    results.add(copyOf(slot.contact()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        results.sort(Comparator.comparing(ContactDto::getId));
+        return results;
+    }
+
+    /**
+     * The first {@code limit} matches with an id above {@code afterId}, in id order. Only those are
+     * copied out: the lowest ids are kept in a bounded heap while the candidates are scanned.
+     */
+    List<ContactDto> search(String query, long afterId, int limit) {
+        if (query == null || limit <= 0) {
+            return new ArrayList<>();
+        }
+        String needle = normalize(query);
+        PriorityQueue<ContactDto> lowest = new PriorityQueue<>(Comparator.comparing(ContactDto::getId).reversed());
+        lock.readLock().lock();
+        try {
+            BitSet candidates = candidatesFor(needle);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                Slot slot = slots.get(i);
+                if (slot == null || slot.contact().getId() <= afterId || !slot.matches(needle)) {
+                    continue;
+                }
+                if (lowest.size() < limit) {
+                    lowest.add(slot.contact());
+                } else if (slot.contact().getId() < lowest.peek().getId()) {
+                    lowest.poll();
+                    lowest.add(slot.contact());
+                }
+            }
+            List<ContactDto> results = new ArrayList<>(lowest.size());
+            for (ContactDto contact : lowest) {
+                results.add(copyOf(contact));
+            }
+            results.sort(Comparator.comparing(ContactDto::getId));
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet candidatesFor(String needle) {
+        if (needle.length() < 3) {
+            BitSet all = new BitSet(slots.size());
+            all.set(0, slots.size());
+            return all;
+        }
+        BitSet result = null;
+        for (int i = 0; i + 3 <= needle.length(); i++) {
+            BitSet posting = postings.get(trigram(needle, i));
+            if (posting == null) {
+                return new BitSet();
+            }
+            if (result == null) {
+                result = (BitSet) posting.clone();
+            } else {
+                result.and(posting);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private void removeLocked(Long contactId) {
+        Integer index = slotById.remove(contactId);
+        if (index == null) {
+            return;
+        }
+        Slot slot = slots.get(index);
+        forEachTrigram(slot, trigram -> {
+            BitSet posting = postings.get(trigram);
+            if (posting != null) {
+                posting.clear(index);
+                if (posting.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        });
+        slots.set(index, null);
+        freeSlots.push(index);
+    }
+
+    private static void forEachTrigram(Slot slot, LongConsumer consumer) {
+        forEachTrigram(slot.firstName(), consumer);
+        forEachTrigram(slot.lastName(), consumer);
+    }
+
+    private static void forEachTrigram(String value, LongConsumer consumer) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            consumer.accept(trigram(value, i));
+        }
+    }
+
+    // Three UTF-16 chars packed into one long, so postings are keyed without allocating strings
+    private static long trigram(String value, int start) {
+        return ((long) value.charAt(start) << 32) | ((long) value.charAt(start + 1) << 16) | value.charAt(start + 2);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    static ContactDto copyOf(ContactDto source) {
+        ContactDto copy = new ContactDto();
+        copy.setId(source.getId());
+        copy.setFirstName(source.getFirstName());
+        copy.setLastName(source.getLastName());
+        copy.setTitle(source.getTitle());
+        copy.setEmailWork(source.getEmailWork());
+        copy.setEmailPersonal(source.getEmailPersonal());
+        copy.setPhoneWork(source.getPhoneWork());
+        copy.setPhoneHome(source.getPhoneHome());
+        copy.setPhonePersonal(source.getPhonePersonal());
+        copy.setUserId(source.getUserId());
+        return copy;
+    }
+
+    private record Slot(ContactDto contact, String firstName, String lastName) {
+
+        boolean matches(String needle) {
+            return (firstName != null && firstName.contains(needle))
+                    || (lastName != null && lastName.contains(needle));
+        }
+    }
+}
@@ -1,27 +1,40 @@
 package com.ab.cmsBackend.service;
 
+import com.ab.cmsBackend.cache.KnownEmailFilter;
+import com.ab.cmsBackend.cache.UserLookupCache;
 import com.ab.cmsBackend.dto.LoginDto;
 import com.ab.cmsBackend.dto.RegisterDto;
+import com.ab.cmsBackend.dto.TokenResponseDto;
 import com.ab.cmsBackend.entity.User;
 import com.ab.cmsBackend.repository.UserRepository;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-import java.util.Date;
+import java.util.Optional;
 
 @Service
 public class AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final SessionService sessionService;
+    private final UserLookupCache userLookupCache;
+    private final PasswordRehashService passwordRehashService;
+    private final KnownEmailFilter knownEmailFilter;
 
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    // Checked against on unknown emails so a miss costs the same hash as a wrong password
+    private final String dummyPasswordHash;
+
+    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       SessionService sessionService, UserLookupCache userLookupCache,
+                       PasswordRehashService passwordRehashService, KnownEmailFilter knownEmailFilter) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.sessionService = sessionService;
+        this.userLookupCache = userLookupCache;
+        this.passwordRehashService = passwordRehashService;
+        this.knownEmailFilter = knownEmailFilter;
+        this.dummyPasswordHash = passwordEncoder.encode("dummy-password-for-unknown-users");
     }
 
     public void register(RegisterDto registerDto) {
@@ -30,28 +43,39 @@ public class AuthService {
         user.setPhone(registerDto.getPhone());
         user.setPassword(passwordEncoder.encode(registerDto.getPassword()));
         userRepository.save(user);
+        userLookupCache.invalidate(user);
+        knownEmailFilter.add(user.getEmail());
     }
 
-    public String login(LoginDto loginDto) {
-        User user = userRepository.findByEmail(loginDto.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public TokenResponseDto login(LoginDto loginDto) {
+        // Credential stuffing is mostly unknown emails; those never reach the database
+        Optional<User> found = knownEmailFilter.mightExist(loginDto.getEmail())
+                ? userLookupCache.findByEmail(loginDto.getEmail())
+                : Optional.empty();
+        // An unknown email fails exactly like a wrong password, in time and in message, so login never
+        // tells which accounts exist
+        if (found.isEmpty()) {
+            passwordEncoder.matches(loginDto.getPassword(), dummyPasswordHash);
+            throw new RuntimeException("Invalid credentials");
+        }
+        User user = found.get();
 
         if (!passwordEncoder.matches(loginDto.getPassword(), user.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         }
 
-        // 1. Use a plain string (must be 64+ characters long)
-        String secretString = "my-very-long-and-secure-secret-key-that-must-be-at-least-64-characters-long-12345";
+        // Moves the stored hash to the configured cost without making the user wait
+        passwordRehashService.upgradeIfNeeded(user, loginDto.getPassword());
 
-        // 2. Convert to bytes directly (avoiding the Base64 error)
-        SecretKey key = Keys.hmacShaKeyFor(secretString.getBytes(StandardCharsets.UTF_8));
+        return sessionService.issue(user);
+    }
+
+    // No password check here: possession of an unused, unexpired refresh token is the proof
+    public TokenResponseDto refresh(String refreshToken) {
+        return sessionService.refresh(refreshToken);
+    }
 
-        // 3. Build the token
-        return Jwts.builder()
-                .setSubject(user.getEmail())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 86400000)) // 24 hours
-                .signWith(key) // Use the key object directly
-                .compact();
+    public void logout(String refreshToken, String accessToken) {
+        sessionService.logout(refreshToken, accessToken);
     }
 }
@@ -0,0 +1,46 @@
+package com.ab.cmsBackend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Continuation token for the delta sync feed: the position of the last change log entry a client has
+ * seen, and when the token was issued, which tells whether the log still reaches back that far.
+ * Opaque to clients and base64url, like {@link ContactCursor}.
+ */
+record ChangeCursor(long listVersion, long contactId, long issuedAtMillis) {
+
+    private static final byte VERSION = 1;
+
+    String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(listVersion);
+            out.writeLong(contactId);
+            out.writeLong(issuedAtMillis);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    static ChangeCursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            ChangeCursor cursor = new ChangeCursor(in.readLong(), in.readLong(), in.readLong());
+            if (in.available() > 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return cursor;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.entity.ContactChange;
+import com.ab.cmsBackend.event.ContactChangedEvent;
+import com.ab.cmsBackend.repository.ContactChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The contact change log behind the delta sync feed.
+ *
+ * ContactService records every write here inside the write's own transaction, after bumping the user's
+ * list version. The entries therefore commit together with the change, and, since writes for one user
+ * serialize on their contact_count row, in list version order. Entries older than the retention are
+ * pruned; feed cursors that old are refused, so a client never silently skips pruned entries.
+ */
+@Service
+public class ContactChangeLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactChangeLog.class);
+    private static final int PRUNE_BATCH = 1000;
+    // Entries outlive the cursors by this much, so one logged by a transaction that was still open when a
+    // cursor was issued is not pruned while that cursor is valid
+    private static final Duration PRUNE_MARGIN = Duration.ofHours(1);
+
+    private final ContactChangeRepository contactChangeRepository;
+    private final Duration retention;
+    private final Clock clock;
+
+    @Autowired
+    public ContactChangeLog(ContactChangeRepository contactChangeRepository,
+                            @Value("${app.contact-changes.retention:30d}") Duration retention) {
+        this(contactChangeRepository, retention, Clock.systemUTC());
+    }
+
+    ContactChangeLog(ContactChangeRepository contactChangeRepository, Duration retention, Clock clock) {
+        this.contactChangeRepository = contactChangeRepository;
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    // Must be called inside the transaction that made the changes
+    public void record(Long userId, long listVersion, List<ContactChangedEvent> changes) {
+        // A contact changed twice in one write is logged once, with its final state
+        Map<Long, Boolean> deletedById = new LinkedHashMap<>();
+        changes.forEach(change -> deletedById.put(change.contactId(), change.type() == ContactChangedEvent.Type.DELETED));
+        Instant now = clock.instant();
+        List<ContactChange> entries = new ArrayList<>(deletedById.size());
+        deletedById.forEach((contactId, deleted) -> entries.add(new ContactChange(userId, listVersion, contactId, deleted, now)));
+        contactChangeRepository.saveAll(entries);
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    Instant now() {
+        return clock.instant();
+    }
+
+    @Scheduled(cron = "${app.contact-changes.prune-cron:0 30 4 * * *}")
+    public void prune() {
+        Instant cutoff = clock.instant().minus(retention).minus(PRUNE_MARGIN);
+        long pruned = 0;
+        List<Long> ids;
+        // Small batches keep each delete and its locks short
+        while (!(ids = contactChangeRepository.findIdsChangedBefore(cutoff, Limit.of(PRUNE_BATCH))).isEmpty()) {
+            pruned += contactChangeRepository.deleteAllByIdIn(ids);
+        }
+        if (pruned > 0) {
+            logger.info("Pruned {} contact change log entries older than {}", pruned, retention);
+        }
+    }
+}
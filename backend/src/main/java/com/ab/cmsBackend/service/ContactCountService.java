@@ -0,0 +1,144 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.entity.ContactCount;
+import com.ab.cmsBackend.repository.ContactCountRepository;
+import com.ab.cmsBackend.repository.ContactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Per-user contact counts kept in the contact_count table.
+ *
+ * A user's row is created from COUNT(*) the first time their count is read or their contacts are written.
+ * The row is inserted in a transaction of its own, so when a first read and a first write race to create
+ * it, the loser simply uses the winner's row. From then on every create and delete adjusts it in the same
+ * transaction as the contact rows, so reading it is a primary-key lookup. The periodic reconciliation
+ * recounts every row and fixes any drift.
+ *
+ * The same row carries the user's list version, which every write to their contacts bumps in its own
+ * transaction. List ETags are built from it, so a client can revalidate a page with one lookup.
+ */
+@Service
+public class ContactCountService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactCountService.class);
+    private static final int RECONCILE_BATCH = 1000;
+
+    private final ContactCountRepository contactCountRepository;
+    private final ContactRepository contactRepository;
+    private final TransactionOperations newTransaction;
+
+    @Autowired
+    public ContactCountService(ContactCountRepository contactCountRepository, ContactRepository contactRepository,
+                               PlatformTransactionManager transactionManager) {
+        this(contactCountRepository, contactRepository, requiresNew(transactionManager));
+    }
+
+    ContactCountService(ContactCountRepository contactCountRepository, ContactRepository contactRepository,
+                        TransactionOperations newTransaction) {
+        this.contactCountRepository = contactCountRepository;
+        this.contactRepository = contactRepository;
+        this.newTransaction = newTransaction;
+    }
+
+    private static TransactionOperations requiresNew(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    public long getCount(Long userId) {
+        return contactCountRepository.findById(userId)
+                .map(ContactCount::getContacts)
+                .orElseGet(() -> initialize(userId));
+    }
+
+    /**
+     * The current version of the user's contact list.
+     *
+     * @return empty while the user has no row yet. The row is created here, but a version is only
+     * handed out once it exists, as creating it may race a write.
+     */
+    public Optional<Long> getListVersion(Long userId) {
+        Optional<ContactCount> count = contactCountRepository.findById(userId);
+        if (count.isEmpty()) {
+            initialize(userId);
+        }
+        return count.map(ContactCount::getListVersion);
+    }
+
+    /**
+     * Must be called inside the transaction that changed the contacts, once per transaction.
+     * The row stays locked until that transaction ends, which serializes writes for one user.
+     *
+     * @return the list version the user's contacts moved to
+     */
+    public long adjust(Long userId, long delta) {
+        if (contactCountRepository.adjust(userId, delta) == 0) {
+            create(userId, delta);
+            contactCountRepository.adjust(userId, delta);
+        }
+        return contactCountRepository.findListVersion(userId);
+    }
+
+    // Like adjust, for writes that leave the number of contacts unchanged
+    public long touch(Long userId) {
+        if (contactCountRepository.touch(userId) == 0) {
+            create(userId, 0);
+            contactCountRepository.touch(userId);
+        }
+        return contactCountRepository.findListVersion(userId);
+    }
+
+    // The user's first write since counters exist. The count query flushes this transaction's own changes,
+    // so taking delta off leaves the committed contacts, which the row starts from; the caller's update
+    // then adds delta in this transaction. Should another request insert the row first, that row counted
+    // the same committed contacts and the update lands on it instead.
+    private void create(Long userId, long delta) {
+        insert(userId, contactRepository.countByUserId(userId) - delta);
+    }
+
+    @Scheduled(cron = "${app.contact-count.reconcile-cron:0 0 4 * * *}")
+    public void reconcile() {
+        long corrected = 0;
+        Long afterUserId = 0L;
+        List<Long> userIds;
+        // Small id ranges keep each update statement short and its locks brief
+        while (!(userIds = contactCountRepository.findUserIdsAfter(afterUserId, Limit.of(RECONCILE_BATCH))).isEmpty()) {
+            Long last = userIds.get(userIds.size() - 1);
+            corrected += contactCountRepository.reconcile(userIds.get(0), last);
+            afterUserId = last;
+        }
+        if (corrected > 0) {
+            logger.warn("Reconciled {} contact counts that had drifted", corrected);
+        }
+    }
+
+    private long initialize(Long userId) {
+        long contacts = contactRepository.countByUserId(userId);
+        insert(userId, contacts);
+        return contacts;
+    }
+
+    // Commits on its own, so losing the race on the key never rolls back the caller's transaction
+    private void insert(Long userId, long contacts) {
+        try {
+            newTransaction.executeWithoutResult(status -> contactCountRepository.insert(userId, contacts));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request created the row first; both counted the same table
+            logger.debug("Contact count for user {} was initialized concurrently", userId);
+        }
+    }
+}
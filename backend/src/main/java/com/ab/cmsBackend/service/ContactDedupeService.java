@@ -0,0 +1,75 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.dedupe.DuplicateFinder;
+import com.ab.cmsBackend.dto.DuplicateClusterDto;
+import com.ab.cmsBackend.repository.ContactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Finds duplicate contacts for the current user with {@link DuplicateFinder}, scoring on a dedicated
+ * fork-join pool so a large address book cannot starve the common pool that parallel streams use.
+ */
+@Service
+public class ContactDedupeService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactDedupeService.class);
+
+    private final ContactService contactService;
+    private final ContactRepository contactRepository;
+    private final ForkJoinPool pool;
+    private final DuplicateFinder finder;
+    private final double defaultMinScore;
+    private final int maxClusters;
+
+    public ContactDedupeService(ContactService contactService, ContactRepository contactRepository,
+                                @Value("${app.dedupe.parallelism:0}") int parallelism,
+                                @Value("${app.dedupe.window:20}") int window,
+                                @Value("${app.dedupe.min-score:0.7}") double defaultMinScore,
+                                @Value("${app.contacts.max-page-size:100}") int maxClusters) {
+        this.contactService = contactService;
+        this.contactRepository = contactRepository;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.finder = new DuplicateFinder(pool, window);
+        this.defaultMinScore = defaultMinScore;
+        this.maxClusters = maxClusters;
+    }
+
+    /**
+     * The most likely duplicate clusters, best first.
+     *
+     * @param minScore pairs scoring below this are not considered duplicates; null for app.dedupe.min-score
+     * @param limit    clusters to return, at most app.contacts.max-page-size
+     */
+    @Transactional(readOnly = true)
+    public List<DuplicateClusterDto> findDuplicates(Double minScore, int limit) {
+        double threshold = minScore != null ? minScore : defaultMinScore;
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException("minScore must be above 0 and at most 1");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        Long userId = contactService.getCurrentUserId();
+        long started = System.nanoTime();
+        List<DuplicateFinder.Cluster> clusters = finder.find(contactRepository.findAllByUserIdOrderByIdAsc(userId), threshold);
+        logger.info("Found {} duplicate clusters for user {} in {} ms", clusters.size(), userId,
+                (System.nanoTime() - started) / 1_000_000);
+        return clusters.stream()
+                .limit(Math.min(limit, maxClusters))
+                .map(cluster -> new DuplicateClusterDto(cluster.score(), cluster.contacts()))
+                .toList();
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+}
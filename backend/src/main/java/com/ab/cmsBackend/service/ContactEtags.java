@@ -0,0 +1,48 @@
+package com.ab.cmsBackend.service;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Entity tags for single contacts, of the form {@code <id>-<version>}.
+ */
+public final class ContactEtags {
+
+    private ContactEtags() {
+    }
+
+    public static String of(Long id, long version) {
+        return id + "-" + version;
+    }
+
+    /**
+     * The contact versions an If-Match header accepts.
+     *
+     * @return null when the header is absent or "*", meaning any version will do. Otherwise the versions
+     * of the strong tags naming this contact, which may be none: weak tags never match an If-Match, and
+     * tags for other contacts or in another format are ignored.
+     */
+    public static Set<Long> versions(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefix = id + "-";
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                continue;
+            }
+            tag = tag.substring(1, tag.length() - 1);
+            if (!tag.startsWith(prefix)) {
+                continue;
+            }
+            try {
+                versions.add(Long.parseLong(tag.substring(prefix.length())));
+            } catch (NumberFormatException e) {
+                // Not one of ours
+            }
+        }
+        return versions;
+    }
+}
@@ -0,0 +1,371 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.dto.ContactChangeDto;
+import com.ab.cmsBackend.event.ContactChangedEvent;
+import com.ab.cmsBackend.event.ContactsChangedEvent;
+import com.ab.cmsBackend.exception.ServiceBusyException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * Pushes the current user's contact changes to their open tabs and devices as Server-Sent Events.
+ *
+ * Streams are servlet async requests, so an idle subscriber holds no thread, only its emitter and a
+ * small buffer. Each committed write goes out as one message listing every contact it changed, however
+ * many that is, so the buffers count writes rather than contacts. Fan-out appends the message to each of
+ * the user's subscribers' bounded buffers, which never blocks the writer; a few shared sender threads drain
+ * the buffers onto the sockets. A subscriber whose buffer fills up is too slow and is dropped: its client
+ * reconnects and catches up through the delta sync feed. Heartbeat comments keep proxies from closing
+ * idle streams and find the ones whose client has gone.
+ *
+ * Servlet writes block while the client's TCP window is full. A send that takes longer than
+ * app.contact-events.send-timeout-ms gets its subscriber dropped, and the sender pool gets an extra
+ * thread until that write returns, so stalled clients never take the pool from everyone else.
+ */
+@Service
+public class ContactEventStream implements MeterBinder, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactEventStream.class);
+    static final String CHANGE_EVENT = "contacts";
+    private static final Message HEARTBEAT = new Message(null, null);
+    private static final int IDLE = 0;
+    private static final int SENDING = 1;
+    private static final int STALLED = 2;
+
+    private final ContactService contactService;
+    private final Executor sender;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final int maxPerUser;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final LongFunction<SseEmitter> emitters;
+
+    // Per user an immutable list, replaced on subscribe and unsubscribe, so fan-out reads it without locking
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // Subscribers whose sender thread is inside a write, watched for the send timeout
+    private final Set<Subscriber> sending = ConcurrentHashMap.newKeySet();
+    private final Object poolSize = new Object();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder stalled = new LongAdder();
+
+    @Autowired
+    public ContactEventStream(ContactService contactService,
+                              @Value("${app.contact-events.sender-threads:4}") int senderThreads,
+                              @Value("${app.contact-events.buffer-size:32}") int bufferSize,
+                              @Value("${app.contact-events.max-subscribers:50000}") int maxSubscribers,
+                              @Value("${app.contact-events.max-per-user:10}") int maxPerUser,
+                              @Value("${app.contact-events.timeout-ms:900000}") long timeoutMillis,
+                              @Value("${app.contact-events.send-timeout-ms:5000}") long sendTimeoutMillis) {
+        this(contactService, newSender(senderThreads), bufferSize, maxSubscribers, maxPerUser, timeoutMillis,
+                sendTimeoutMillis, SseEmitter::new);
+    }
+
+    ContactEventStream(ContactService contactService, Executor sender, int bufferSize, int maxSubscribers,
+                       int maxPerUser, long timeoutMillis, long sendTimeoutMillis, LongFunction<SseEmitter> emitters) {
+        this.contactService = contactService;
+        this.sender = sender;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPerUser = maxPerUser;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.emitters = emitters;
+    }
+
+    private static ThreadPoolExecutor newSender(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        // Each subscriber has at most one drain task queued, so the queue is bounded by max-subscribers
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "contact-events-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Opens a stream of the current user's contact changes. It ends after app.contact-events.timeout-ms,
+     * like the access token that opened it, or when the client is too slow; either way the client should
+     * reconnect and fetch what it missed from the delta sync feed.
+     */
+    public SseEmitter subscribe() {
+        Long userId = contactService.getCurrentUserId();
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceBusyException("Too many open event streams, try again later", 30);
+        }
+        Subscriber subscriber = new Subscriber(userId, emitters.apply(timeoutMillis));
+        subscriber.emitter.onCompletion(() -> unregister(subscriber));
+        subscriber.emitter.onTimeout(() -> unregister(subscriber));
+        subscriber.emitter.onError(e -> unregister(subscriber));
+
+        // The oldest stream beyond the per-user limit is most likely a tab that was left open
+        List<Subscriber> evicted = new ArrayList<>();
+        subscribers.compute(userId, (id, current) -> {
+            List<Subscriber> next = new ArrayList<>(current != null ? current : List.of());
+            next.add(subscriber);
+            while (next.size() > maxPerUser) {
+                evicted.add(next.remove(0));
+            }
+            return List.copyOf(next);
+        });
+        evicted.forEach(this::drop);
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactsChanged(ContactsChangedEvent event) {
+        List<Subscriber> targets = subscribers.get(event.userId());
+        if (targets == null) {
+            return;
+        }
+        // A contact changed twice in one write is sent once, with its final state, as the feed logs it
+        Map<Long, ContactChangeDto> changes = new LinkedHashMap<>();
+        for (ContactChangedEvent change : event.changes()) {
+            changes.put(change.contactId(), change.type() == ContactChangedEvent.Type.DELETED
+                    ? new ContactChangeDto(change.contactId(), ContactChangeDto.Type.DELETE, null)
+                    : new ContactChangeDto(change.contactId(), ContactChangeDto.Type.UPSERT, change.contact()));
+        }
+        Message message = new Message(CHANGE_EVENT, List.copyOf(changes.values()));
+        for (Subscriber subscriber : targets) {
+            if (!subscriber.offer(message)) {
+                drop(subscriber);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.contact-events.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        for (List<Subscriber> targets : subscribers.values()) {
+            for (Subscriber subscriber : targets) {
+                if (!subscriber.offer(HEARTBEAT)) {
+                    drop(subscriber);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the subscribers whose write has outlasted the send timeout and gives the sender pool a thread
+     * in place of each one's, until the write returns.
+     */
+    @Scheduled(fixedDelayString = "${app.contact-events.send-check-interval-ms:1000}")
+    public void checkStalledSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : sending) {
+            if (now - subscriber.sendStartedNanos > sendTimeoutNanos && subscriber.markStalled()) {
+                stalled.increment();
+                logger.info("Contact event stream of user {} stopped reading", subscriber.userId);
+                resizeSender(1);
+                drop(subscriber);
+            }
+        }
+    }
+
+    private void resizeSender(int delta) {
+        if (sender instanceof ThreadPoolExecutor pool) {
+            synchronized (poolSize) {
+                // Growing raises the maximum first and shrinking lowers the core first, as the executor requires
+                if (delta > 0) {
+                    pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+                    pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+                } else {
+                    pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+                    pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+                }
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (unregister(subscriber)) {
+            dropped.increment();
+            logger.info("Dropped contact event stream of user {}", subscriber.userId);
+            // Completing waits for a write in progress, so it is left to the subscriber's sender
+            subscriber.close();
+        }
+    }
+
+    private boolean unregister(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        subscribers.computeIfPresent(subscriber.userId, (id, current) -> {
+            List<Subscriber> rest = current.stream().filter(other -> other != subscriber).toList();
+            return rest.isEmpty() ? null : rest;
+        });
+        subscriberCount.decrementAndGet();
+        return true;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("contact.events.subscribers", subscriberCount, AtomicInteger::get).register(registry);
+        FunctionCounter.builder("contact.events.sent", sent, LongAdder::sum).register(registry);
+        FunctionCounter.builder("contact.events.dropped", dropped, LongAdder::sum).register(registry);
+        FunctionCounter.builder("contact.events.stalled", stalled, LongAdder::sum).register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        if (sender instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        // A stream stuck in a write would hold up shutdown; the container closes it anyway
+        subscribers.values().forEach(targets -> targets.stream()
+                .filter(subscriber -> !sending.contains(subscriber))
+                .forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    // A named event with a JSON payload, or a heartbeat comment when name is null
+    private record Message(String name, Object data) {
+
+        SseEmitter.SseEventBuilder toEvent() {
+            return name == null
+                    ? SseEmitter.event().comment("heartbeat")
+                    : SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    /**
+     * One open stream. Messages wait in a bounded buffer, and at most one sender thread drains it at a
+     * time, so they go out in order. Once closed, that thread completes the emitter.
+     */
+    private final class Subscriber implements Runnable {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicInteger sendState = new AtomicInteger(IDLE);
+        private final ArrayDeque<Message> buffer = new ArrayDeque<>();
+        private boolean draining; // guarded by this
+        private volatile long sendStartedNanos;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        // False when the buffer is full
+        boolean offer(Message message) {
+            synchronized (this) {
+                if (buffer.size() >= bufferSize) {
+                    return false;
+                }
+                buffer.add(message);
+                if (draining) {
+                    return true;
+                }
+                draining = true;
+            }
+            schedule();
+            return true;
+        }
+
+        // Called after unregistering; the drain completes the emitter
+        void close() {
+            synchronized (this) {
+                buffer.clear();
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            schedule();
+        }
+
+        // True once per stalled write, so the pool grows once for it and shrinks once when it returns
+        boolean markStalled() {
+            return sendState.compareAndSet(SENDING, STALLED);
+        }
+
+        private void schedule() {
+            try {
+                sender.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                synchronized (this) {
+                    draining = false;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Message message;
+                synchronized (this) {
+                    message = closed.get() ? null : buffer.poll();
+                    if (message == null) {
+                        buffer.clear();
+                        draining = false;
+                        break;
+                    }
+                }
+                send(message);
+            }
+            if (closed.get()) {
+                emitter.complete();
+            }
+        }
+
+        private void send(Message message) {
+            sendStartedNanos = System.nanoTime();
+            sendState.set(SENDING);
+            sending.add(this);
+            try {
+                emitter.send(message.toEvent());
+                sent.increment();
+            } catch (IOException | IllegalStateException e) {
+                // The client has gone, or the stream was completed meanwhile; the container cleans up
+                unregister(this);
+            } finally {
+                sending.remove(this);
+                if (!sendState.compareAndSet(SENDING, IDLE)) {
+                    // The write came back after all; give back the thread the pool got in its place
+                    sendState.set(IDLE);
+                    resizeSender(-1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.csv.CsvWriter;
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.repository.ContactRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Streams a user's contacts to the response as CSV or NDJSON.
+ *
+ * Rows come from one forward-only query (ContactRepository.streamByUserId) that selects straight into DTOs,
+ * so nothing accumulates in the persistence context, and are written out as they arrive with a flush
+ * every {@value #FLUSH_EVERY} rows. Heap use does not depend on how many contacts there are, and the first
+ * bytes leave once the header and first rows are written. The CSV columns are the ones the CSV import reads.
+ */
+@Service
+public class ContactExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactExportService.class);
+
+    private static final int FLUSH_EVERY = 500;
+    private static final String[] CSV_HEADER = {"id", "firstName", "lastName", "title", "emailWork",
+            "emailPersonal", "phoneWork", "phoneHome", "phonePersonal"};
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format of(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + name);
+            }
+        }
+    }
+
+    private final ContactService contactService;
+    private final ContactRepository contactRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ContactExportService(ContactService contactService, ContactRepository contactRepository,
+                                ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.contactService = contactService;
+        this.contactRepository = contactRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * The current user's contacts, to be written once the controller returns. The user is resolved now,
+     * on the request thread; the query runs in its own read-only transaction on the thread that writes.
+     */
+    public StreamingResponseBody export(Format format) {
+        Long userId = contactService.getCurrentUserId();
+        return out -> readOnlyTransaction.executeWithoutResult(status -> {
+            try {
+                write(userId, format, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void write(Long userId, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        // Exports are opened in spreadsheets, where a name like =HYPERLINK(...) would run as a formula
+        CsvWriter csv = new CsvWriter(writer, true);
+        long count = 0;
+        try (Stream<ContactDto> contacts = contactRepository.streamByUserId(userId)) {
+            if (format == Format.CSV) {
+                csv.writeRecord(CSV_HEADER);
+            }
+            Iterator<ContactDto> rows = contacts.iterator();
+            while (rows.hasNext()) {
+                ContactDto contact = rows.next();
+                if (format == Format.CSV) {
+                    csv.writeRecord(String.valueOf(contact.getId()), contact.getFirstName(), contact.getLastName(),
+                            contact.getTitle(), contact.getEmailWork(), contact.getEmailPersonal(),
+                            contact.getPhoneWork(), contact.getPhoneHome(), contact.getPhonePersonal());
+                } else {
+                    writer.write(objectMapper.writeValueAsString(contact));
+                    writer.write('\n');
+                }
+                if (++count % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} contacts as {} for user {}", count, format, userId);
+    }
+}
@@ -0,0 +1,313 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.cache.BoundedCache;
+import com.ab.cmsBackend.csv.CsvReader;
+import com.ab.cmsBackend.csv.CsvWriter;
+import com.ab.cmsBackend.dto.BulkContactResultDto;
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.dto.ImportJobDto;
+import com.ab.cmsBackend.dto.RejectedRowDto;
+import com.ab.cmsBackend.exception.ImportJobNotFoundException;
+import com.ab.cmsBackend.exception.ServiceBusyException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Imports contacts from CSV uploads in the background.
+ *
+ * The upload is spooled to a temporary file and the caller gets a job id straight away. A worker then
+ * reads the file one record at a time and writes the rows through ContactService in chunks of
+ * app.contact-import.chunk-size, each chunk in its own transaction. Only the current chunk and the first
+ * app.contact-import.max-rejections-reported rejected rows are held in memory, whatever the size of the file.
+ * Chunks committed before a failure stay imported.
+ *
+ * Columns are matched to ContactDto fields by header name, ignoring case, spaces, '_' and '-', so
+ * "First Name", "first_name" and "firstName" all work; other columns are ignored. Jobs are kept for
+ * app.contact-import.retention and are only visible to the user who started them.
+ */
+@Service
+public class ContactImportService implements MeterBinder, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactImportService.class);
+
+    // Longest field accepted; a file with an unbalanced quote fails here instead of being read into memory
+    private static final int MAX_FIELD_LENGTH = 10_000;
+
+    private static final Map<String, BiConsumer<ContactDto, String>> COLUMNS = Map.of(
+            "firstname", ContactDto::setFirstName,
+            "lastname", ContactDto::setLastName,
+            "title", ContactDto::setTitle,
+            "emailwork", ContactDto::setEmailWork,
+            "emailpersonal", ContactDto::setEmailPersonal,
+            "phonework", ContactDto::setPhoneWork,
+            "phonehome", ContactDto::setPhoneHome,
+            "phonepersonal", ContactDto::setPhonePersonal);
+
+    private final ContactService contactService;
+    private final Executor executor;
+    private final int chunkSize;
+    private final int maxRejectionsReported;
+    private final BoundedCache<String, Job> jobs;
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final LongAdder imported = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public ContactImportService(ContactService contactService,
+                                @Value("${app.contact-import.threads:2}") int threads,
+                                @Value("${app.contact-import.queue-capacity:10}") int queueCapacity,
+                                @Value("${app.contact-import.chunk-size:500}") int chunkSize,
+                                @Value("${app.contact-import.max-rejections-reported:1000}") int maxRejectionsReported,
+                                @Value("${app.contact-import.max-jobs:10000}") int maxJobs,
+                                @Value("${app.contact-import.retention:24h}") Duration retention) {
+        this(contactService, newExecutor(threads, queueCapacity), chunkSize, maxRejectionsReported,
+                new BoundedCache<>(maxJobs, retention, Clock.systemUTC()));
+    }
+
+    ContactImportService(ContactService contactService, Executor executor, int chunkSize, int maxRejectionsReported,
+                         BoundedCache<String, Job> jobs) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be at least 1");
+        }
+        this.contactService = contactService;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxRejectionsReported = maxRejectionsReported;
+        this.jobs = jobs;
+    }
+
+    private static ExecutorService newExecutor(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "contact-import-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues the file for import by the current user.
+     *
+     * @throws ServiceBusyException when app.contact-import.queue-capacity imports are already waiting
+     */
+    public ImportJobDto startImport(MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        Long userId = contactService.getCurrentUserId();
+        // The request's multipart file is deleted when the request ends, long before the import does
+        Path spool = Files.createTempFile("contact-import-", ".csv");
+        try {
+            file.transferTo(spool);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(spool);
+            throw e;
+        }
+        Job job = new Job(UUID.randomUUID().toString(), userId);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, spool));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.id);
+            deleteQuietly(spool);
+            throw new ServiceBusyException("Too many imports in progress, please retry later", 30);
+        }
+        return job.toDto();
+    }
+
+    public ImportJobDto getJob(String id) {
+        Job job = jobs.get(id);
+        if (job == null || !job.userId.equals(contactService.getCurrentUserId())) {
+            throw new ImportJobNotFoundException(id);
+        }
+        return job.toDto();
+    }
+
+    private void run(Job job, Path spool) {
+        running.incrementAndGet();
+        job.start();
+        try (BufferedReader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8)) {
+            CsvReader csv = new CsvReader(reader, MAX_FIELD_LENGTH);
+            List<String> header = csv.next();
+            if (header == null) {
+                throw new IllegalArgumentException("The file is empty");
+            }
+            List<BiConsumer<ContactDto, String>> setters = columns(header);
+
+            List<ContactDto> chunk = new ArrayList<>(chunkSize);
+            List<Long> lines = new ArrayList<>(chunkSize);
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                job.rowRead();
+                chunk.add(toDto(record, setters));
+                lines.add(csv.getLine());
+                if (chunk.size() == chunkSize) {
+                    write(job, chunk, lines);
+                    chunk.clear();
+                    lines.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                write(job, chunk, lines);
+            }
+            job.complete();
+            logger.info("Contact import {} finished: {}", job.id, job.summary());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Contact import {} failed after {}: {}", job.id, job.summary(), e.getMessage());
+            job.fail(e.getMessage());
+        } finally {
+            running.decrementAndGet();
+            deleteQuietly(spool);
+        }
+    }
+
+    private void write(Job job, List<ContactDto> chunk, List<Long> lines) {
+        List<BulkContactResultDto> results = contactService.createContactsForUser(job.userId, chunk);
+        for (BulkContactResultDto result : results) {
+            if (result.getStatus() == BulkContactResultDto.Status.CREATED) {
+                job.imported();
+                imported.increment();
+            } else {
+                job.rejected(new RejectedRowDto(lines.get(result.getIndex()), result.getErrors()), maxRejectionsReported);
+                rejected.increment();
+            }
+        }
+    }
+
+    private static List<BiConsumer<ContactDto, String>> columns(List<String> header) {
+        List<BiConsumer<ContactDto, String>> setters = new ArrayList<>(header.size());
+        for (String name : header) {
+            setters.add(COLUMNS.get(name.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT)));
+        }
+        if (!setters.contains(COLUMNS.get("firstname")) || !setters.contains(COLUMNS.get("lastname"))) {
+            throw new IllegalArgumentException("The header must name the firstName and lastName columns");
+        }
+        return setters;
+    }
+
+    // Fields beyond the header are ignored, missing ones stay null; formulas escaped by the export are restored
+    private static ContactDto toDto(List<String> record, List<BiConsumer<ContactDto, String>> setters) {
+        ContactDto dto = new ContactDto();
+        for (int i = 0; i < Math.min(record.size(), setters.size()); i++) {
+            String value = CsvWriter.unescapeFormula(record.get(i).trim());
+            if (setters.get(i) != null && !value.isEmpty()) {
+                setters.get(i).accept(dto, value);
+            }
+        }
+        return dto;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete import file {}: {}", path, e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("contact.import.rows", imported, LongAdder::sum).tag("result", "imported").register(registry);
+        FunctionCounter.builder("contact.import.rows", rejected, LongAdder::sum).tag("result", "rejected").register(registry);
+        Gauge.builder("contact.import.running", running, AtomicInteger::get).register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    // Written by the worker, read by progress requests
+    static final class Job {
+
+        private final String id;
+        private final Long userId;
+        private ImportJobDto.Status status = ImportJobDto.Status.QUEUED;
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+        private final List<RejectedRowDto> rejectedRows = new ArrayList<>();
+        private String error;
+
+        Job(String id, Long userId) {
+            this.id = id;
+            this.userId = userId;
+        }
+
+        synchronized void start() {
+            status = ImportJobDto.Status.RUNNING;
+        }
+
+        synchronized void rowRead() {
+            rowsRead++;
+        }
+
+        synchronized void imported() {
+            imported++;
+        }
+
+        synchronized void rejected(RejectedRowDto row, int maxReported) {
+            rejected++;
+            if (rejectedRows.size() < maxReported) {
+                rejectedRows.add(row);
+            }
+        }
+
+        synchronized void complete() {
+            status = ImportJobDto.Status.COMPLETED;
+        }
+
+        synchronized void fail(String message) {
+            status = ImportJobDto.Status.FAILED;
+            error = message;
+        }
+
+        synchronized String summary() {
+            return rowsRead + " rows read, " + imported + " imported, " + rejected + " rejected";
+        }
+
+        synchronized ImportJobDto toDto() {
+            return new ImportJobDto(id, status, rowsRead, imported, rejected, new ArrayList<>(rejectedRows), error);
+        }
+    }
+}
@@ -1,100 +1,564 @@
 package com.ab.cmsBackend.service;
+import com.ab.cmsBackend.cache.UserLookupCache;
+import com.ab.cmsBackend.config.AuthenticatedUser;
+import com.ab.cmsBackend.dto.BulkContactResultDto;
 import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.dto.ContactPageDto;
 import com.ab.cmsBackend.entity.Contact;
 import com.ab.cmsBackend.entity.User;
+import com.ab.cmsBackend.event.ContactChangedEvent;
+import com.ab.cmsBackend.event.ContactsChangedEvent;
+import com.ab.cmsBackend.exception.ContactChangedException;
+import com.ab.cmsBackend.exception.ContactNotFoundException;
 import com.ab.cmsBackend.repository.ContactRepository;
 import com.ab.cmsBackend.repository.UserRepository;
+import com.ab.cmsBackend.search.ContactSearchIndex;
+import com.ab.cmsBackend.search.LuceneContactIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 @Service
 public class ContactService {
 
+    private static final Map<String, BiConsumer<ContactDto, String>> PATCHABLE_FIELDS = Map.of(
+            "firstName", ContactDto::setFirstName,
+            "lastName", ContactDto::setLastName,
+            "title", ContactDto::setTitle,
+            "emailWork", ContactDto::setEmailWork,
+            "emailPersonal", ContactDto::setEmailPersonal,
+            "phoneWork", ContactDto::setPhoneWork,
+            "phoneHome", ContactDto::setPhoneHome,
+            "phonePersonal", ContactDto::setPhonePersonal);
+    private static final Map<String, Function<Contact, String>> FIELD_VALUES = Map.of(
+            "firstName", Contact::getFirstName,
+            "lastName", Contact::getLastName,
+            "title", Contact::getTitle,
+            "emailWork", Contact::getEmailWork,
+            "emailPersonal", Contact::getEmailPersonal,
+            "phoneWork", Contact::getPhoneWork,
+            "phoneHome", Contact::getPhoneHome,
+            "phonePersonal", Contact::getPhonePersonal);
+
     private final ContactRepository contactRepository;
     private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
+    private final ContactSearchIndex contactSearchIndex;
+    private final LuceneContactIndex luceneContactIndex;
+    private final ContactCountService contactCountService;
+    private final ContactChangeLog contactChangeLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final int maxPageSize;
+    private final int maxBulkSize;
 
-    public ContactService(ContactRepository contactRepository, UserRepository userRepository) {
+    public ContactService(ContactRepository contactRepository, UserRepository userRepository,
+                          UserLookupCache userLookupCache, ContactSearchIndex contactSearchIndex,
+                          LuceneContactIndex luceneContactIndex, ContactCountService contactCountService,
+                          ContactChangeLog contactChangeLog,
+                          ApplicationEventPublisher eventPublisher, Validator validator,
+                          @Value("${app.contacts.max-page-size:100}") int maxPageSize,
+                          @Value("${app.contacts.max-bulk-size:1000}") int maxBulkSize) {
         this.contactRepository = contactRepository;
         this.userRepository = userRepository;
+        this.userLookupCache = userLookupCache;
+        this.contactSearchIndex = contactSearchIndex;
+        this.luceneContactIndex = luceneContactIndex;
+        this.contactCountService = contactCountService;
+        this.contactChangeLog = contactChangeLog;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.maxPageSize = maxPageSize;
+        this.maxBulkSize = maxBulkSize;
+    }
+
+    // The JWT principal carries the id; only legacy tokens need the email lookup
+    Long getCurrentUserId() {
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser.id();
+        }
+        return findUserByEmail((String) principal).getId();
     }
 
-    private User getCurrentUser() {
-        String email = (String) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+    // A reference proxy is enough to set the foreign key, it never hits the database
+    private User getCurrentUserReference() {
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return userRepository.getReferenceById(authenticatedUser.id());
+        }
+        return findUserByEmail((String) principal);
     }
 
+    private User findUserByEmail(String email) {
+        return userLookupCache.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    @Transactional(readOnly = true)
     public Page<ContactDto> getAllContacts(int page, int size) {
-        User user = getCurrentUser();
-        Page<Contact> contacts = contactRepository.findByUser(user, PageRequest.of(page, size));
-        return contacts.map(this::toDto);
+        Long userId = getCurrentUserId();
+        return contactRepository.findDtosByUserId(userId, PageRequest.of(page, boundedSize(size)));
+    }
+
+    // Same pages as getAllContacts, but hasNext comes from reading one extra row instead of a COUNT query
+    @Transactional(readOnly = true)
+    public ContactPageDto getContactSlice(int page, int size) {
+        int pageSize = boundedSize(size);
+        Long userId = getCurrentUserId();
+        Slice<ContactDto> slice = contactRepository.findSliceByUserId(userId, PageRequest.of(page, pageSize, Sort.by("id")));
+        return new ContactPageDto(new ArrayList<>(slice.getContent()), page, pageSize, slice.hasNext(), null);
+    }
+
+    public long countContacts() {
+        return contactCountService.getCount(getCurrentUserId());
     }
 
-    public List<ContactDto> searchContacts(String query) {
-        User user = getCurrentUser();
-        return contactRepository.searchByUserAndQuery(user, query).stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    /**
+     * Entity tag for the user's contact list, valid for any page of it: it changes with every write to their
+     * contacts. Read it before the page, so a write in between can only make the tag older than the page.
+     *
+     * @return null the first time a user's list is tagged, see {@link ContactCountService#getListVersion}
+     */
+    public String getContactsEtag() {
+        Long userId = getCurrentUserId();
+        // The user id keeps tags distinct when several accounts share one browser cache
+        return contactCountService.getListVersion(userId).map(version -> userId + "-" + version).orElse(null);
+    }
+
+    /**
+     * One page of the user's contacts in (last name, first name, id) order, continuing after the
+     * cursor returned with the previous page. Unlike {@link #getAllContacts} this neither skips rows
+     * with OFFSET nor counts them, so every page costs the same however deep it is.
+     * Names are required on every write path, and db/sqlserver/002-contact-blank-names.sql backfills
+     * rows stored before that, so the seek never meets a NULL name it would skip.
+     */
+    @Transactional(readOnly = true)
+    public ContactPageDto listContacts(int size, String cursor) {
+        int pageSize = boundedSize(size);
+        ContactCursor after = cursor != null ? ContactCursor.decode(cursor) : null;
+        Long userId = getCurrentUserId();
+
+        Limit limit = Limit.of(pageSize + 1);
+        List<ContactDto> rows = after == null
+                ? contactRepository.findFirstPageByUserId(userId, limit)
+                : contactRepository.findPageByUserIdAfter(userId, after.lastName(), after.firstName(), after.id(), limit);
+        boolean hasNext = rows.size() > pageSize;
+        List<ContactDto> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            ContactDto last = content.get(content.size() - 1);
+            nextCursor = new ContactCursor(Objects.requireNonNullElse(last.getLastName(), ""),
+                    Objects.requireNonNullElse(last.getFirstName(), ""), last.getId()).encode();
+        }
+        return new ContactPageDto(new ArrayList<>(content), 0, pageSize, hasNext, nextCursor);
+    }
+
+    /**
+     * One page of contacts whose first or last name contains the query, in id order.
+     * Pages are addressed either by number or, cheaper for deep pages, by the cursor returned with the
+     * previous page. Sizes above app.contacts.max-page-size are cut down to it.
+     */
+    @Transactional(readOnly = true)
+    public ContactPageDto searchContacts(String query, int page, int size, Long cursor) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        if (cursor != null && page > 0) {
+            throw new IllegalArgumentException("Use either page or cursor, not both");
+        }
+        int pageSize = boundedSize(size);
+        long afterId = cursor != null ? cursor : 0L;
+        Long userId = getCurrentUserId();
+
+        List<ContactDto> content;
+        boolean hasNext;
+        long offset = (long) page * pageSize;
+        Optional<List<ContactDto>> indexed = offset + pageSize < Integer.MAX_VALUE
+                ? contactSearchIndex.search(userId, query, afterId, (int) offset + pageSize + 1)
+                : Optional.empty();
+        if (indexed.isPresent()) {
+            List<ContactDto> matches = indexed.get();
+            content = matches.subList((int) Math.min(offset, matches.size()),
+                    (int) Math.min(offset + pageSize, matches.size()));
+            hasNext = matches.size() > offset + pageSize;
+        } else {
+            Slice<ContactDto> slice = contactRepository.searchPageByUserIdAndQuery(
+                    userId, query, afterId, PageRequest.of(page, pageSize));
+            content = slice.getContent();
+            hasNext = slice.hasNext();
+        }
+        String nextCursor = hasNext && !content.isEmpty() ? String.valueOf(content.get(content.size() - 1).getId()) : null;
+        return new ContactPageDto(new ArrayList<>(content), page, pageSize, hasNext, nextCursor);
     }
 
+    private int boundedSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    // Best match first over every field; falls back to the substring search when full-text is off
+    public List<ContactDto> rankedSearch(String query, int limit) {
+        Long userId = getCurrentUserId();
+        return luceneContactIndex.search(userId, query, limit)
+                .orElseGet(() -> searchContacts(query, 0, limit, null).getContent());
+    }
+
+    public void rebuildSearchIndex() {
+        Long userId = getCurrentUserId();
+        luceneContactIndex.rebuild(userId);
+        contactSearchIndex.invalidate(userId);
+    }
+
+    @Transactional
     public ContactDto createContact(ContactDto dto) {
-        User user = getCurrentUser();
+        User user = getCurrentUserReference();
         Contact contact = toEntity(dto);
         contact.setUser(user); // Links the contact to the logged-in user
-        return toDto(contactRepository.save(contact));
+        ContactDto saved = toDto(contactRepository.save(contact));
+        changed(user.getId(), 1, List.of(ContactChangedEvent.created(user.getId(), saved)));
+        return saved;
     }
 
+    @Transactional
     public ContactDto updateContact(Long id, ContactDto dto) {
-        User user = getCurrentUser();
-        // Securely find the contact: Ensure it belongs to the current user
-        Contact contact = contactRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Contact not found"));
+        return updateContact(id, dto, null);
+    }
 
-        if (!contact.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("You do not have permission to update this contact");
+    /**
+     * Replaces every field of the contact. With expected versions, as read from an If-Match header, the
+     * update only applies while one of them is current; null expects nothing and always applies.
+     */
+    @Transactional
+    public ContactDto updateContact(Long id, ContactDto dto, Collection<Long> expectedVersions) {
+        Long userId = getCurrentUserId();
+        // One UPDATE scoped to the owner (and version); nothing is read first
+        int updated;
+        if (expectedVersions == null) {
+            updated = contactRepository.updateByIdAndUserId(id, userId, dto);
+        } else {
+            updated = expectedVersions.isEmpty() ? 0
+                    : contactRepository.updateByIdAndUserIdAndVersionIn(id, userId, expectedVersions, dto);
         }
+        if (updated == 0) {
+            throw notFoundOrChanged(id, userId, expectedVersions);
+        }
+        // Every column was just written from the DTO, so it already is the stored state
+        ContactDto saved = copyOf(dto);
+        saved.setId(id);
+        changed(userId, 0, List.of(ContactChangedEvent.updated(userId, saved)));
+        return saved;
+    }
 
-        // Update all fields from the DTO
-        contact.setFirstName(dto.getFirstName());
-        contact.setLastName(dto.getLastName());
-        contact.setTitle(dto.getTitle());
-        contact.setEmailWork(dto.getEmailWork());
-        contact.setEmailPersonal(dto.getEmailPersonal());
-        contact.setPhoneWork(dto.getPhoneWork());
-        contact.setPhoneHome(dto.getPhoneHome());
-        contact.setPhonePersonal(dto.getPhonePersonal());
+    /**
+     * Applies a JSON merge patch (RFC 7396) to the contact: fields named in the patch are set, null
+     * clears them, and the rest are kept. The contact is read once, then a single UPDATE writes only the
+     * columns that change, guarded by the version that was read. A patch that changes nothing writes nothing.
+     *
+     * @param expectedVersions as for {@link #updateContact(Long, ContactDto, Collection)}
+     */
+    @Transactional
+    public TaggedContact patchContact(Long id, Map<String, Object> patch, Collection<Long> expectedVersions) {
+        Long userId = getCurrentUserId();
+        Contact contact = contactRepository.findByIdAndUserId(id, userId).orElseThrow(() -> new ContactNotFoundException(id));
+        long version = contact.getVersion();
+        if (expectedVersions != null && !expectedVersions.contains(version)) {
+            throw new ContactChangedException(id);
+        }
+        ContactDto patched = toDto(contact);
+        Map<String, String> changes = new HashMap<>();
+        patch.forEach((field, value) -> {
+            BiConsumer<ContactDto, String> setter = PATCHABLE_FIELDS.get(field);
+            if (setter == null) {
+                throw new IllegalArgumentException("Field cannot be patched: " + field);
+            }
+            if (value != null && !(value instanceof String)) {
+                throw new IllegalArgumentException("Field must be a string or null: " + field);
+            }
+            setter.accept(patched, (String) value);
+            changes.put(field, (String) value);
+        });
+        List<String> errors = validate(patched);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join(", ", errors));
+        }
+        changes.entrySet().removeIf(change -> Objects.equals(change.getValue(), FIELD_VALUES.get(change.getKey()).apply(contact)));
+        if (changes.isEmpty()) {
+            return new TaggedContact(patched, ContactEtags.of(id, version));
+        }
+        // Someone else wrote between the read and the update
+        if (contactRepository.patchByIdAndUserIdAndVersion(id, userId, version, changes) == 0) {
+            throw notFoundOrChanged(id, userId, List.of(version));
+        }
+        changed(userId, 0, List.of(ContactChangedEvent.updated(userId, patched)));
+        return new TaggedContact(copyOf(patched), ContactEtags.of(id, version + 1));
+    }
 
-        return toDto(contactRepository.save(contact));
+    public record TaggedContact(ContactDto contact, String etag) {
     }
 
+    @Transactional
     public void deleteContact(Long id) {
-        User user = getCurrentUser();
-        Contact contact = contactRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Contact not found"));
+        deleteContact(id, null);
+    }
+
+    // Deletes the contact, if one of the expected versions is current when given
+    @Transactional
+    public void deleteContact(Long id, Collection<Long> expectedVersions) {
+        Long userId = getCurrentUserId();
+        int deleted;
+        if (expectedVersions == null) {
+            deleted = contactRepository.deleteByIdAndUserId(id, userId);
+        } else {
+            deleted = expectedVersions.isEmpty() ? 0 : contactRepository.deleteByIdAndUserIdAndVersionIn(id, userId, expectedVersions);
+        }
+        if (deleted == 0) {
+            throw notFoundOrChanged(id, userId, expectedVersions);
+        }
+        changed(userId, -1, List.of(ContactChangedEvent.deleted(userId, id)));
+    }
 
-        // Security check: Only the owner can delete
-        if (!contact.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("Unauthorized delete attempt");
+    // After a write matched no row: a conditional write may have missed only because of the version
+    private RuntimeException notFoundOrChanged(Long id, Long userId, Collection<Long> expectedVersions) {
+        if (expectedVersions != null && contactRepository.findVersionByIdAndUserId(id, userId).isPresent()) {
+            return new ContactChangedException(id);
         }
+        return new ContactNotFoundException(id);
+    }
 
-        contactRepository.delete(contact);
+    // Entity tag for one contact, from its version column alone
+    @Transactional(readOnly = true)
+    public String getContactEtag(Long id) {
+        Long userId = getCurrentUserId();
+        return contactRepository.findVersionByIdAndUserId(id, userId)
+                .map(version -> ContactEtags.of(id, version))
+                .orElseThrow(() -> new ContactNotFoundException(id));
     }
 
+    @Transactional(readOnly = true)
     public ContactDto getContactById(Long id) {
-        User user = getCurrentUser();
-        Contact contact = contactRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Contact not found"));
+        Long userId = getCurrentUserId();
+        return contactRepository.findDtoByIdAndUserId(id, userId).orElseThrow(() -> new ContactNotFoundException(id));
+    }
+
+    /**
+     * Creates every valid contact of the list in one transaction. Invalid items are reported and skipped;
+     * the rest are inserted in JDBC batches when the transaction commits, with ids already drawn from
+     * the contact sequence. A database error rolls back the whole call.
+     */
+    @Transactional
+    public List<BulkContactResultDto> createContacts(List<ContactDto> dtos) {
+        checkBulkSize(dtos);
+        return createContacts(getCurrentUserReference(), dtos);
+    }
+
+    // createContacts for work running outside a request, such as a CSV import; one transaction per call
+    @Transactional
+    public List<BulkContactResultDto> createContactsForUser(Long userId, List<ContactDto> dtos) {
+        return createContacts(userRepository.getReferenceById(userId), dtos);
+    }
 
-        // Security check: Only the owner can view
-        if (!contact.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("Access denied");
+    private List<BulkContactResultDto> createContacts(User user, List<ContactDto> dtos) {
+        BulkContactResultDto[] results = new BulkContactResultDto[dtos.size()];
+        List<Contact> contacts = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            List<String> errors = validate(dtos.get(i));
+            if (!errors.isEmpty()) {
+                results[i] = new BulkContactResultDto(i, BulkContactResultDto.Status.INVALID, null, errors);
+                continue;
+            }
+            Contact contact = toEntity(dtos.get(i));
+            contact.setUser(user);
+            contacts.add(contact);
+            positions.add(i);
         }
+        // Persisting only assigns the ids; the INSERTs go out together at flush
+        List<Contact> saved = contactRepository.saveAll(contacts);
+        List<ContactChangedEvent> events = new ArrayList<>(saved.size());
+        for (int j = 0; j < saved.size(); j++) {
+            ContactDto dto = toDto(saved.get(j));
+            results[positions.get(j)] = new BulkContactResultDto(positions.get(j), BulkContactResultDto.Status.CREATED, dto.getId(), null);
+            events.add(ContactChangedEvent.created(user.getId(), dto));
+        }
+        if (!saved.isEmpty()) {
+            changed(user.getId(), saved.size(), events);
+        }
+        return List.of(results);
+    }
 
-        return toDto(contact);
+    /**
+     * Updates every valid item that names one of the user's contacts. The contacts are read in one query
+     * and changed in place, so the flush sends the UPDATEs as JDBC batches. Items without an id are
+     * invalid; ids that do not exist or belong to someone else are reported as not found.
+     */
+    @Transactional
+    public List<BulkContactResultDto> updateContacts(List<ContactDto> dtos) {
+        checkBulkSize(dtos);
+        Long userId = getCurrentUserId();
+        BulkContactResultDto[] results = new BulkContactResultDto[dtos.size()];
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            List<String> errors = validate(dtos.get(i));
+            if (errors.isEmpty() && dtos.get(i).getId() == null) {
+                errors = List.of("Id is required");
+            }
+            if (!errors.isEmpty()) {
+                results[i] = new BulkContactResultDto(i, BulkContactResultDto.Status.INVALID, null, errors);
+            } else {
+                ids.add(dtos.get(i).getId());
+            }
+        }
+        Map<Long, Contact> owned = new HashMap<>();
+        if (!ids.isEmpty()) {
+            contactRepository.findAllByIdInAndUserId(ids, userId).forEach(contact -> owned.put(contact.getId(), contact));
+        }
+        List<ContactChangedEvent> events = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Long id = dtos.get(i).getId();
+            Contact contact = owned.get(id);
+            if (contact == null) {
+                results[i] = new BulkContactResultDto(i, BulkContactResultDto.Status.NOT_FOUND, id, null);
+                continue;
+            }
+            copyInto(dtos.get(i), contact);
+            results[i] = new BulkContactResultDto(i, BulkContactResultDto.Status.UPDATED, id, null);
+            events.add(ContactChangedEvent.updated(userId, toDto(contact)));
+        }
+        if (!events.isEmpty()) {
+            changed(userId, 0, events);
+        }
+        return List.of(results);
+    }
+
+    // One SELECT for the ids the user owns and one DELETE for all of them, whatever the list length
+    @Transactional
+    public List<BulkContactResultDto> deleteContacts(List<Long> ids) {
+        checkBulkSize(ids);
+        Long userId = getCurrentUserId();
+        Set<Long> requested = new LinkedHashSet<>();
+        ids.stream().filter(Objects::nonNull).forEach(requested::add);
+        Set<Long> owned = requested.isEmpty() ? Set.of() : new HashSet<>(contactRepository.findIdsByIdInAndUserId(requested, userId));
+        if (!owned.isEmpty()) {
+            contactRepository.deleteAllByIdInAndUserId(owned, userId);
+            changed(userId, -owned.size(), owned.stream().map(id -> ContactChangedEvent.deleted(userId, id)).toList());
+        }
+        List<BulkContactResultDto> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results.add(new BulkContactResultDto(i, BulkContactResultDto.Status.INVALID, null, List.of("Id is required")));
+            } else {
+                results.add(new BulkContactResultDto(i, owned.contains(id)
+                        ? BulkContactResultDto.Status.DELETED : BulkContactResultDto.Status.NOT_FOUND, id, null));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Folds the source contacts into the target and deletes them. Fields the target leaves blank are
+     * filled from the sources, in the order given; fields it already has are kept. All contacts must
+     * belong to the current user, otherwise nothing changes.
+     */
+    @Transactional
+    public ContactDto mergeContacts(Long targetId, List<Long> sourceIds) {
+        checkBulkSize(sourceIds);
+        Set<Long> sources = new LinkedHashSet<>(sourceIds);
+        if (sources.contains(targetId)) {
+            throw new IllegalArgumentException("A contact cannot be merged into itself");
+        }
+        Long userId = getCurrentUserId();
+        Set<Long> ids = new LinkedHashSet<>(sources);
+        ids.add(targetId);
+        Map<Long, Contact> owned = new HashMap<>();
+        contactRepository.findAllByIdInAndUserId(ids, userId).forEach(contact -> owned.put(contact.getId(), contact));
+        for (Long id : ids) {
+            if (!owned.containsKey(id)) {
+                throw new ContactNotFoundException(id);
+            }
+        }
+
+        Contact target = owned.get(targetId);
+        for (Long id : sources) {
+            fillBlanks(target, owned.get(id));
+        }
+        contactRepository.deleteAllByIdInAndUserId(sources, userId);
+        ContactDto merged = toDto(target);
+        List<ContactChangedEvent> events = new ArrayList<>();
+        events.add(ContactChangedEvent.updated(userId, merged));
+        sources.forEach(id -> events.add(ContactChangedEvent.deleted(userId, id)));
+        changed(userId, -sources.size(), events);
+        return merged;
+    }
+
+    // Every write ends here: it moves the user's list version, logs the changes under the new version
+    // for the delta feed, and announces them
+    private void changed(Long userId, long countDelta, List<ContactChangedEvent> events) {
+        long listVersion = countDelta != 0 ? contactCountService.adjust(userId, countDelta) : contactCountService.touch(userId);
+        contactChangeLog.record(userId, listVersion, events);
+        events.forEach(eventPublisher::publishEvent);
+        eventPublisher.publishEvent(new ContactsChangedEvent(userId, events));
+    }
+
+    private static void fillBlanks(Contact target, Contact source) {
+        target.setFirstName(keepOrFill(target.getFirstName(), source.getFirstName()));
+        target.setLastName(keepOrFill(target.getLastName(), source.getLastName()));
+        target.setTitle(keepOrFill(target.getTitle(), source.getTitle()));
+        target.setEmailWork(keepOrFill(target.getEmailWork(), source.getEmailWork()));
+        target.setEmailPersonal(keepOrFill(target.getEmailPersonal(), source.getEmailPersonal()));
+        target.setPhoneWork(keepOrFill(target.getPhoneWork(), source.getPhoneWork()));
+        target.setPhoneHome(keepOrFill(target.getPhoneHome(), source.getPhoneHome()));
+        target.setPhonePersonal(keepOrFill(target.getPhonePersonal(), source.getPhonePersonal()));
+    }
+
+    private static String keepOrFill(String kept, String fill) {
+        return kept == null || kept.isBlank() ? fill : kept;
+    }
+
+    // Also bounds the IN lists the bulk queries build, which SQL Server caps at 2100 parameters
+    private void checkBulkSize(List<?> items) {
+        if (items.size() > maxBulkSize) {
+            throw new IllegalArgumentException("At most " + maxBulkSize + " contacts per request");
+        }
+    }
+
+    private List<String> validate(ContactDto dto) {
+        if (dto == null) {
+            return List.of("Contact is required");
+        }
+        return validator.validate(dto).stream().map(ConstraintViolation::getMessage).sorted().toList();
+    }
+
+    private static ContactDto copyOf(ContactDto dto) {
+        return new ContactDto(dto.getId(), dto.getFirstName(), dto.getLastName(), dto.getTitle(), dto.getEmailWork(),
+                dto.getEmailPersonal(), dto.getPhoneWork(), dto.getPhoneHome(), dto.getPhonePersonal());
     }
 
     private ContactDto toDto(Contact entity) {
@@ -113,6 +577,11 @@ public class ContactService {
 
     private Contact toEntity(ContactDto dto) {
         Contact entity = new Contact();
+        copyInto(dto, entity);
+        return entity;
+    }
+
+    private static void copyInto(ContactDto dto, Contact entity) {
         entity.setFirstName(dto.getFirstName());
         entity.setLastName(dto.getLastName());
         entity.setTitle(dto.getTitle());
@@ -121,7 +590,6 @@ public class ContactService {
         entity.setPhoneWork(dto.getPhoneWork());
         entity.setPhoneHome(dto.getPhoneHome());
         entity.setPhonePersonal(dto.getPhonePersonal());
-        return entity;
     }
 }
 
@@ -0,0 +1,110 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.dto.ContactChangeDto;
+import com.ab.cmsBackend.dto.ContactChangesDto;
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.entity.ContactChange;
+import com.ab.cmsBackend.exception.ChangeCursorExpiredException;
+import com.ab.cmsBackend.repository.ContactChangeRepository;
+import com.ab.cmsBackend.repository.ContactRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delta sync over the contact change log: what changed in the current user's contacts since a cursor.
+ * Each change carries the contact's current state rather than its state at the time, so replaying a
+ * change twice, or after a later one, is harmless.
+ */
+@Service
+public class ContactSyncService {
+
+    private final ContactService contactService;
+    private final ContactCountService contactCountService;
+    private final ContactChangeLog contactChangeLog;
+    private final ContactChangeRepository contactChangeRepository;
+    private final ContactRepository contactRepository;
+    private final int maxBatchSize;
+
+    public ContactSyncService(ContactService contactService, ContactCountService contactCountService,
+                              ContactChangeLog contactChangeLog, ContactChangeRepository contactChangeRepository,
+                              ContactRepository contactRepository,
+                              @Value("${app.contact-changes.max-batch-size:500}") int maxBatchSize) {
+        this.contactService = contactService;
+        this.contactCountService = contactCountService;
+        this.contactChangeLog = contactChangeLog;
+        this.contactChangeRepository = contactChangeRepository;
+        this.contactRepository = contactRepository;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * The changes after the cursor, oldest first.
+     *
+     * @param since a cursor from an earlier call, or null to get no changes and a cursor for the present.
+     *              Take that cursor before loading the contacts; changes racing the load are then replayed.
+     * @param limit changes to return, at most app.contact-changes.max-batch-size
+     */
+    public ContactChangesDto getChanges(String since, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        int batchSize = Math.min(limit, maxBatchSize);
+        Long userId = contactService.getCurrentUserId();
+        long now = contactChangeLog.now().toEpochMilli();
+        if (since == null) {
+            // Only the first call for a user creates their row, and it then answers empty
+            long listVersion = contactCountService.getListVersion(userId)
+                    .or(() -> contactCountService.getListVersion(userId))
+                    .orElseThrow();
+            return new ContactChangesDto(List.of(), new ChangeCursor(listVersion, Long.MAX_VALUE, now).encode(), false);
+        }
+
+        ChangeCursor after = ChangeCursor.decode(since);
+        if (Instant.ofEpochMilli(after.issuedAtMillis()).isBefore(Instant.ofEpochMilli(now).minus(contactChangeLog.getRetention()))) {
+            throw new ChangeCursorExpiredException();
+        }
+        List<ContactChange> entries = contactChangeRepository.findAfter(userId, after.listVersion(), after.contactId(),
+                Limit.of(batchSize + 1));
+        boolean hasMore = entries.size() > batchSize;
+        if (hasMore) {
+            entries = entries.subList(0, batchSize);
+        }
+        if (entries.isEmpty()) {
+            // Same position, fresh issue time: a client that polls keeps its cursor alive
+            return new ContactChangesDto(List.of(), new ChangeCursor(after.listVersion(), after.contactId(), now).encode(), false);
+        }
+
+        // A contact that changed more than once in the batch is reported once, at its last change
+        Map<Long, ContactChange> latest = new LinkedHashMap<>();
+        for (ContactChange entry : entries) {
+            latest.remove(entry.getContactId());
+            latest.put(entry.getContactId(), entry);
+        }
+        List<Long> live = latest.values().stream().filter(entry -> !entry.isDeleted()).map(ContactChange::getContactId).toList();
+        Map<Long, ContactDto> current = new HashMap<>();
+        if (!live.isEmpty()) {
+            contactRepository.findDtosByIdInAndUserId(live, userId).forEach(contact -> current.put(contact.getId(), contact));
+        }
+        List<ContactChangeDto> changes = new ArrayList<>(latest.size());
+        for (ContactChange entry : latest.values()) {
+            ContactDto contact = current.get(entry.getContactId());
+            // Gone by now even if this entry is an upsert; its delete comes later in the log
+            changes.add(contact == null
+                    ? new ContactChangeDto(entry.getContactId(), ContactChangeDto.Type.DELETE, null)
+                    : new ContactChangeDto(entry.getContactId(), ContactChangeDto.Type.UPSERT, contact));
+        }
+        ContactChange last = entries.get(entries.size() - 1);
+        // Only a client that reached the end of the log may have a fresh issue time. Part-way through, the
+        // entries it has yet to read are only kept as long as the cursor it started from is valid.
+        long issuedAt = hasMore ? after.issuedAtMillis() : now;
+        return new ContactChangesDto(changes, new ChangeCursor(last.getListVersion(), last.getContactId(), issuedAt).encode(), hasMore);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.cache.UserLookupCache;
+import com.ab.cmsBackend.config.BoundedPasswordEncoder;
+import com.ab.cmsBackend.entity.User;
+import com.ab.cmsBackend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PasswordRehashService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordRehashService.class);
+
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
+
+    public PasswordRehashService(BoundedPasswordEncoder passwordEncoder, UserRepository userRepository,
+                                 UserLookupCache userLookupCache) {
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.userLookupCache = userLookupCache;
+    }
+
+    // Called after a successful login, while we still have the raw password.
+    // Runs in the background; if it fails the user is simply rehashed on a later login.
+    public void upgradeIfNeeded(User user, String rawPassword) {
+        String oldHash = user.getPassword();
+        if (!passwordEncoder.upgradeEncoding(oldHash)) {
+            return;
+        }
+        passwordEncoder.encodeAsync(rawPassword)
+                .thenAccept(newHash -> {
+                    // Skipped if the password was changed meanwhile
+                    if (userRepository.updatePasswordIfUnchanged(user.getId(), oldHash, newHash) == 1) {
+                        userLookupCache.invalidate(user);
+                        logger.info("Rehashed password for user ID: {}", user.getId());
+                    }
+                })
+                .exceptionally(e -> {
+                    logger.warn("Password rehash skipped for user ID {}: {}", user.getId(), e.getMessage());
+                    return null;
+                });
+    }
+}
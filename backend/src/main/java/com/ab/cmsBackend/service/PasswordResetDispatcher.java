@@ -0,0 +1,80 @@
+package com.ab.cmsBackend.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs forgot-password requests (account lookup, token write and email) after the response, on a
+ * dedicated fixed-size pool with a bounded queue. A flood of requests that gets past the rate limits
+ * then costs at most queue-capacity waiting tasks; beyond that requests are logged, counted and dropped,
+ * and the caller still gets its neutral answer.
+ */
+@Service
+public class PasswordResetDispatcher implements MeterBinder, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordResetDispatcher.class);
+
+    private final UserService userService;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder dropped = new LongAdder();
+
+    public PasswordResetDispatcher(UserService userService,
+                                   @Value("${app.password-reset.threads:2}") int threads,
+                                   @Value("${app.password-reset.queue-capacity:100}") int queueCapacity) {
+        this.userService = userService;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-reset-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Never throws: failures and dropped requests are only logged, so every caller gets the same answer
+    public void dispatch(String email) {
+        try {
+            executor.execute(() -> {
+                try {
+                    userService.initiatePasswordReset(email);
+                } catch (RuntimeException e) {
+                    logger.warn("MS SQL: Password reset request handled - {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            logger.warn("Password reset queue full, dropped request for email: {}", email);
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("password.reset.dropped", dropped, LongAdder::sum).register(registry);
+        Gauge.builder("password.reset.queue.depth", executor, pool -> pool.getQueue().size()).register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
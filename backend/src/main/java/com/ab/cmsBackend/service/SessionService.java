@@ -0,0 +1,153 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.cache.BoundedCache;
+import com.ab.cmsBackend.cache.UserLookupCache;
+import com.ab.cmsBackend.config.JwtTokenProvider;
+import com.ab.cmsBackend.config.TokenRevocationList;
+import com.ab.cmsBackend.dto.TokenResponseDto;
+import com.ab.cmsBackend.entity.RefreshToken;
+import com.ab.cmsBackend.entity.User;
+import com.ab.cmsBackend.exception.InvalidRefreshTokenException;
+import com.ab.cmsBackend.repository.RefreshTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues short-lived access tokens together with long-lived, single-use refresh tokens.
+ * Refreshing needs no password check, so access tokens can be short without sending users
+ * back through BCrypt; revoking a session deletes its refresh tokens and puts the outstanding
+ * access tokens on the in-memory revocation list until they expire.
+ *
+ * Browser tabs share one token pair, so when the access token expires they all refresh with the same
+ * refresh token at once. For app.jwt.refresh-grace-ms after a rotation the consumed token is still
+ * accepted and answered with the pair it was rotated to, so only one new session comes out of it and
+ * no tab is logged out for losing the race.
+ */
+@Service
+public class SessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionService.class);
+    private static final int LOCK_STRIPES = 64;
+    private static final int MAX_RECENT_ROTATIONS = 10_000;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationList tokenRevocationList;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserLookupCache userLookupCache;
+    private final long refreshExpirationMs;
+    // Hash of a just-consumed refresh token -> the pair it was rotated to, for the grace period
+    private final BoundedCache<String, TokenResponseDto> recentRotations;
+    private final Object[] rotationLocks = new Object[LOCK_STRIPES];
+
+    public SessionService(JwtTokenProvider jwtTokenProvider, TokenRevocationList tokenRevocationList,
+                          RefreshTokenRepository refreshTokenRepository, UserLookupCache userLookupCache,
+                          @Value("${app.jwt.refresh-expiration-ms:1209600000}") long refreshExpirationMs,
+                          @Value("${app.jwt.refresh-grace-ms:10000}") long refreshGraceMs) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenRevocationList = tokenRevocationList;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userLookupCache = userLookupCache;
+        this.refreshExpirationMs = refreshExpirationMs;
+        this.recentRotations = new BoundedCache<>(MAX_RECENT_ROTATIONS, Duration.ofMillis(refreshGraceMs), Clock.systemUTC());
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            rotationLocks[i] = new Object();
+        }
+    }
+
+    public TokenResponseDto issue(User user) {
+        byte[] random = new byte[32];
+        secureRandom.nextBytes(random);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+
+        RefreshToken entity = new RefreshToken();
+        entity.setTokenHash(hash(refreshToken));
+        entity.setUserId(user.getId());
+        entity.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs)));
+        refreshTokenRepository.save(entity);
+
+        return new TokenResponseDto(jwtTokenProvider.generateToken(user), refreshToken,
+                jwtTokenProvider.getExpirationMs() / 1000);
+    }
+
+    // Refresh tokens are rotated: the presented one is consumed and a new pair is issued
+    public TokenResponseDto refresh(String refreshToken) {
+        String tokenHash = hash(refreshToken);
+        // Concurrent refreshes with one token wait for the first, then share its successor
+        synchronized (rotationLocks[Math.floorMod(tokenHash.hashCode(), LOCK_STRIPES)]) {
+            TokenResponseDto rotated = recentRotations.get(tokenHash);
+            // Unless the successor was itself used, logged out or revoked since
+            if (rotated != null && refreshTokenRepository.findByTokenHash(hash(rotated.getRefreshToken())).isPresent()) {
+                return rotated;
+            }
+            RefreshToken stored = refreshTokenRepository.findByTokenHash(tokenHash)
+                    .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+
+            // Another instance consumed it first: only one delete succeeds
+            if (refreshTokenRepository.deleteByTokenHash(tokenHash) != 1) {
+                throw new InvalidRefreshTokenException("Invalid refresh token");
+            }
+            if (stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+                throw new InvalidRefreshTokenException("Refresh token has expired");
+            }
+
+            User user = userLookupCache.findById(stored.getUserId())
+                    .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+            TokenResponseDto successor = issue(user);
+            recentRotations.put(tokenHash, successor);
+            return successor;
+        }
+    }
+
+    public void logout(String refreshToken, String accessToken) {
+        if (refreshToken != null) {
+            refreshTokenRepository.deleteByTokenHash(hash(refreshToken));
+        }
+        if (accessToken != null) {
+            try {
+                Claims claims = jwtTokenProvider.parseClaims(accessToken);
+                tokenRevocationList.revokeToken(claims.getId(), claims.getExpiration().getTime());
+            } catch (JwtException e) {
+                // Already invalid, nothing to revoke
+                logger.debug("Ignoring invalid access token on logout: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Logs the user out everywhere, e.g. after a password change or reset
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+        tokenRevocationList.revokeUser(userId);
+    }
+
+    @Scheduled(cron = "${app.jwt.refresh-cleanup-cron:0 0 * * * *}")
+    public void cleanupExpired() {
+        int removed = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        logger.info("Cleaned up {} expired refresh tokens", removed);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.ab.cmsBackend.service;
 
+import com.ab.cmsBackend.cache.KnownEmailFilter;
+import com.ab.cmsBackend.cache.UserLookupCache;
+import com.ab.cmsBackend.config.AuthenticatedUser;
 import com.ab.cmsBackend.dto.RegisterDto;
 import com.ab.cmsBackend.entity.User;
 import com.ab.cmsBackend.repository.UserRepository;
@@ -26,16 +29,27 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final UserLookupCache userLookupCache;
+    private final SessionService sessionService;
+    private final KnownEmailFilter knownEmailFilter;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, EmailService emailService) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, EmailService emailService,
+                       UserLookupCache userLookupCache, SessionService sessionService,
+                       KnownEmailFilter knownEmailFilter) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
+        this.userLookupCache = userLookupCache;
+        this.sessionService = sessionService;
+        this.knownEmailFilter = knownEmailFilter;
     }
 
     private User getCurrentUser() {
-        String email = (String) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return userRepository.findByEmail(email).orElseThrow();
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return userLookupCache.findById(authenticatedUser.id()).orElseThrow();
+        }
+        return userLookupCache.findByEmail((String) principal).orElseThrow();
     }
 
     public RegisterDto getProfile() {
@@ -50,6 +64,9 @@ public class UserService {
         User user = getCurrentUser();
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userLookupCache.invalidate(user);
+        // Sessions started with the old password (possibly stolen ones) stop working
+        sessionService.revokeAll(user.getId());
     }
 
     // Forgot Password Method
@@ -57,7 +74,10 @@ public class UserService {
     public void initiatePasswordReset(String email) {
         logger.info("MS SQL: Initiating password reset for email: {}", email);
 
-        User user = userRepository.findByEmail(email)
+        if (!knownEmailFilter.mightExist(email)) {
+            throw new RuntimeException("User not found with email: " + email);
+        }
+        User user = userLookupCache.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
 
         // Generate unique token
@@ -68,6 +88,7 @@ public class UserService {
         user.setResetTokenExpiry(LocalDateTime.now().plusHours(24));
 
         userRepository.save(user);
+        userLookupCache.invalidate(user);
 
         // Send reset email
         emailService.sendPasswordResetEmail(user.getEmail(), token);
@@ -91,6 +112,7 @@ public class UserService {
             user.setResetToken(null);
             user.setResetTokenExpiry(null);
             userRepository.save(user);
+            userLookupCache.invalidate(user);
             throw new RuntimeException("Reset token has expired");
         }
 
@@ -102,6 +124,8 @@ public class UserService {
         user.setResetTokenExpiry(null);
 
         userRepository.save(user);
+        userLookupCache.invalidate(user);
+        sessionService.revokeAll(user.getId());
 
         logger.info("MS SQL: Password reset successfully for user ID: {}", user.getId());
     }
@@ -151,6 +175,7 @@ public class UserService {
         }
 
         userRepository.saveAll(usersWithExpiredTokens);
+        usersWithExpiredTokens.forEach(userLookupCache::invalidate);
         logger.info("Cleaned up {} expired password reset tokens", usersWithExpiredTokens.size());
     }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.ab.cmsBackend.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Storing 10,000 contacts on H2 the way each write path does it: one auto-committed INSERT per contact with the
+ * IDENTITY key read back (what a POST /api/contacts per contact costs, without the HTTP), against the bulk
+ * endpoint's shape, where ids come from a sequence in blocks of 50 and the INSERTs go out in JDBC batches of 50,
+ * one transaction per 1,000-contact request.
+ *
+ * Run with: mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ *           java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main ContactBulkInsertBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ContactBulkInsertBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+    private static final int REQUEST_SIZE = 1_000;
+    private static final long USER_ID = 1;
+
+    @Param("10000")
+    public int contacts;
+
+    private Connection connection;
+    private PreparedStatement identityInsert;
+    private PreparedStatement sequenceInsert;
+    private PreparedStatement nextBlock;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:bulk-bench;DB_CLOSE_DELAY=-1", "sa", "");
+        String columns = "user_id BIGINT, first_name VARCHAR(255), last_name VARCHAR(255), title VARCHAR(255), "
+                + "email_work VARCHAR(255), phone_work VARCHAR(255)";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE contact_identity (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " + columns + ")");
+            statement.execute("CREATE TABLE contact_sequence (id BIGINT PRIMARY KEY, " + columns + ")");
+            statement.execute("CREATE SEQUENCE contact_seq START WITH 1 INCREMENT BY " + BATCH_SIZE);
+        }
+        identityInsert = connection.prepareStatement("INSERT INTO contact_identity (user_id, first_name, last_name, title, "
+                + "email_work, phone_work) VALUES (?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+        sequenceInsert = connection.prepareStatement("INSERT INTO contact_sequence (id, user_id, first_name, last_name, title, "
+                + "email_work, phone_work) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        nextBlock = connection.prepareStatement("SELECT NEXT VALUE FOR contact_seq");
+    }
+
+    // Each invocation stores its 10,000 contacts into empty tables
+    @Setup(Level.Invocation)
+    public void truncate() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE contact_identity");
+            statement.execute("TRUNCATE TABLE contact_sequence");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long oneByOne() throws SQLException {
+        connection.setAutoCommit(true);
+        long checksum = 0;
+        for (int i = 0; i < contacts; i++) {
+            bind(identityInsert, 1, i);
+            identityInsert.executeUpdate();
+            try (ResultSet keys = identityInsert.getGeneratedKeys()) {
+                keys.next();
+                checksum += keys.getLong(1);
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public long batched() throws SQLException {
+        connection.setAutoCommit(false);
+        long checksum = 0;
+        long nextId = 0;
+        long blockEnd = 0;
+        for (int i = 0; i < contacts; i++) {
+            // Hibernate's pooled optimizer: one sequence call hands out the next 50 ids
+            if (nextId == blockEnd) {
+                try (ResultSet block = nextBlock.executeQuery()) {
+                    block.next();
+                    nextId = block.getLong(1);
+                    blockEnd = nextId + BATCH_SIZE;
+                }
+            }
+            long id = nextId++;
+            sequenceInsert.setLong(1, id);
+            bind(sequenceInsert, 2, i);
+            sequenceInsert.addBatch();
+            checksum += id;
+            if ((i + 1) % BATCH_SIZE == 0) {
+                sequenceInsert.executeBatch();
+            }
+            if ((i + 1) % REQUEST_SIZE == 0) {
+                connection.commit();
+            }
+        }
+        sequenceInsert.executeBatch();
+        connection.commit();
+        return checksum;
+    }
+
+    private static void bind(PreparedStatement insert, int first, int i) throws SQLException {
+        insert.setLong(first, USER_ID);
+        insert.setString(first + 1, "First" + i);
+        insert.setString(first + 2, "Last" + i);
+        insert.setString(first + 3, "Engineer");
+        insert.setString(first + 4, "contact" + i + "@example.com");
+        insert.setString(first + 5, "555-0100");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ContactBulkInsertBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
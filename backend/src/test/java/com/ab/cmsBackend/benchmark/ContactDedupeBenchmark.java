@@ -0,0 +1,96 @@
+package com.ab.cmsBackend.benchmark;
+
+import com.ab.cmsBackend.dedupe.DuplicateFinder;
+import com.ab.cmsBackend.dto.ContactDto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duplicate detection over 50,000 and 500,000 contacts with realistic name skew (a few hundred first and last
+ * names, so name blocks run into the thousands) and about 5% planted duplicates with a typo, reformatted phone or
+ * re-cased email. Time per contact should stay roughly flat between the two sizes; comparing all pairs would
+ * take 100 times longer at the larger one.
+ *
+ * Run with: mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ *           java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main ContactDedupeBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ContactDedupeBenchmark {
+
+    @Param({"50000", "500000"})
+    public int contacts;
+
+    private List<ContactDto> rows;
+    private ForkJoinPool pool;
+    private DuplicateFinder finder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(3);
+        String[] first = syllableNames(random, 300);
+        String[] last = syllableNames(random, 500);
+        rows = new ArrayList<>(contacts);
+        long id = 1;
+        while (rows.size() < contacts) {
+            String firstName = first[(int) Math.abs(random.nextGaussian() * first.length / 3) % first.length];
+            String lastName = last[(int) Math.abs(random.nextGaussian() * last.length / 3) % last.length];
+            String email = firstName.toLowerCase() + "." + lastName.toLowerCase() + id + "@example.com";
+            String phone = String.format("555-%03d-%04d", random.nextInt(1000), random.nextInt(10_000));
+            rows.add(new ContactDto(id++, firstName, lastName, null, email, null, phone, null, null));
+            if (random.nextInt(20) == 0 && rows.size() < contacts) {
+                // A near copy: dropped letter in the first name, same number written differently, upper-cased email
+                String typo = firstName.length() > 3 ? firstName.substring(0, firstName.length() - 1) : firstName;
+                rows.add(new ContactDto(id++, typo, lastName, null, email.toUpperCase(), null,
+                        "+1 " + phone.replace('-', ' '), null, null));
+            }
+        }
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        finder = new DuplicateFinder(pool, 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public int find() {
+        return finder.find(rows, 0.7).size();
+    }
+
+    private static String[] syllableNames(Random random, int count) {
+        String[] syllables = {"an", "be", "car", "do", "el", "fi", "gar", "ha", "is", "jo", "ka", "lu", "mi", "no",
+                "or", "pe", "ra", "si", "to", "va", "wen", "yu", "zo"};
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int s = 0; s < 2 + random.nextInt(2); s++) {
+                name.append(syllables[random.nextInt(syllables.length)]);
+            }
+            name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+            names[i] = name.toString();
+        }
+        return names;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ContactDedupeBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,163 @@
+package com.ab.cmsBackend.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetching page 1, 100 and 10,000 (20 contacts each) of one user's contact list on H2, ordered by
+ * (last name, first name, id) with the composite index in place: OFFSET plus the COUNT(*) a Page runs,
+ * against a keyset seek from the previous page's last row. Both use the same SQL shape as ContactRepository.
+ *
+ * Run with: mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ *           java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main ContactPagingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ContactPagingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final long USER_ID = 1;
+    private static final String[] LAST_NAMES = {"Anderson", "Brown", "Garcia", "Johnson", "Lee", "Miller",
+            "Nguyen", "Smith", "Taylor", "Williams"};
+    private static final String[] FIRST_NAMES = {"Alice", "Bob", "Carlos", "Fatima", "Jane", "John", "Mei",
+            "Olga", "Priya", "Tom"};
+
+    @Param({"1", "100", "10000"})
+    public int page;
+
+    @Param("250000")
+    public int contacts;
+
+    private Connection connection;
+    private PreparedStatement offsetQuery;
+    private PreparedStatement countQuery;
+    private PreparedStatement seekQuery;
+    // Sort key of the last row on the page before the one being fetched
+    private String lastName;
+    private String firstName;
+    private long lastId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:paging-bench;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE contact (id BIGINT PRIMARY KEY, user_id BIGINT, "
+                    + "first_name VARCHAR(255), last_name VARCHAR(255), title VARCHAR(255))");
+            statement.execute("CREATE INDEX idx_contact_user_name ON contact (user_id, last_name, first_name, id)");
+        }
+        Random random = new Random(11);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO contact VALUES (?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= contacts; id++) {
+                insert.setLong(1, id);
+                // Every fifth contact belongs to somebody else, so the index has other users' rows to skip
+                insert.setLong(2, id % 5 == 0 ? 2 : USER_ID);
+                insert.setString(3, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+                insert.setString(4, LAST_NAMES[random.nextInt(LAST_NAMES.length)] + random.nextInt(1000));
+                insert.setString(5, "Engineer");
+                insert.addBatch();
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        String columns = "SELECT id, first_name, last_name, title FROM contact WHERE user_id = ?";
+        String order = " ORDER BY user_id, last_name, first_name, id";
+        offsetQuery = connection.prepareStatement(columns + order + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY");
+        countQuery = connection.prepareStatement("SELECT COUNT(*) FROM contact WHERE user_id = ?");
+        seekQuery = connection.prepareStatement(columns + " AND last_name >= ? AND (last_name > ? OR (last_name = ? AND "
+                + "(first_name > ? OR (first_name = ? AND id > ?))))" + order + " FETCH FIRST ? ROWS ONLY");
+
+        if (page > 1) {
+            // What the client would hold as its cursor after reading the previous page
+            try (PreparedStatement previous = connection.prepareStatement(
+                    columns + order + " OFFSET ? ROWS FETCH NEXT 1 ROWS ONLY")) {
+                previous.setLong(1, USER_ID);
+                previous.setLong(2, (long) (page - 1) * PAGE_SIZE - 1);
+                try (ResultSet row = previous.executeQuery()) {
+                    if (!row.next()) {
+                        throw new IllegalStateException("Not enough contacts for page " + page);
+                    }
+                    lastId = row.getLong("id");
+                    firstName = row.getString("first_name");
+                    lastName = row.getString("last_name");
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long offsetWithCount() throws SQLException {
+        offsetQuery.setLong(1, USER_ID);
+        offsetQuery.setLong(2, (long) (page - 1) * PAGE_SIZE);
+        offsetQuery.setInt(3, PAGE_SIZE);
+        long checksum = drain(offsetQuery);
+        countQuery.setLong(1, USER_ID);
+        try (ResultSet count = countQuery.executeQuery()) {
+            count.next();
+            return checksum + count.getLong(1);
+        }
+    }
+
+    @Benchmark
+    public long keyset() throws SQLException {
+        if (page == 1) {
+            offsetQuery.setLong(1, USER_ID);
+            offsetQuery.setLong(2, 0);
+            offsetQuery.setInt(3, PAGE_SIZE + 1);
+            return drain(offsetQuery);
+        }
+        seekQuery.setLong(1, USER_ID);
+        seekQuery.setString(2, lastName);
+        seekQuery.setString(3, lastName);
+        seekQuery.setString(4, lastName);
+        seekQuery.setString(5, firstName);
+        seekQuery.setString(6, firstName);
+        seekQuery.setLong(7, lastId);
+        // One extra row tells whether another page follows
+        seekQuery.setInt(8, PAGE_SIZE + 1);
+        return drain(seekQuery);
+    }
+
+    private static long drain(PreparedStatement query) throws SQLException {
+        long checksum = 0;
+        try (ResultSet rows = query.executeQuery()) {
+            while (rows.next()) {
+                checksum += rows.getLong(1);
+            }
+        }
+        return checksum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ContactPagingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,201 @@
+package com.ab.cmsBackend.benchmark;
+
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.search.LuceneContactIndex;
+import org.apache.lucene.store.FSDirectory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contact search at 1M contacts spread over a few heavy users: the current LIKE query
+ * (same SQL the repository generates, on H2 with an index on user_id) against the Lucene index.
+ * Setup loads both stores once and takes a few minutes.
+ *
+ * Run with: mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ *           java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main ContactSearchBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ContactSearchBenchmark {
+
+    private static final String[] FIRST = {"John", "Jane", "Johanna", "Bob", "Alice", "Carlos", "Mei", "Olga",
+            "Priya", "Tom", "Sven", "Fatima", "Liam", "Noah", "Emma", "Ava", "Lucas", "Mia", "Yuki", "Omar"};
+    private static final String[] QUERIES = {"jo", "smi", "ander", "li", "garcia", "ny"};
+
+    @Param("1000000")
+    public int contacts;
+
+    @Param("20")
+    public int users;
+
+    private Connection connection;
+    private Path indexPath;
+    private LuceneContactIndex luceneIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:search-bench;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE contact (id BIGINT PRIMARY KEY, user_id BIGINT, first_name VARCHAR(255), "
+                    + "last_name VARCHAR(255), title VARCHAR(255), email_work VARCHAR(255), email_personal VARCHAR(255), "
+                    + "phone_work VARCHAR(255), phone_home VARCHAR(255), phone_personal VARCHAR(255))");
+            statement.execute("CREATE INDEX idx_contact_user ON contact (user_id)");
+        }
+        Random random = new Random(7);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO contact VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= contacts; id++) {
+                ContactDto contact = generate(id, random);
+                insert.setLong(1, id);
+                insert.setLong(2, userFor(id));
+                insert.setString(3, contact.getFirstName());
+                insert.setString(4, contact.getLastName());
+                insert.setString(5, contact.getTitle());
+                insert.setString(6, contact.getEmailWork());
+                insert.setString(7, contact.getEmailPersonal());
+                insert.setString(8, contact.getPhoneWork());
+                insert.setString(9, contact.getPhoneHome());
+                insert.setString(10, contact.getPhonePersonal());
+                insert.addBatch();
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        indexPath = Files.createTempDirectory("contact-search-bench");
+        luceneIndex = new LuceneContactIndex(FSDirectory.open(indexPath), this::loadUser, 1000);
+        for (long userId = 1; userId <= users; userId++) {
+            // First search builds the user's partition
+            luceneIndex.search(userId, "warmup", 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        luceneIndex.destroy();
+        FileSystemUtils.deleteRecursively(indexPath);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int likeQuery() throws SQLException {
+        String query = randomQuery();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT * FROM contact WHERE user_id = ? AND (first_name LIKE ? OR last_name LIKE ?)")) {
+            select.setLong(1, randomUser());
+            select.setString(2, "%" + query + "%");
+            select.setString(3, "%" + query + "%");
+            int rows = 0;
+            try (ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+
+    @Benchmark
+    public int luceneRanked() {
+        return luceneIndex.search(randomUser(), randomQuery(), 20).orElseThrow().size();
+    }
+
+    private List<ContactDto> loadUser(Long userId) {
+        List<ContactDto> result = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT * FROM contact WHERE user_id = ? ORDER BY id")) {
+            select.setLong(1, userId);
+            try (ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    ContactDto dto = new ContactDto();
+                    dto.setId(resultSet.getLong("id"));
+                    dto.setFirstName(resultSet.getString("first_name"));
+                    dto.setLastName(resultSet.getString("last_name"));
+                    dto.setTitle(resultSet.getString("title"));
+                    dto.setEmailWork(resultSet.getString("email_work"));
+                    dto.setEmailPersonal(resultSet.getString("email_personal"));
+                    dto.setPhoneWork(resultSet.getString("phone_work"));
+                    dto.setPhoneHome(resultSet.getString("phone_home"));
+                    dto.setPhonePersonal(resultSet.getString("phone_personal"));
+                    result.add(dto);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return result;
+    }
+
+    private long userFor(long contactId) {
+        return 1 + contactId % users;
+    }
+
+    private long randomUser() {
+        return 1 + ThreadLocalRandom.current().nextInt(users);
+    }
+
+    private static String randomQuery() {
+        return QUERIES[ThreadLocalRandom.current().nextInt(QUERIES.length)];
+    }
+
+    private static ContactDto generate(long id, Random random) {
+        String first = FIRST[random.nextInt(FIRST.length)];
+        String last = syllables(random) + (random.nextInt(5) == 0 ? "son" : "");
+        ContactDto dto = new ContactDto();
+        dto.setFirstName(first);
+        dto.setLastName(last);
+        dto.setTitle(random.nextBoolean() ? "Sales Manager" : "Engineer");
+        dto.setEmailWork(first.toLowerCase() + "." + last.toLowerCase() + id + "@work.example");
+        dto.setEmailPersonal(first.toLowerCase() + id + "@mail.example");
+        dto.setPhoneWork(String.format("555-%03d-%04d", random.nextInt(1000), random.nextInt(10000)));
+        dto.setPhoneHome(String.format("555-%03d-%04d", random.nextInt(1000), random.nextInt(10000)));
+        dto.setPhonePersonal(String.format("555-%03d-%04d", random.nextInt(1000), random.nextInt(10000)));
+        return dto;
+    }
+
+    private static String syllables(Random random) {
+        String[] parts = {"smi", "th", "an", "der", "gar", "cia", "li", "ny", "ko", "va", "ber", "mo", "ra", "to"};
+        StringBuilder name = new StringBuilder();
+        int count = 2 + random.nextInt(2);
+        for (int i = 0; i < count; i++) {
+            name.append(parts[random.nextInt(parts.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ContactSearchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
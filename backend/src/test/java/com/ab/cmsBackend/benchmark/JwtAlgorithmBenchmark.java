@@ -0,0 +1,79 @@
+package com.ab.cmsBackend.benchmark;
+
+import com.ab.cmsBackend.config.JwtKeyRing;
+import com.ab.cmsBackend.config.JwtTokenProvider;
+import com.ab.cmsBackend.entity.User;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verification (and signing) cost per signing algorithm the key ring supports.
+ * HMAC is the cheapest to verify but every verifying node needs the secret;
+ * ES256 lets nodes verify with only the public key at a higher CPU cost per token.
+ *
+ * Run with: mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ *           java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main JwtAlgorithmBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAlgorithmBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hmac-sha-512-signing-0123456789";
+
+    @Param({"HS256", "HS512", "ES256"})
+    public String algorithm;
+
+    private JwtTokenProvider provider;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.jwt.active-kid", "bench")
+                .withProperty("app.jwt.keys.bench.algorithm", algorithm);
+        if (algorithm.startsWith("HS")) {
+            environment.setProperty("app.jwt.keys.bench.secret", SECRET);
+        } else {
+            KeyPair pair = Jwts.SIG.ES256.keyPair().build();
+            Base64.Encoder encoder = Base64.getEncoder();
+            environment.setProperty("app.jwt.keys.bench.public-key", encoder.encodeToString(pair.getPublic().getEncoded()));
+            environment.setProperty("app.jwt.keys.bench.private-key", encoder.encodeToString(pair.getPrivate().getEncoded()));
+        }
+        provider = new JwtTokenProvider(new JwtKeyRing(environment), 86400000);
+        user = new User();
+        user.setId(1L);
+        user.setEmail("bench@example.com");
+        token = provider.generateToken(user);
+    }
+
+    @Benchmark
+    public String verify() {
+        return provider.parseClaims(token).getSubject();
+    }
+
+    @Benchmark
+    public String sign() {
+        return provider.generateToken(user);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtAlgorithmBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
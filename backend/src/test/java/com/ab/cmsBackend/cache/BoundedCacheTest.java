@@ -0,0 +1,126 @@
+package com.ab.cmsBackend.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    private static class MutableClock extends Clock {
+        private long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void advance(Duration duration) {
+            millis += duration.toMillis();
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+
+    @Test
+    void get_ShouldReturnValue_AndCountHitsAndMisses() {
+        BoundedCache<String, String> cache = new BoundedCache<>(64, Duration.ofMinutes(5), Clock.systemUTC());
+        cache.put("a", "1");
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void get_ShouldDropEntry_WhenExpired() {
+        MutableClock clock = new MutableClock(1_000);
+        BoundedCache<String, String> cache = new BoundedCache<>(64, Duration.ofMinutes(5), clock);
+        cache.put("a", "1", clock.millis() + 1_000);
+
+        clock.advance(Duration.ofSeconds(2));
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void put_ShouldCapExpiryAtDefaultTtl() {
+        MutableClock clock = new MutableClock(1_000);
+        BoundedCache<String, String> cache = new BoundedCache<>(64, Duration.ofSeconds(10), clock);
+        cache.put("a", "1", clock.millis() + Duration.ofHours(1).toMillis());
+
+        clock.advance(Duration.ofSeconds(11));
+
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void put_ShouldEvictLeastRecentlyUsed_WhenFull() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(16, Duration.ofMinutes(5), Clock.systemUTC());
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i);
+        }
+
+        assertTrue(cache.size() <= 16);
+        assertEquals(1_000 - cache.size(), cache.evictionCount());
+        // The most recent key is always still present
+        assertEquals(999, cache.get(999));
+    }
+
+    @Test
+    void invalidate_ShouldRemoveEntry() {
+        BoundedCache<String, String> cache = new BoundedCache<>(64, Duration.ofMinutes(5), Clock.systemUTC());
+        cache.put("a", "1");
+        cache.invalidate("a");
+
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void concurrentAccess_ShouldStayBounded() throws Exception {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(256, Duration.ofMinutes(5), Clock.systemUTC());
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            int offset = t * 10_000;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    cache.put(offset + i, i);
+                    cache.get(offset + i / 2);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertTrue(cache.size() <= 256);
+        assertEquals(160_000, cache.hitCount() + cache.missCount());
+    }
+}
@@ -0,0 +1,84 @@
+package com.ab.cmsBackend.cache;
+
+import com.ab.cmsBackend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KnownEmailFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void mightExist_ShouldBeTrue_BeforeLoad() {
+        KnownEmailFilter filter = new KnownEmailFilter(userRepository, true, 1000, 0.01);
+
+        assertFalse(filter.isLoaded());
+        assertTrue(filter.mightExist("anyone@example.com"));
+    }
+
+    @Test
+    void load_ShouldDoNothing_WhenDisabled() {
+        KnownEmailFilter filter = new KnownEmailFilter(userRepository, false, 1000, 0.01);
+
+        filter.load();
+
+        assertTrue(filter.mightExist("anyone@example.com"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void load_ShouldRuleOutUnknownEmails_IgnoringCase() {
+        UserRepository.EmailRow row = emailRow(7L, "Alice@Example.com");
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of(row));
+        KnownEmailFilter filter = new KnownEmailFilter(userRepository, true, 1000, 0.001);
+
+        filter.load();
+
+        assertTrue(filter.isLoaded());
+        assertTrue(filter.mightExist("alice@example.com"));
+        assertTrue(filter.mightExist("ALICE@EXAMPLE.COM"));
+        assertFalse(filter.mightExist("mallory@example.com"));
+    }
+
+    @Test
+    void add_ShouldMakeNewEmailVisible() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of());
+        KnownEmailFilter filter = new KnownEmailFilter(userRepository, true, 1000, 0.001);
+        filter.load();
+        assertFalse(filter.mightExist("new@example.com"));
+
+        filter.add("new@example.com");
+
+        assertTrue(filter.mightExist("new@example.com"));
+    }
+
+    @Test
+    void load_ShouldFailOpen_WhenDatabaseUnavailable() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenThrow(new RuntimeException("Connection refused"));
+        KnownEmailFilter filter = new KnownEmailFilter(userRepository, true, 1000, 0.001);
+
+        filter.load();
+
+        assertFalse(filter.isLoaded());
+        assertTrue(filter.mightExist("anyone@example.com"));
+    }
+
+    private static UserRepository.EmailRow emailRow(Long id, String email) {
+        UserRepository.EmailRow row = mock(UserRepository.EmailRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getEmail()).thenReturn(email);
+        return row;
+    }
+}
@@ -0,0 +1,172 @@
+package com.ab.cmsBackend.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void tryAcquire_ShouldAllowUpToCapacityThenReportWait() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 1, 1000, clock);
+
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(0, limiter.tryAcquire("ip"));
+
+        long wait = limiter.tryAcquire("ip");
+        assertTrue(wait > 0 && wait <= 1000, "Wait was " + wait);
+        assertEquals(3, limiter.allowedCount());
+        assertEquals(1, limiter.rejectedCount());
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillOverTime() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 2, 1000, clock);
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertTrue(limiter.tryAcquire("ip") > 0);
+
+        clock.advance(500);
+
+        assertEquals(0, limiter.tryAcquire("ip"));
+    }
+
+    @Test
+    void tryAcquire_ShouldReachTheConfiguredRate_UnderCallsEveryMillisecond() {
+        // The email and IP limits: 5 and 20 per minute
+        for (int perMinute : new int[]{5, 20}) {
+            TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(perMinute, perMinute / 60.0, 1000, clock);
+
+            // A second past the minute, so the last token's arrival does not hinge on rounding
+            for (int millis = 0; millis < 61_000; millis++) {
+                limiter.tryAcquire("key-" + perMinute);
+                clock.advance(1);
+            }
+
+            // The full bucket, then a minute's refill
+            assertEquals(2 * perMinute, limiter.allowedCount(), "At " + perMinute + " per minute");
+        }
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepKeysIndependent() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 1000, clock);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+        assertEquals(0, limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void size_ShouldStayBounded_UnderManyDistinctKeys() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 640, clock);
+
+        for (int i = 0; i < 100_000; i++) {
+            limiter.tryAcquire("key-" + i);
+        }
+
+        assertTrue(limiter.size() <= 640, "Size was " + limiter.size());
+        assertTrue(limiter.evictionCount() > 0);
+    }
+
+    @Test
+    void evictIdle_ShouldOnlyDropFullyRefilledBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 1, 1000, clock);
+        limiter.tryAcquire("idle");
+        clock.advance(5000);
+        limiter.tryAcquire("busy");
+        limiter.tryAcquire("busy");
+
+        limiter.evictIdle();
+
+        assertEquals(1, limiter.size());
+        assertTrue(limiter.tryAcquire("busy") > 0);
+    }
+
+    @Test
+    void tryAcquire_ShouldGrantExactlyCapacity_UnderHeavyContention() throws Exception {
+        int threads = 400;
+        int attemptsPerThread = 50;
+        int capacity = 1000;
+        // Frozen clock: no refill, so exactly `capacity` permits exist across all threads
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(capacity, 1, 1000, clock);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (limiter.tryAcquire("shared") == 0) {
+                            granted.incrementAndGet();
+                        }
+                        // Other keys must keep working alongside the hot one
+                        limiter.tryAcquire("key-" + Thread.currentThread().getId());
+                    }
+                    return null;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+            assertEquals(capacity, granted.get());
+            assertEquals((long) threads * attemptsPerThread * 2,
+                    limiter.allowedCount() + limiter.rejectedCount());
+            // 40k decisions never wait on anything but a short stripe lock
+            assertTrue(elapsedMs < 5000, "Took " + elapsedMs + "ms");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private long millis = 1_000_000;
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
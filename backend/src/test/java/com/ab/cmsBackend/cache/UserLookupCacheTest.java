@@ -0,0 +1,115 @@
+package com.ab.cmsBackend.cache;
+
+import com.ab.cmsBackend.entity.User;
+import com.ab.cmsBackend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserLookupCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserLookupCache userLookupCache;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        userLookupCache = new UserLookupCache(userRepository, true, 100, Duration.ofMinutes(5), Clock.systemUTC());
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("encodedPassword123");
+    }
+
+    @Test
+    void findByEmail_ShouldHitRepositoryOnce() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        userLookupCache.findByEmail("test@example.com");
+        Optional<User> second = userLookupCache.findByEmail("test@example.com");
+
+        assertEquals("encodedPassword123", second.orElseThrow().getPassword());
+        verify(userRepository, times(1)).findByEmail("test@example.com");
+    }
+
+    @Test
+    void findById_ShouldBeServedFromEntryLoadedByEmail() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        userLookupCache.findByEmail("test@example.com");
+        Optional<User> byId = userLookupCache.findById(1L);
+
+        assertEquals("test@example.com", byId.orElseThrow().getEmail());
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void hits_ShouldReturnCopies() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        userLookupCache.findById(1L);
+
+        // Changing what a caller got back must not change the cached entry
+        userLookupCache.findById(1L).orElseThrow().setPassword("changed");
+
+        assertEquals("encodedPassword123", userLookupCache.findById(1L).orElseThrow().getPassword());
+    }
+
+    @Test
+    void invalidate_ShouldForceReload() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        userLookupCache.findById(1L);
+
+        userLookupCache.invalidate(testUser);
+        userLookupCache.findById(1L);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void loadOverlappingInvalidation_ShouldNotBeCached() {
+        // The row is read, then a writer invalidates before the reader stores it
+        when(userRepository.findById(1L)).thenAnswer(invocation -> {
+            userLookupCache.invalidate(1L, "test@example.com");
+            return Optional.of(testUser);
+        });
+
+        userLookupCache.findById(1L);
+        userLookupCache.findById(1L);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void disabled_ShouldAlwaysDelegate() {
+        UserLookupCache disabled = new UserLookupCache(userRepository, false, 100, Duration.ofMinutes(5), Clock.systemUTC());
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        disabled.findByEmail("test@example.com");
+        disabled.findByEmail("test@example.com");
+
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+    }
+
+    @Test
+    void missingUser_ShouldNotBeCached() {
+        when(userRepository.findByEmail("missing@example.com")).thenReturn(Optional.empty());
+
+        assertTrue(userLookupCache.findByEmail("missing@example.com").isEmpty());
+        assertTrue(userLookupCache.findByEmail("missing@example.com").isEmpty());
+
+        verify(userRepository, times(2)).findByEmail("missing@example.com");
+    }
+}
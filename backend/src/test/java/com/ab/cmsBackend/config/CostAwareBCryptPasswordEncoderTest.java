@@ -0,0 +1,33 @@
+package com.ab.cmsBackend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CostAwareBCryptPasswordEncoderTest {
+
+    @Test
+    void upgradeEncoding_ShouldDetectLowerAndHigherCost() {
+        CostAwareBCryptPasswordEncoder encoder = new CostAwareBCryptPasswordEncoder(6);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(7).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+    }
+
+    @Test
+    void matches_ShouldAcceptHashesOfAnyCost() {
+        CostAwareBCryptPasswordEncoder encoder = new CostAwareBCryptPasswordEncoder(6);
+
+        assertTrue(encoder.matches("secret", new BCryptPasswordEncoder(4).encode("secret")));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldIgnoreNonBCryptValues() {
+        CostAwareBCryptPasswordEncoder encoder = new CostAwareBCryptPasswordEncoder(6);
+
+        assertFalse(encoder.upgradeEncoding(null));
+        assertFalse(encoder.upgradeEncoding("plain"));
+    }
+}
@@ -0,0 +1,103 @@
+package com.ab.cmsBackend.config;
+
+import com.ab.cmsBackend.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtFilterTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hmac-sha-signing-in-unit-tests-0123456789";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private VerifiedTokenCache verifiedTokenCache;
+    private TokenRevocationList tokenRevocationList;
+    private JwtFilter jwtFilter;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(SECRET, 3600000);
+        verifiedTokenCache = new VerifiedTokenCache(100, 3600000);
+        tokenRevocationList = new TokenRevocationList(3600000, 1000);
+        jwtFilter = new JwtFilter(jwtTokenProvider, verifiedTokenCache, tokenRevocationList);
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        token = jwtTokenProvider.generateToken(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validToken_ShouldAuthenticateRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contacts");
+        request.addHeader("Authorization", "Bearer " + token);
+
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(auth);
+        assertEquals(new AuthenticatedUser(1L, "test@example.com"), auth.getPrincipal());
+    }
+
+    @Test
+    void repeatedToken_ShouldBeServedFromCache() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contacts");
+            request.addHeader("Authorization", "Bearer " + token);
+            jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            SecurityContextHolder.clearContext();
+        }
+
+        assertEquals(1, verifiedTokenCache.delegate().missCount());
+        assertEquals(2, verifiedTokenCache.delegate().hitCount());
+    }
+
+    @Test
+    void revokedToken_ShouldNotAuthenticate_EvenWhenCached() throws Exception {
+        MockHttpServletRequest first = new MockHttpServletRequest("GET", "/api/contacts");
+        first.addHeader("Authorization", "Bearer " + token);
+        jwtFilter.doFilter(first, new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+
+        tokenRevocationList.revokeToken(jwtTokenProvider.parseClaims(token).getId(), System.currentTimeMillis() + 60000);
+
+        MockHttpServletRequest second = new MockHttpServletRequest("GET", "/api/contacts");
+        second.addHeader("Authorization", "Bearer " + token);
+        jwtFilter.doFilter(second, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void invalidToken_ShouldLeaveContextEmpty() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contacts");
+        request.addHeader("Authorization", "Bearer " + token + "tampered");
+
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(0, verifiedTokenCache.delegate().size());
+    }
+
+    @Test
+    void publicEndpoints_ShouldNotBeFiltered() {
+        assertTrue(jwtFilter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/auth/login")));
+        assertTrue(jwtFilter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/user/forgot-password")));
+        assertTrue(jwtFilter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/user/validate-reset-token/abc")));
+        assertFalse(jwtFilter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/user/profile")));
+        assertFalse(jwtFilter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/contacts")));
+    }
+}
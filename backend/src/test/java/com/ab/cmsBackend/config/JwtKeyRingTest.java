@@ -0,0 +1,119 @@
+package com.ab.cmsBackend.config;
+
+import com.ab.cmsBackend.entity.User;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    private static final String OLD_SECRET = "old-secret-key-that-is-long-enough-for-hmac-sha-512-signing-0123456789";
+    private static final String NEW_SECRET = "new-secret-key-that-is-long-enough-for-hmac-sha-512-signing-0123456789";
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+    }
+
+    @Test
+    void generateToken_ShouldCarryActiveKid() {
+        JwtKeyRing keyRing = new JwtKeyRing(Map.of("k1", hmac(OLD_SECRET)), "k1", null);
+        JwtTokenProvider provider = new JwtTokenProvider(keyRing, 60000);
+
+        String token = provider.generateToken(user);
+
+        assertEquals("k1", Jwts.parser().keyLocator(keyRing.locator()).build()
+                .parseSignedClaims(token).getHeader().getKeyId());
+    }
+
+    @Test
+    void rotation_ShouldKeepVerifyingTokensFromPreviousKey() {
+        JwtTokenProvider before = new JwtTokenProvider(
+                new JwtKeyRing(Map.of("k1", hmac(OLD_SECRET)), "k1", null), 60000);
+        String oldToken = before.generateToken(user);
+
+        JwtTokenProvider after = new JwtTokenProvider(
+                new JwtKeyRing(Map.of("k1", hmac(OLD_SECRET), "k2", hmac(NEW_SECRET)), "k2", null), 60000);
+        String newToken = after.generateToken(user);
+
+        assertEquals("test@example.com", after.parseClaims(oldToken).getSubject());
+        assertEquals("test@example.com", after.parseClaims(newToken).getSubject());
+        // Once k1 is dropped its tokens stop verifying
+        JwtTokenProvider retired = new JwtTokenProvider(
+                new JwtKeyRing(Map.of("k2", hmac(NEW_SECRET)), "k2", null), 60000);
+        assertThrows(JwtException.class, () -> retired.parseClaims(oldToken));
+    }
+
+    @Test
+    void parseClaims_ShouldAcceptTokensWithoutKid_UsingDefaultKey() {
+        String legacyToken = Jwts.builder()
+                .subject("test@example.com")
+                .signWith(Keys.hmacShaKeyFor(OLD_SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        JwtTokenProvider provider = new JwtTokenProvider(OLD_SECRET, 60000);
+
+        assertEquals("test@example.com", provider.parseClaims(legacyToken).getSubject());
+    }
+
+    @Test
+    void es256_ShouldLetVerifyOnlyNodesCheckTokensWithoutTheSigningKey() {
+        KeyPair pair = Jwts.SIG.ES256.keyPair().build();
+        String publicKey = Base64.getEncoder().encodeToString(pair.getPublic().getEncoded());
+        String privateKey = Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded());
+
+        JwtTokenProvider issuer = new JwtTokenProvider(
+                new JwtKeyRing(Map.of("ec1", ec(publicKey, privateKey)), "ec1", null), 60000);
+        JwtKeyRing verifyOnlyRing = new JwtKeyRing(Map.of("ec1", ec(publicKey, null)), "ec1", null);
+        JwtTokenProvider verifier = new JwtTokenProvider(verifyOnlyRing, 60000);
+
+        String token = issuer.generateToken(user);
+
+        assertEquals("test@example.com", verifier.parseClaims(token).getSubject());
+        assertThrows(IllegalStateException.class, verifyOnlyRing::getSigningKey);
+    }
+
+    @Test
+    void constructor_ShouldRejectUnknownActiveKid() {
+        assertThrows(IllegalStateException.class,
+                () -> new JwtKeyRing(Map.of("k1", hmac(OLD_SECRET)), "missing", null));
+    }
+
+    @Test
+    void parseClaims_ShouldRejectUnknownKid() {
+        JwtTokenProvider other = new JwtTokenProvider(
+                new JwtKeyRing(Map.of("unknown", hmac(OLD_SECRET)), "unknown", null), 60000);
+        String token = other.generateToken(user);
+
+        JwtTokenProvider provider = new JwtTokenProvider(OLD_SECRET, 60000);
+
+        assertThrows(JwtException.class, () -> provider.parseClaims(token));
+    }
+
+    private static JwtKeyRing.KeyConfig hmac(String secret) {
+        JwtKeyRing.KeyConfig config = new JwtKeyRing.KeyConfig();
+        config.setSecret(secret);
+        return config;
+    }
+
+    private static JwtKeyRing.KeyConfig ec(String publicKey, String privateKey) {
+        JwtKeyRing.KeyConfig config = new JwtKeyRing.KeyConfig();
+        config.setAlgorithm("ES256");
+        config.setPublicKey(publicKey);
+        config.setPrivateKey(privateKey);
+        return config;
+    }
+}
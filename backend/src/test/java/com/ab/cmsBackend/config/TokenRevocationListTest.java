@@ -0,0 +1,52 @@
+package com.ab.cmsBackend.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationListTest {
+
+    private static final long TTL_MS = 15 * 60 * 1000;
+
+    @Test
+    void revokeToken_ShouldOnlyAffectThatToken() {
+        TokenRevocationList list = new TokenRevocationList(TTL_MS, 1000);
+
+        list.revokeToken("jti-1", System.currentTimeMillis() + TTL_MS);
+
+        assertTrue(list.isRevoked("jti-1", 1L, 0));
+        assertFalse(list.isRevoked("jti-2", 1L, 0));
+    }
+
+    @Test
+    void revokeUser_ShouldRejectTokensIssuedBefore() {
+        Clock clock = Clock.fixed(Instant.ofEpochSecond(10_000), ZoneOffset.UTC);
+        TokenRevocationList list = new TokenRevocationList(TTL_MS, 1000, clock);
+
+        list.revokeUser(1L);
+
+        assertTrue(list.isRevoked("a", 1L, 9_999));
+        assertFalse(list.isRevoked("b", 1L, 10_000));
+        assertFalse(list.isRevoked("c", 2L, 9_999));
+    }
+
+    @Test
+    void purgeExpired_ShouldDropEntriesOlderThanTokenLifetime() {
+        Clock clock = Clock.fixed(Instant.ofEpochSecond(10_000), ZoneOffset.UTC);
+        TokenRevocationList list = new TokenRevocationList(TTL_MS, 1000, clock);
+        list.revokeToken("expired", clock.millis() - 1);
+        list.revokeToken("live", clock.millis() + 1000);
+        list.revokeUser(1L);
+
+        list.purgeExpired();
+
+        assertEquals(2, list.size());
+        assertTrue(list.isRevoked("live", null, 0));
+        assertFalse(list.isRevoked("expired", null, 0));
+        assertTrue(list.isRevoked(null, 1L, 9_000));
+    }
+}
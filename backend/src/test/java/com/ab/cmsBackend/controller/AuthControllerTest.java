@@ -1,8 +1,14 @@
 package com.ab.cmsBackend.controller;
 
+import com.ab.cmsBackend.config.AuthRateLimiter;
 import com.ab.cmsBackend.dto.LoginDto;
+import com.ab.cmsBackend.dto.RefreshTokenDto;
 import com.ab.cmsBackend.dto.RegisterDto;
+import com.ab.cmsBackend.dto.TokenResponseDto;
 import com.ab.cmsBackend.exception.GlobalExceptionHandler;
+import com.ab.cmsBackend.exception.InvalidRefreshTokenException;
+import com.ab.cmsBackend.exception.ServiceBusyException;
+import com.ab.cmsBackend.exception.TooManyRequestsException;
 import com.ab.cmsBackend.service.AuthService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +22,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,6 +36,9 @@ class AuthControllerTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private AuthRateLimiter authRateLimiter;
+
     @InjectMocks
     private AuthController authController;
 
@@ -71,15 +82,17 @@ class AuthControllerTest {
     @Test
     void login_ShouldReturnToken() throws Exception {
         // Arrange
-        String expectedToken = "jwt-token-12345";
-        when(authService.login(any(LoginDto.class))).thenReturn(expectedToken);
+        TokenResponseDto expectedTokens = new TokenResponseDto("jwt-token-12345", "refresh-token-12345", 900);
+        when(authService.login(any(LoginDto.class))).thenReturn(expectedTokens);
 
         // Act & Assert
         mockMvc.perform(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginDto)))
                 .andExpect(status().isOk())
-                .andExpect(content().string(expectedToken));
+                .andExpect(jsonPath("$.accessToken").value("jwt-token-12345"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh-token-12345"))
+                .andExpect(jsonPath("$.expiresIn").value(900));
 
         verify(authService, times(1)).login(any(LoginDto.class));
     }
@@ -131,4 +144,90 @@ class AuthControllerTest {
 
         verify(authService, times(1)).register(any(RegisterDto.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void login_ShouldReturn503_WhenPasswordPoolIsFull() throws Exception {
+        // Arrange
+        when(authService.login(any(LoginDto.class)))
+                .thenThrow(new ServiceBusyException("Too many password operations in progress, please retry", 1));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDto)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void refresh_ShouldReturnNewTokens() throws Exception {
+        // Arrange
+        RefreshTokenDto refreshTokenDto = new RefreshTokenDto();
+        refreshTokenDto.setRefreshToken("refresh-token-12345");
+        when(authService.refresh("refresh-token-12345"))
+                .thenReturn(new TokenResponseDto("new-access", "new-refresh", 900));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshTokenDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").value("new-access"))
+                .andExpect(jsonPath("$.refreshToken").value("new-refresh"));
+    }
+
+    @Test
+    void refresh_ShouldAnswer401_WhenTheTokenIsInvalid() throws Exception {
+        RefreshTokenDto refreshTokenDto = new RefreshTokenDto();
+        refreshTokenDto.setRefreshToken("used-refresh-token");
+        when(authService.refresh("used-refresh-token")).thenThrow(new InvalidRefreshTokenException("Invalid refresh token"));
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshTokenDto)))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().string("Invalid refresh token"));
+    }
+
+    @Test
+    void refresh_ShouldRejectMissingToken() throws Exception {
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    void logout_ShouldPassRefreshAndAccessToken() throws Exception {
+        // Arrange
+        RefreshTokenDto refreshTokenDto = new RefreshTokenDto();
+        refreshTokenDto.setRefreshToken("refresh-token-12345");
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer access-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshTokenDto)))
+                .andExpect(status().isOk());
+
+        verify(authService).logout("refresh-token-12345", "access-token");
+    }
+
+    @Test
+    void login_ShouldReturn429_WhenRateLimited() throws Exception {
+        // Arrange
+        doThrow(new TooManyRequestsException("Too many requests, please try again later", 12))
+                .when(authRateLimiter).check(eq("login"), anyString(), eq("test@example.com"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDto)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "12"));
+
+        verifyNoInteractions(authService);
+    }
+}
@@ -1,6 +1,10 @@
 package com.ab.cmsBackend.controller;
 
+import com.ab.cmsBackend.dto.BulkContactResultDto;
 import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.dto.ContactPageDto;
+import com.ab.cmsBackend.exception.ContactChangedException;
+import com.ab.cmsBackend.exception.ContactNotFoundException;
 import com.ab.cmsBackend.exception.GlobalExceptionHandler;
 import com.ab.cmsBackend.service.ContactService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -19,7 +23,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -96,24 +103,109 @@ class ContactControllerTest {
     @Test
     void testSearchContacts_Success() throws Exception {
         List<ContactDto> contacts = Arrays.asList(contactDto);
-        when(contactService.searchContacts("John")).thenReturn(contacts);
+        when(contactService.searchContacts("John", 0, 10, null))
+                .thenReturn(new ContactPageDto(contacts, 0, 10, false, null));
 
         mockMvc.perform(get("/api/contacts/search")
                         .param("query", "John"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].firstName").value("John"));
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].firstName").value("John"))
+                .andExpect(jsonPath("$.hasNext").value(false));
     }
 
     @Test
     void testSearchContacts_NoResults() throws Exception {
-        when(contactService.searchContacts("Nonexistent")).thenReturn(Arrays.asList());
+        when(contactService.searchContacts("Nonexistent", 0, 10, null))
+                .thenReturn(new ContactPageDto(List.of(), 0, 10, false, null));
 
         mockMvc.perform(get("/api/contacts/search")
                         .param("query", "Nonexistent"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$").isEmpty());
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(jsonPath("$.content").isEmpty());
+    }
+
+    @Test
+    void testSearchContacts_WithCursor() throws Exception {
+        when(contactService.searchContacts("jo", 0, 2, 41L))
+                .thenReturn(new ContactPageDto(List.of(contactDto), 0, 2, true, "1"));
+
+        mockMvc.perform(get("/api/contacts/search")
+                        .param("query", "jo")
+                        .param("size", "2")
+                        .param("cursor", "41"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("1"));
+    }
+
+    @Test
+    void testGetContactSlice_ShouldReturnPageWithoutTotal() throws Exception {
+        when(contactService.getContactSlice(1, 5))
+                .thenReturn(new ContactPageDto(List.of(contactDto), 1, 5, false, null));
+
+        mockMvc.perform(get("/api/contacts/slice")
+                        .param("page", "1")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void testCountContacts() throws Exception {
+        when(contactService.countContacts()).thenReturn(1234L);
+
+        mockMvc.perform(get("/api/contacts/count"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1234"));
+
+        verify(contactService, never()).getContactById(any());
+    }
+
+    @Test
+    void testScrollContacts_ShouldPassCursorThrough() throws Exception {
+        when(contactService.listContacts(20, "abc"))
+                .thenReturn(new ContactPageDto(List.of(contactDto), 0, 20, true, "def"));
+
+        mockMvc.perform(get("/api/contacts/scroll")
+                        .param("size", "20")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].firstName").value("John"))
+                .andExpect(jsonPath("$.nextCursor").value("def"));
+    }
+
+    @Test
+    void testSearchContacts_InvalidPaging_ShouldReturnBadRequest() throws Exception {
+        when(contactService.searchContacts("jo", 0, 0, null))
+                .thenThrow(new IllegalArgumentException("size must be at least 1"));
+
+        mockMvc.perform(get("/api/contacts/search")
+                        .param("query", "jo")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testRankedSearch_Success() throws Exception {
+        when(contactService.rankedSearch("jo", 5)).thenReturn(List.of(contactDto));
+
+        mockMvc.perform(get("/api/contacts/search/ranked")
+                        .param("query", "jo")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].firstName").value("John"));
+    }
+
+    @Test
+    void testRebuildSearchIndex_Success() throws Exception {
+        mockMvc.perform(post("/api/contacts/search/reindex"))
+                .andExpect(status().isOk());
+
+        verify(contactService).rebuildSearchIndex();
     }
 
     @Test
@@ -151,7 +243,7 @@ class ContactControllerTest {
         updatedContact.setFirstName("John Updated");
         updatedContact.setLastName("Doe Updated");
 
-        when(contactService.updateContact(eq(contactId), any(ContactDto.class))).thenReturn(updatedContact);
+        when(contactService.updateContact(eq(contactId), any(ContactDto.class), isNull())).thenReturn(updatedContact);
 
         mockMvc.perform(put("/api/contacts/{id}", contactId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -164,12 +256,61 @@ class ContactControllerTest {
     @Test
     void testDeleteContact_Success() throws Exception {
         Long contactId = 1L;
-        doNothing().when(contactService).deleteContact(contactId);
+        doNothing().when(contactService).deleteContact(contactId, null);
 
         mockMvc.perform(delete("/api/contacts/{id}", contactId))
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testUpdateContact_WithIfMatch_PassesVersionAndReturnsNextEtag() throws Exception {
+        when(contactService.updateContact(eq(1L), any(ContactDto.class), eq(Set.of(3L)))).thenReturn(contactDto);
+
+        mockMvc.perform(put("/api/contacts/{id}", 1L)
+                        .header("If-Match", "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(contactDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""));
+    }
+
+    @Test
+    void testUpdateContact_PreconditionFailed_WhenContactChanged() throws Exception {
+        when(contactService.updateContact(eq(1L), any(ContactDto.class), eq(Set.of(3L))))
+                .thenThrow(new ContactChangedException(1L));
+
+        mockMvc.perform(put("/api/contacts/{id}", 1L)
+                        .header("If-Match", "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(contactDto)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(content().string("Contact was changed by someone else: 1"));
+    }
+
+    @Test
+    void testDeleteContact_WithIfMatch_PassesVersion() throws Exception {
+        mockMvc.perform(delete("/api/contacts/{id}", 1L).header("If-Match", "\"1-3\""))
+                .andExpect(status().isOk());
+
+        verify(contactService).deleteContact(1L, Set.of(3L));
+    }
+
+    @Test
+    void testPatchContact_AppliesMergePatchAndReturnsEtag() throws Exception {
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("title", "CTO");
+        patch.put("emailWork", null);
+        when(contactService.patchContact(1L, patch, null))
+                .thenReturn(new ContactService.TaggedContact(contactDto, "1-5"));
+
+        mockMvc.perform(patch("/api/contacts/{id}", 1L)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"title\":\"CTO\",\"emailWork\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-5\""))
+                .andExpect(jsonPath("$.firstName").value("John"));
+    }
+
     @Test
     void testGetContactById_Success() throws Exception {
         Long contactId = 1L;
@@ -181,6 +322,50 @@ class ContactControllerTest {
                 .andExpect(jsonPath("$.firstName").value("John"));
     }
 
+    @Test
+    void testGetContactById_NotModified_WhenEtagMatches() throws Exception {
+        when(contactService.getContactEtag(1L)).thenReturn("1-3");
+
+        mockMvc.perform(get("/api/contacts/{id}", 1L).header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(content().string(""));
+
+        verify(contactService, never()).getContactById(any());
+    }
+
+    @Test
+    void testGetContactById_SendsEtag_WhenClientCopyIsStale() throws Exception {
+        when(contactService.getContactEtag(1L)).thenReturn("1-3");
+        when(contactService.getContactById(1L)).thenReturn(contactDto);
+
+        mockMvc.perform(get("/api/contacts/{id}", 1L).header("If-None-Match", "\"1-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", "\"1-3\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(jsonPath("$.firstName").value("John"));
+    }
+
+    @Test
+    void testGetAllContacts_NotModified_WhenListUnchanged() throws Exception {
+        when(contactService.getContactsEtag()).thenReturn("7-12");
+
+        mockMvc.perform(get("/api/contacts").header("If-None-Match", "\"7-12\""))
+                .andExpect(status().isNotModified());
+
+        verify(contactService, never()).getAllContacts(anyInt(), anyInt());
+    }
+
+    @Test
+    void testGetContactSlice_NotModified_WhenListUnchanged() throws Exception {
+        when(contactService.getContactsEtag()).thenReturn("7-12");
+
+        mockMvc.perform(get("/api/contacts/slice").header("If-None-Match", "\"7-12\""))
+                .andExpect(status().isNotModified());
+
+        verify(contactService, never()).getContactSlice(anyInt(), anyInt());
+    }
+
     @Test
     void testCreateContact_MinimalFields() throws Exception {
         String minimalJson = """
@@ -248,7 +433,7 @@ class ContactControllerTest {
     @Test
     void testUpdateContact_NotFound() throws Exception {
         Long contactId = 999L;
-        when(contactService.updateContact(eq(contactId), any(ContactDto.class)))
+        when(contactService.updateContact(eq(contactId), any(ContactDto.class), isNull()))
                 .thenThrow(new RuntimeException("Contact not found"));
 
         mockMvc.perform(put("/api/contacts/{id}", contactId)
@@ -262,7 +447,7 @@ class ContactControllerTest {
     void testDeleteContact_NotFound() throws Exception {
         Long contactId = 999L;
         doThrow(new RuntimeException("Contact not found"))
-                .when(contactService).deleteContact(contactId);
+                .when(contactService).deleteContact(contactId, null);
 
         mockMvc.perform(delete("/api/contacts/{id}", contactId))
                 .andExpect(status().isInternalServerError())
@@ -291,36 +476,90 @@ class ContactControllerTest {
     @Test
     void testUpdateContact_Unauthorized() throws Exception {
         Long contactId = 1L;
-        when(contactService.updateContact(eq(contactId), any(ContactDto.class)))
-                .thenThrow(new RuntimeException("You do not have permission to update this contact"));
+        when(contactService.updateContact(eq(contactId), any(ContactDto.class), isNull()))
+                .thenThrow(new ContactNotFoundException(contactId));
 
         mockMvc.perform(put("/api/contacts/{id}", contactId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(contactDto)))
-                .andExpect(status().isInternalServerError())
-                .andExpect(content().string("An error occurred: You do not have permission to update this contact"));
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Contact not found: 1"));
     }
 
     @Test
     void testDeleteContact_Unauthorized() throws Exception {
         Long contactId = 1L;
-        doThrow(new RuntimeException("Unauthorized delete attempt"))
-                .when(contactService).deleteContact(contactId);
+        doThrow(new ContactNotFoundException(contactId))
+                .when(contactService).deleteContact(contactId, null);
 
         mockMvc.perform(delete("/api/contacts/{id}", contactId))
-                .andExpect(status().isInternalServerError())
-                .andExpect(content().string("An error occurred: Unauthorized delete attempt"));
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Contact not found: 1"));
     }
 
     @Test
     void testGetContactById_AccessDenied() throws Exception {
         Long contactId = 1L;
         when(contactService.getContactById(contactId))
-                .thenThrow(new RuntimeException("Access denied"));
+                .thenThrow(new ContactNotFoundException(contactId));
 
         mockMvc.perform(get("/api/contacts/{id}", contactId)
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isInternalServerError())
-                .andExpect(content().string("An error occurred: Access denied"));
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Contact not found: 1"));
+    }
+
+    @Test
+    void testCreateContacts_ShouldReturnOneResultPerItem() throws Exception {
+        when(contactService.createContacts(anyList())).thenReturn(List.of(
+                new BulkContactResultDto(0, BulkContactResultDto.Status.CREATED, 5L, null),
+                new BulkContactResultDto(1, BulkContactResultDto.Status.INVALID, null, List.of("Last name is required"))));
+
+        // No @Valid on the list: an invalid item must not fail the whole request
+        mockMvc.perform(post("/api/contacts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"firstName\":\"Jane\",\"lastName\":\"Smith\"},{\"firstName\":\"Jo\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].id").value(5))
+                .andExpect(jsonPath("$[1].status").value("INVALID"))
+                .andExpect(jsonPath("$[1].errors[0]").value("Last name is required"));
+
+        verify(contactService).createContacts(argThat(contacts -> contacts.size() == 2));
+    }
+
+    @Test
+    void testUpdateContacts_ShouldReturnResults() throws Exception {
+        when(contactService.updateContacts(anyList())).thenReturn(List.of(
+                new BulkContactResultDto(0, BulkContactResultDto.Status.NOT_FOUND, 1L, null)));
+
+        mockMvc.perform(put("/api/contacts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(contactDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("NOT_FOUND"));
+    }
+
+    @Test
+    void testDeleteContacts_ShouldPassIds() throws Exception {
+        when(contactService.deleteContacts(List.of(1L, 2L))).thenReturn(List.of(
+                new BulkContactResultDto(0, BulkContactResultDto.Status.DELETED, 1L, null),
+                new BulkContactResultDto(1, BulkContactResultDto.Status.DELETED, 2L, null)));
+
+        mockMvc.perform(post("/api/contacts/bulk/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].id").value(2));
+    }
+
+    @Test
+    void testCreateContacts_TooMany_ShouldReturnBadRequest() throws Exception {
+        when(contactService.createContacts(anyList())).thenThrow(new IllegalArgumentException("At most 1000 contacts per request"));
+
+        mockMvc.perform(post("/api/contacts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+}
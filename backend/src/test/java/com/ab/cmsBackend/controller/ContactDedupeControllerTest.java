@@ -0,0 +1,92 @@
+package com.ab.cmsBackend.controller;
+
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.dto.DuplicateClusterDto;
+import com.ab.cmsBackend.exception.ContactNotFoundException;
+import com.ab.cmsBackend.exception.GlobalExceptionHandler;
+import com.ab.cmsBackend.service.ContactDedupeService;
+import com.ab.cmsBackend.service.ContactService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactDedupeControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ContactDedupeService contactDedupeService;
+
+    @Mock
+    private ContactService contactService;
+
+    @InjectMocks
+    private ContactDedupeController contactDedupeController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(contactDedupeController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void findDuplicates_ShouldReturnClusters() throws Exception {
+        ContactDto john = new ContactDto(1L, "John", "Doe", null, null, null, null, null, null);
+        ContactDto jon = new ContactDto(2L, "Jon", "Doe", null, null, null, null, null, null);
+        when(contactDedupeService.findDuplicates(0.8, 5)).thenReturn(List.of(new DuplicateClusterDto(0.83, List.of(john, jon))));
+
+        mockMvc.perform(get("/api/contacts/duplicates").param("minScore", "0.8").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].score").value(0.83))
+                .andExpect(jsonPath("$[0].contacts[1].firstName").value("Jon"));
+    }
+
+    @Test
+    void mergeContacts_ShouldReturnMergedContact() throws Exception {
+        when(contactService.mergeContacts(1L, List.of(2L, 3L)))
+                .thenReturn(new ContactDto(1L, "John", "Doe", "Manager", null, null, null, null, null));
+
+        mockMvc.perform(post("/api/contacts/merge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"targetId\":1,\"sourceIds\":[2,3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Manager"));
+    }
+
+    @Test
+    void mergeContacts_ShouldRequireSources() throws Exception {
+        mockMvc.perform(post("/api/contacts/merge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"targetId\":1,\"sourceIds\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.sourceIds").value("Source ids are required"));
+
+        verifyNoInteractions(contactService);
+    }
+
+    @Test
+    void mergeContacts_ShouldReturn404_ForAnotherUsersContact() throws Exception {
+        when(contactService.mergeContacts(1L, List.of(9L))).thenThrow(new ContactNotFoundException(9L));
+
+        mockMvc.perform(post("/api/contacts/merge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"targetId\":1,\"sourceIds\":[9]}"))
+                .andExpect(status().isNotFound());
+    }
+}
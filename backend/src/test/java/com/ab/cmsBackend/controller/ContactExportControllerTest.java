@@ -0,0 +1,77 @@
+package com.ab.cmsBackend.controller;
+
+import com.ab.cmsBackend.exception.GlobalExceptionHandler;
+import com.ab.cmsBackend.service.ContactExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactExportControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ContactExportService contactExportService;
+
+    @InjectMocks
+    private ContactExportController contactExportController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(contactExportController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void exportContacts_ShouldStreamCsvAttachmentByDefault() throws Exception {
+        when(contactExportService.export(ContactExportService.Format.CSV))
+                .thenReturn(out -> out.write("id,firstName\r\n".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mockMvc.perform(get("/api/contacts/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"contacts.csv\""))
+                .andExpect(content().string("id,firstName\r\n"));
+    }
+
+    @Test
+    void exportContacts_ShouldAcceptNdjson() throws Exception {
+        when(contactExportService.export(ContactExportService.Format.NDJSON)).thenReturn(out -> out.write('{'));
+
+        MvcResult result = mockMvc.perform(get("/api/contacts/export").param("format", "NDJSON"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(header().string("Content-Type", "application/x-ndjson"));
+    }
+
+    @Test
+    void exportContacts_ShouldRejectUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/contacts/export").param("format", "xlsx"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unsupported export format: xlsx"));
+
+        verifyNoInteractions(contactExportService);
+    }
+}
@@ -0,0 +1,85 @@
+package com.ab.cmsBackend.controller;
+
+import com.ab.cmsBackend.dto.ImportJobDto;
+import com.ab.cmsBackend.exception.GlobalExceptionHandler;
+import com.ab.cmsBackend.exception.ImportJobNotFoundException;
+import com.ab.cmsBackend.exception.ServiceBusyException;
+import com.ab.cmsBackend.service.ContactImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactImportControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ContactImportService contactImportService;
+
+    @InjectMocks
+    private ContactImportController contactImportController;
+
+    private final MockMultipartFile file = new MockMultipartFile("file", "contacts.csv", "text/csv",
+            "firstName,lastName\nJohn,Doe\n".getBytes());
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(contactImportController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void startImport_ShouldAcceptAndPointAtProgress() throws Exception {
+        when(contactImportService.startImport(any())).thenReturn(
+                new ImportJobDto("job-1", ImportJobDto.Status.QUEUED, 0, 0, 0, List.of(), null));
+
+        mockMvc.perform(multipart("/api/contacts/import").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/contacts/import/job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void startImport_ShouldReturn503_WhenBusy() throws Exception {
+        when(contactImportService.startImport(any())).thenThrow(new ServiceBusyException("Too many imports in progress", 30));
+
+        mockMvc.perform(multipart("/api/contacts/import").file(file))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "30"));
+    }
+
+    @Test
+    void getImport_ShouldReturnProgress() throws Exception {
+        when(contactImportService.getJob("job-1")).thenReturn(
+                new ImportJobDto("job-1", ImportJobDto.Status.RUNNING, 1500, 1498, 2, List.of(), null));
+
+        mockMvc.perform(get("/api/contacts/import/{id}", "job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1498))
+                .andExpect(jsonPath("$.rejected").value(2));
+    }
+
+    @Test
+    void getImport_ShouldReturn404_ForUnknownJob() throws Exception {
+        when(contactImportService.getJob("nope")).thenThrow(new ImportJobNotFoundException("nope"));
+
+        mockMvc.perform(get("/api/contacts/import/{id}", "nope"))
+                .andExpect(status().isNotFound());
+    }
+}
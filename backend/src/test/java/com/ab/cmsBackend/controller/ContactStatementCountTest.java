@@ -0,0 +1,332 @@
+package com.ab.cmsBackend.controller;
+
+import com.ab.cmsBackend.config.AuthenticatedUser;
+import com.ab.cmsBackend.entity.Contact;
+import com.ab.cmsBackend.entity.ContactCount;
+import com.ab.cmsBackend.entity.User;
+import com.ab.cmsBackend.repository.ContactChangeRepository;
+import com.ab.cmsBackend.repository.ContactCountRepository;
+import com.ab.cmsBackend.repository.ContactRepository;
+import com.ab.cmsBackend.repository.UserRepository;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each contact endpoint issues, so an accidental lazy load,
+ * N+1 or extra lookup shows up as a failing test rather than as a slow page.
+ * Runs against the full context with Hibernate statistics on; the in-memory search index is off so
+ * search goes to SQL.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-count;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.search-index.enabled=false",
+        "app.lucene.enabled=false"
+})
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class ContactStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ContactCountRepository contactCountRepository;
+
+    @Autowired
+    private ContactChangeRepository contactChangeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+    private Contact contact;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        user = new User();
+        user.setEmail("statements@example.com");
+        user.setPassword("password123");
+        user = userRepository.save(user);
+        for (String firstName : List.of("John", "Jane", "Joe")) {
+            Contact saved = new Contact();
+            saved.setFirstName(firstName);
+            saved.setLastName("Doe");
+            saved.setUser(user);
+            saved = contactRepository.save(saved);
+            if (contact == null) {
+                contact = saved;
+            }
+        }
+
+        // The user's counter row, as after their first write, so writes take their usual path
+        contactCountRepository.save(new ContactCount(user.getId(), 3));
+
+        // The id-carrying principal JwtFilter installs, so no user lookup is needed
+        SecurityContextHolder.setContext(new SecurityContextImpl(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(user.getId(), user.getEmail()), null, List.of())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        contactCountRepository.deleteAll();
+        contactChangeRepository.deleteAll();
+        contactRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void pagedList_ShouldSelectListVersionPageAndCount() throws Exception {
+        // A full first page, so Spring Data cannot skip the count
+        assertStatements(3, get("/api/contacts").param("page", "0").param("size", "2"));
+    }
+
+    @Test
+    void pagedList_ShouldOnlyReadListVersion_WhenNotModified() throws Exception {
+        mockMvc.perform(get("/api/contacts")).andExpect(status().isOk());
+        String etag = etagOf(get("/api/contacts"));
+
+        assertNotModified(1, get("/api/contacts").header("If-None-Match", etag));
+    }
+
+    @Test
+    void pagedList_ShouldChangeEtag_AfterAnUpdate() throws Exception {
+        mockMvc.perform(get("/api/contacts")).andExpect(status().isOk());
+        String etag = etagOf(get("/api/contacts"));
+
+        mockMvc.perform(put("/api/contacts/{id}", contact.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Johnny\",\"lastName\":\"Doe\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/contacts").header("If-None-Match", etag)).andExpect(status().isOk());
+    }
+
+    @Test
+    void sliceList_ShouldSelectListVersionAndSlice() throws Exception {
+        mockMvc.perform(get("/api/contacts/slice")).andExpect(status().isOk());
+
+        assertStatements(2, get("/api/contacts/slice").param("page", "0").param("size", "2"));
+    }
+
+    @Test
+    void scrollList_ShouldSelectOnce() throws Exception {
+        assertStatements(1, get("/api/contacts/scroll").param("size", "2"));
+    }
+
+    @Test
+    void search_ShouldSelectOnce() throws Exception {
+        assertStatements(1, get("/api/contacts/search").param("query", "Jo"));
+    }
+
+    @Test
+    void getById_ShouldSelectVersionAndContact() throws Exception {
+        assertStatements(2, get("/api/contacts/{id}", contact.getId()));
+    }
+
+    @Test
+    void getById_ShouldOnlySelectVersion_WhenNotModified() throws Exception {
+        String etag = etagOf(get("/api/contacts/{id}", contact.getId()));
+
+        assertNotModified(1, get("/api/contacts/{id}", contact.getId()).header("If-None-Match", etag));
+    }
+
+    @Test
+    void count_ShouldSelectOnce_OnceInitialized() throws Exception {
+        mockMvc.perform(get("/api/contacts/count")).andExpect(status().isOk());
+
+        assertStatements(1, get("/api/contacts/count"));
+    }
+
+    @Test
+    void update_ShouldUpdateBumpListVersionAndLogTheChange() throws Exception {
+        // UPDATE, the list version bump and its read-back, and the change log INSERT
+        assertWriteStatements(4, put("/api/contacts/{id}", contact.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Johnny\",\"lastName\":\"Doe\"}"));
+    }
+
+    @Test
+    void conditionalUpdate_ShouldRejectStaleVersion_WithOneExtraLookup() throws Exception {
+        statistics.clear();
+        mockMvc.perform(put("/api/contacts/{id}", contact.getId())
+                        .header("If-Match", "\"" + contact.getId() + "-7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Johnny\",\"lastName\":\"Doe\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals(2, statistics.getPrepareStatementCount(), String.join(" | ", statistics.getQueries()));
+    }
+
+    @Test
+    void patch_ShouldReadOnceAndWriteOnlyTheChangedColumn() throws Exception {
+        String etag = etagOf(get("/api/contacts/{id}", contact.getId()));
+
+        statistics.clear();
+        mockMvc.perform(patch("/api/contacts/{id}", contact.getId())
+                        .header("If-Match", etag)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"title\":\"Director\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + contact.getId() + "-1\""));
+
+        // SELECT, an UPDATE of the title alone, the list version bump and read-back, and the change log INSERT
+        assertLogged(5);
+        assertEquals("Director", contactRepository.findById(contact.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void delete_ShouldDeleteAdjustCounterAndLogTheChange() throws Exception {
+        assertWriteStatements(4, delete("/api/contacts/{id}", contact.getId()));
+    }
+
+    @Test
+    void getById_ShouldReturnNotFound_ForAnotherUsersContact() throws Exception {
+        User other = new User();
+        other.setEmail("other@example.com");
+        other.setPassword("password123");
+        other = userRepository.save(other);
+        SecurityContextHolder.setContext(new SecurityContextImpl(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(other.getId(), other.getEmail()), null, List.of())));
+
+        mockMvc.perform(get("/api/contacts/{id}", contact.getId())).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/contacts/{id}", contact.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void bulkCreate_ShouldBatchInserts() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 40; i++) {
+            body.append(i > 0 ? "," : "").append("{\"firstName\":\"Bulk").append(i).append("\",\"lastName\":\"Doe\"}");
+        }
+        statistics.clear();
+        mockMvc.perform(post("/api/contacts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.append("]").toString()))
+                .andExpect(status().isOk());
+
+        // One INSERT batch, the counter adjustment and read-back, and one change log INSERT batch, plus a
+        // sequence call for each table whose current block of ids runs out (two for the first block)
+        assertTrue(statistics.getPrepareStatementCount() <= 7, String.join(" | ", statistics.getQueries()));
+        // The contacts and their change log entries
+        assertEquals(80, statistics.getEntityInsertCount());
+        assertEquals(43, contactRepository.count());
+    }
+
+    @Test
+    void bulkUpdate_ShouldSelectOnceAndBatchUpdates() throws Exception {
+        List<Contact> contacts = contactRepository.findAll();
+        StringBuilder body = new StringBuilder("[");
+        for (Contact existing : contacts) {
+            body.append(body.length() > 1 ? "," : "").append("{\"id\":").append(existing.getId())
+                    .append(",\"firstName\":\"Renamed\",\"lastName\":\"Doe\"}");
+        }
+        // The batched UPDATEs count once, like the SELECT before them and the batched change log INSERTs after
+        assertWriteStatements(5, put("/api/contacts/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body.append("]").toString()));
+    }
+
+    @Test
+    void bulkDelete_ShouldSelectDeleteAdjustCounterAndLogTheChanges() throws Exception {
+        String ids = contactRepository.findAll().stream().map(c -> String.valueOf(c.getId())).toList().toString();
+        assertWriteStatements(5, post("/api/contacts/bulk/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ids));
+        assertEquals(0, contactRepository.count());
+    }
+
+    @Test
+    void changes_ShouldReadTheLogAndTheChangedContacts() throws Exception {
+        String cursor = JsonPath.read(mockMvc.perform(get("/api/contacts/changes"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString(), "$.cursor");
+        mockMvc.perform(put("/api/contacts/{id}", contact.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Johnny\",\"lastName\":\"Doe\"}"))
+                .andExpect(status().isOk());
+
+        // The log batch through the (user, list version, contact) index, then the contacts still alive
+        assertStatements(2, get("/api/contacts/changes").param("since", cursor));
+    }
+
+    @Test
+    void export_ShouldReadThroughOneQuery() throws Exception {
+        statistics.clear();
+        MvcResult result = mockMvc.perform(get("/api/contacts/export")).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        assertEquals(4, result.getResponse().getContentAsString().split("\r\n").length);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private String etagOf(RequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+    }
+
+    private void assertNotModified(long expected, RequestBuilder request) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isNotModified());
+        assertEquals(expected, statistics.getPrepareStatementCount(), String.join(" | ", statistics.getQueries()));
+    }
+
+    private void assertWriteStatements(long expected, RequestBuilder request) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        assertLogged(expected);
+    }
+
+    // Change log ids come from a sequence in blocks, so a write may also fetch the next block; the first
+    // block the pooled generator takes costs two calls
+    private void assertLogged(long expected) {
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements >= expected && statements <= expected + 2,
+                "expected " + expected + " but was " + statements + ": " + String.join(" | ", statistics.getQueries()));
+    }
+
+    private void assertStatements(long expected, RequestBuilder request) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        assertEquals(expected, statistics.getPrepareStatementCount(), statistics.getQueries().length + " distinct queries: "
+                + String.join(" | ", statistics.getQueries()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.ab.cmsBackend.controller;
+
+import com.ab.cmsBackend.dto.ContactChangeDto;
+import com.ab.cmsBackend.dto.ContactChangesDto;
+import com.ab.cmsBackend.exception.ChangeCursorExpiredException;
+import com.ab.cmsBackend.exception.GlobalExceptionHandler;
+import com.ab.cmsBackend.service.ContactEventStream;
+import com.ab.cmsBackend.service.ContactSyncService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactSyncControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ContactSyncService contactSyncService;
+
+    @Mock
+    private ContactEventStream contactEventStream;
+
+    @InjectMocks
+    private ContactSyncController contactSyncController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(contactSyncController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getChanges_ShouldReturnTheBatch() throws Exception {
+        when(contactSyncService.getChanges("abc", 50)).thenReturn(new ContactChangesDto(
+                List.of(new ContactChangeDto(4L, ContactChangeDto.Type.DELETE, null)), "def", true));
+
+        mockMvc.perform(get("/api/contacts/changes").param("since", "abc").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].contactId").value(4))
+                .andExpect(jsonPath("$.changes[0].type").value("DELETE"))
+                .andExpect(jsonPath("$.cursor").value("def"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void getChanges_ShouldReturnGone_WhenTheCursorExpired() throws Exception {
+        when(contactSyncService.getChanges("abc", 100)).thenThrow(new ChangeCursorExpiredException());
+
+        mockMvc.perform(get("/api/contacts/changes").param("since", "abc"))
+                .andExpect(status().isGone());
+    }
+}
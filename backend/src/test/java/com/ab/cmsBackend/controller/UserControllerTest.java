@@ -1,7 +1,9 @@
 package com.ab.cmsBackend.controller;
 
+import com.ab.cmsBackend.config.AuthRateLimiter;
 import com.ab.cmsBackend.dto.RegisterDto;
 import com.ab.cmsBackend.exception.GlobalExceptionHandler;
+import com.ab.cmsBackend.service.PasswordResetDispatcher;
 import com.ab.cmsBackend.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,9 +16,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -28,6 +32,12 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private AuthRateLimiter authRateLimiter;
+
+    @Mock
+    private PasswordResetDispatcher passwordResetDispatcher;
+
     @InjectMocks
     private UserController userController;
 
@@ -68,6 +78,24 @@ class UserControllerTest {
         verify(userService, times(1)).getProfile();
     }
 
+    @Test
+    void getProfile_ShouldAnswerNotModified_WhenProfileUnchanged() throws Exception {
+        when(userService.getProfile()).thenReturn(registerDto);
+        String etag = mockMvc.perform(get("/api/user/profile"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/user/profile").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        registerDto.setPhone("0987654321");
+        mockMvc.perform(get("/api/user/profile").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.phone").value("0987654321"));
+    }
+
     @Test
     void getProfile_ShouldHandleServiceException() throws Exception {
         // Arrange
@@ -315,4 +343,19 @@ class UserControllerTest {
 
         verify(userService, times(1)).changePassword(anyString());
     }
-}
\ No newline at end of file
+
+    // Test: POST /api/user/forgot-password answers the same whether or not the account exists
+    @Test
+    void forgotPassword_ShouldRespondBeforeLookingUpTheAccount() throws Exception {
+        mockMvc.perform(post("/api/user/forgot-password")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"nobody@example.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message")
+                        .value("If an account exists with this email, you will receive a password reset link"));
+
+        // Nothing has touched the account yet; the work is queued
+        verifyNoInteractions(userService);
+        verify(passwordResetDispatcher).dispatch("nobody@example.com");
+    }
+}
@@ -0,0 +1,92 @@
+package com.ab.cmsBackend.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void next_ShouldSplitPlainAndQuotedFields() throws IOException {
+        CsvReader reader = reader("a,b,c\n\"x, y\",\"say \"\"hi\"\"\",\n");
+
+        assertEquals(List.of("a", "b", "c"), reader.next());
+        assertEquals(List.of("x, y", "say \"hi\"", ""), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_ShouldKeepLineBreaksInsideQuotes_AndReportStartLine() throws IOException {
+        CsvReader reader = reader("name,note\r\nJohn,\"two\r\nlines\"\r\nJane,one\r\n");
+
+        assertEquals(List.of("name", "note"), reader.next());
+        assertEquals(1, reader.getLine());
+        assertEquals(List.of("John", "two\r\nlines"), reader.next());
+        assertEquals(2, reader.getLine());
+        assertEquals(List.of("Jane", "one"), reader.next());
+        assertEquals(4, reader.getLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_ShouldSkipByteOrderMark_AndReadLastLineWithoutNewline() throws IOException {
+        CsvReader reader = reader("\uFEFFfirstName\nJohn");
+
+        assertEquals(List.of("firstName"), reader.next());
+        assertEquals(List.of("John"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_ShouldReturnSingleEmptyFieldForBlankLine() throws IOException {
+        CsvReader reader = reader("a\n\nb\n");
+
+        assertEquals(List.of("a"), reader.next());
+        assertEquals(List.of(""), reader.next());
+        assertEquals(List.of("b"), reader.next());
+    }
+
+    @Test
+    void next_ShouldFailOnUnterminatedQuote() throws IOException {
+        CsvReader reader = reader("a\n\"never closed\nmore");
+        reader.next();
+
+        IOException e = assertThrows(IOException.class, reader::next);
+        assertEquals("Line 2: unterminated quoted field", e.getMessage());
+    }
+
+    @Test
+    void next_ShouldFailOnFieldLongerThanLimit() {
+        CsvReader reader = new CsvReader(new StringReader("\"" + "x".repeat(100)), 10);
+
+        assertThrows(IOException.class, reader::next);
+    }
+
+    @Test
+    void next_ShouldStreamManyRecords() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            csv.append(i).append(",\"n").append(i).append("\"\n");
+        }
+        CsvReader reader = reader(csv.toString());
+
+        List<String> last = null;
+        List<String> record;
+        int count = 0;
+        while ((record = reader.next()) != null) {
+            last = new ArrayList<>(record);
+            count++;
+        }
+        assertEquals(10_000, count);
+        assertEquals(List.of("9999", "n9999"), last);
+    }
+
+    private static CsvReader reader(String csv) {
+        return new CsvReader(new StringReader(csv), 1_000);
+    }
+}
@@ -0,0 +1,144 @@
+package com.ab.cmsBackend.dedupe;
+
+import com.ab.cmsBackend.dto.ContactDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateFinderTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final DuplicateFinder finder = new DuplicateFinder(pool, 20);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void find_ShouldClusterBySharedEmailPhoneOrSimilarName() {
+        List<ContactDto> contacts = List.of(
+                contact(1L, "John", "Smith", "john@work.com", null),
+                contact(2L, "Johnny", "Smith", "JOHN+crm@work.com", null),
+                contact(3L, "Alice", "Brown", null, "+1 (555) 010-2000"),
+                contact(4L, "A.", "Brown", null, "555.010.2000"),
+                contact(5L, "Catherine", "Lee", null, null),
+                contact(6L, "Catherine", "Lee", null, null),
+                contact(7L, "Bob", "Jones", "bob@example.com", "555-999-1234"));
+
+        List<DuplicateFinder.Cluster> clusters = finder.find(contacts, 0.7);
+
+        assertEquals(Set.of(List.of(1L, 2L), List.of(3L, 4L), List.of(5L, 6L)), clusterIds(clusters));
+        // Exact name only is the weakest evidence and sorts last
+        assertEquals(List.of(5L, 6L), ids(clusters.get(clusters.size() - 1).contacts()));
+    }
+
+    @Test
+    void find_ShouldJoinTransitiveMatches_AndScoreByWeakestLink() {
+        List<ContactDto> contacts = List.of(
+                contact(1L, "Maria", "Garcia", "maria@home.com", null),
+                contact(2L, "Maria", "Garcia", "maria@home.com", "555-010-3000"),
+                contact(3L, "M", "Garcia-Lopez", null, "5550103000"));
+
+        List<DuplicateFinder.Cluster> clusters = finder.find(contacts, 0.7);
+
+        assertEquals(1, clusters.size());
+        assertEquals(List.of(1L, 2L, 3L), ids(clusters.get(0).contacts()));
+        assertEquals(DuplicateFinder.score(contacts.get(1), contacts.get(2)), clusters.get(0).score(), 1e-9);
+    }
+
+    @Test
+    void find_ShouldIgnoreUnrelatedContacts_AndEmptyInput() {
+        List<ContactDto> contacts = List.of(
+                contact(1L, "John", "Smith", "john@work.com", "555-010-0001"),
+                contact(2L, "Jane", "Doe", "jane@work.com", "555-010-0002"));
+
+        assertTrue(finder.find(contacts, 0.7).isEmpty());
+        assertTrue(finder.find(List.of(), 0.7).isEmpty());
+    }
+
+    @Test
+    void score_ShouldWeighEvidence() {
+        ContactDto john = contact(1L, "John", "Smith", "john@work.com", "555-010-0001");
+
+        assertEquals(0.7, DuplicateFinder.score(john, contact(2L, "John", "Smith", null, null)), 1e-9);
+        assertTrue(DuplicateFinder.score(john, contact(2L, "Zed", "Quinn", "john@work.com", null)) > 0.9);
+        assertTrue(DuplicateFinder.score(john, contact(2L, "Jon", "Smith", null, "5550100001")) > 0.9);
+        assertTrue(DuplicateFinder.score(john, contact(2L, "Mary", "Jones", null, null)) < 0.5);
+    }
+
+    @Test
+    void find_ShouldAgreeWithPairwiseComparison_OnRandomData() {
+        Random random = new Random(7);
+        List<ContactDto> contacts = new ArrayList<>();
+        String[] first = {"John", "Jon", "Jane", "Alice", "Alicia", "Bob", "Robert", "Mei"};
+        String[] last = {"Smith", "Smyth", "Doe", "Brown", "Lee", "Li", "Garcia"};
+        for (long id = 1; id <= 300; id++) {
+            contacts.add(contact(id, first[random.nextInt(first.length)], last[random.nextInt(last.length)],
+                    random.nextInt(4) == 0 ? "user" + random.nextInt(40) + "@example.com" : null,
+                    random.nextInt(4) == 0 ? "555-010-" + (1000 + random.nextInt(40)) : null));
+        }
+
+        // A window as large as the input compares every pair inside each block
+        DuplicateFinder exhaustiveBlocks = new DuplicateFinder(pool, contacts.size());
+        Set<List<Long>> expected = pairwiseClusters(contacts, 0.8);
+
+        assertEquals(expected, clusterIds(exhaustiveBlocks.find(contacts, 0.8)));
+    }
+
+    // Reference: every pair compared, clustered transitively
+    private static Set<List<Long>> pairwiseClusters(List<ContactDto> contacts, double minScore) {
+        int[] group = new int[contacts.size()];
+        for (int i = 0; i < group.length; i++) {
+            group[i] = i;
+        }
+        for (int i = 0; i < contacts.size(); i++) {
+            for (int j = i + 1; j < contacts.size(); j++) {
+                if (DuplicateFinder.score(contacts.get(i), contacts.get(j)) >= minScore) {
+                    int from = group[j];
+                    int into = group[i];
+                    for (int k = 0; k < group.length; k++) {
+                        if (group[k] == from) {
+                            group[k] = into;
+                        }
+                    }
+                }
+            }
+        }
+        Set<List<Long>> clusters = new HashSet<>();
+        for (int g = 0; g < group.length; g++) {
+            List<Long> members = new ArrayList<>();
+            for (int k = 0; k < group.length; k++) {
+                if (group[k] == g) {
+                    members.add(contacts.get(k).getId());
+                }
+            }
+            if (members.size() > 1) {
+                clusters.add(members);
+            }
+        }
+        return clusters;
+    }
+
+    private static Set<List<Long>> clusterIds(List<DuplicateFinder.Cluster> clusters) {
+        Set<List<Long>> ids = new HashSet<>();
+        clusters.forEach(cluster -> ids.add(ids(cluster.contacts())));
+        return ids;
+    }
+
+    private static List<Long> ids(List<ContactDto> contacts) {
+        return contacts.stream().map(ContactDto::getId).toList();
+    }
+
+    private static ContactDto contact(Long id, String firstName, String lastName, String email, String phone) {
+        return new ContactDto(id, firstName, lastName, null, email, null, phone, null, null);
+    }
+}
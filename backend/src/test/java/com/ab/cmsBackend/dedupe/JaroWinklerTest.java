@@ -0,0 +1,24 @@
+package com.ab.cmsBackend.dedupe;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JaroWinklerTest {
+
+    @Test
+    void similarity_ShouldMatchReferenceValues() {
+        assertEquals(0.961, JaroWinkler.similarity("martha", "marhta"), 0.001);
+        assertEquals(0.840, JaroWinkler.similarity("dwayne", "duane"), 0.001);
+        assertEquals(0.813, JaroWinkler.similarity("dixon", "dicksonx"), 0.001);
+    }
+
+    @Test
+    void similarity_ShouldHandleEqualEmptyAndUnrelatedStrings() {
+        assertEquals(1.0, JaroWinkler.similarity("john smith", "john smith"));
+        assertEquals(0.0, JaroWinkler.similarity("", "john"));
+        assertEquals(0.0, JaroWinkler.similarity("abc", "xyz"));
+        assertTrue(JaroWinkler.similarity("jon smith", "john smith") > 0.95);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ab.cmsBackend.dedupe;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SoundexTest {
+
+    @Test
+    void encode_ShouldMatchReferenceCodes() {
+        assertEquals("R163", Soundex.encode("Robert"));
+        assertEquals("R163", Soundex.encode("Rupert"));
+        assertEquals("A261", Soundex.encode("Ashcraft"));
+        assertEquals("T522", Soundex.encode("Tymczak"));
+        assertEquals("P236", Soundex.encode("Pfister"));
+        assertEquals("H555", Soundex.encode("Honeyman"));
+        assertEquals("L000", Soundex.encode("Lee"));
+    }
+
+    @Test
+    void encode_ShouldIgnoreCaseAndNonLetters() {
+        assertEquals(Soundex.encode("OBrien"), Soundex.encode("o'brien"));
+        assertEquals("", Soundex.encode("123"));
+        assertEquals("", Soundex.encode(null));
+    }
+}
@@ -0,0 +1,65 @@
+package com.ab.cmsBackend.repository;
+
+import com.ab.cmsBackend.entity.ContactChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ContactChangeRepositoryTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ContactChangeRepository contactChangeRepository;
+
+    @BeforeEach
+    void setUp() {
+        // User 1: version 1 touched contacts 10 and 11, version 2 deleted 10, version 3 touched 12
+        entityManager.persist(new ContactChange(1L, 1, 11L, false, T0));
+        entityManager.persist(new ContactChange(1L, 1, 10L, false, T0));
+        entityManager.persist(new ContactChange(1L, 2, 10L, true, T0.plusSeconds(60)));
+        entityManager.persist(new ContactChange(1L, 3, 12L, false, T0.plusSeconds(120)));
+        entityManager.persist(new ContactChange(2L, 2, 20L, false, T0));
+        entityManager.flush();
+    }
+
+    @Test
+    void findAfter_ShouldWalkOneUsersLogInVersionThenContactOrder() {
+        assertThat(positions(contactChangeRepository.findAfter(1L, 0, 0, Limit.of(10))))
+                .containsExactly("1:10", "1:11", "2:10", "3:12");
+        assertThat(positions(contactChangeRepository.findAfter(1L, 1, 10, Limit.of(2))))
+                .containsExactly("1:11", "2:10");
+        assertThat(positions(contactChangeRepository.findAfter(1L, 2, Long.MAX_VALUE, Limit.of(10))))
+                .containsExactly("3:12");
+        assertThat(contactChangeRepository.findAfter(1L, 3, 12, Limit.of(10))).isEmpty();
+    }
+
+    @Test
+    void pruneQueries_ShouldOnlyRemoveOldEntries() {
+        List<Long> old = contactChangeRepository.findIdsChangedBefore(T0.plusSeconds(30), Limit.of(10));
+
+        assertThat(old).hasSize(3);
+        assertThat(contactChangeRepository.deleteAllByIdIn(old)).isEqualTo(3);
+        assertThat(positions(contactChangeRepository.findAfter(1L, 0, 0, Limit.of(10)))).containsExactly("2:10", "3:12");
+    }
+
+    private static List<String> positions(List<ContactChange> entries) {
+        return entries.stream().map(entry -> entry.getListVersion() + ":" + entry.getContactId()).toList();
+    }
+}
@@ -0,0 +1,114 @@
+package com.ab.cmsBackend.repository;
+
+import com.ab.cmsBackend.entity.Contact;
+import com.ab.cmsBackend.entity.ContactCount;
+import com.ab.cmsBackend.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ContactCountRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ContactCountRepository contactCountRepository;
+
+    private User user;
+    private User otherUser;
+
+    @BeforeEach
+    void setUp() {
+        user = persistUser("count@example.com");
+        otherUser = persistUser("other-count@example.com");
+        for (int i = 0; i < 3; i++) {
+            persistContact(user);
+        }
+        persistContact(otherUser);
+        entityManager.flush();
+    }
+
+    @Test
+    void adjust_ShouldOnlyTouchExistingRow() {
+        entityManager.persist(new ContactCount(user.getId(), 3));
+        entityManager.flush();
+
+        assertThat(contactCountRepository.adjust(user.getId(), 1)).isEqualTo(1);
+        assertThat(contactCountRepository.adjust(otherUser.getId(), 1)).isZero();
+        entityManager.clear();
+
+        assertThat(contactCountRepository.findById(user.getId())).get()
+                .extracting(ContactCount::getContacts, ContactCount::getListVersion).containsExactly(4L, 1L);
+        assertThat(contactCountRepository.findById(otherUser.getId())).isEmpty();
+    }
+
+    @Test
+    void touch_ShouldBumpListVersionOnly() {
+        entityManager.persist(new ContactCount(user.getId(), 3));
+        entityManager.flush();
+
+        assertThat(contactCountRepository.touch(user.getId())).isEqualTo(1);
+        assertThat(contactCountRepository.touch(otherUser.getId())).isZero();
+        entityManager.clear();
+
+        assertThat(contactCountRepository.findById(user.getId())).get()
+                .extracting(ContactCount::getContacts, ContactCount::getListVersion).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void insert_ShouldCreateTheRow_AndFailRatherThanOverwriteIt() {
+        assertThat(contactCountRepository.insert(user.getId(), 3)).isEqualTo(1);
+        entityManager.clear();
+        assertThat(contactCountRepository.findById(user.getId())).get()
+                .extracting(ContactCount::getContacts, ContactCount::getListVersion).containsExactly(3L, 0L);
+
+        assertThatThrownBy(() -> contactCountRepository.insert(user.getId(), 0))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void reconcile_ShouldFixOnlyDriftedCounters() {
+        entityManager.persist(new ContactCount(user.getId(), 10));
+        entityManager.persist(new ContactCount(otherUser.getId(), 1));
+        entityManager.flush();
+
+        int corrected = contactCountRepository.reconcile(Math.min(user.getId(), otherUser.getId()),
+                Math.max(user.getId(), otherUser.getId()));
+        entityManager.clear();
+
+        assertThat(corrected).isEqualTo(1);
+        assertThat(contactCountRepository.findById(user.getId())).get()
+                .extracting(ContactCount::getContacts).isEqualTo(3L);
+        assertThat(contactCountRepository.findUserIdsAfter(0L, Limit.of(10)))
+                .containsExactly(Math.min(user.getId(), otherUser.getId()), Math.max(user.getId(), otherUser.getId()));
+    }
+
+    private User persistUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPhone("1234567890");
+        user.setPassword("password123");
+        return entityManager.persist(user);
+    }
+
+    private void persistContact(User owner) {
+        Contact contact = new Contact();
+        contact.setFirstName("First");
+        contact.setLastName("Last");
+        contact.setUser(owner);
+        entityManager.persist(contact);
+    }
+}
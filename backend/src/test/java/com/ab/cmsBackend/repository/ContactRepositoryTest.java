@@ -1,19 +1,27 @@
 package com.ab.cmsBackend.repository;
 
+import com.ab.cmsBackend.dto.ContactDto;
 import com.ab.cmsBackend.entity.Contact;
 import com.ab.cmsBackend.entity.User;
+import com.ab.cmsBackend.search.ContactSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -239,4 +247,238 @@ class ContactRepositoryTest {
         // Then
         assertThat(count).isEqualTo(4); // 3 for testUser + 1 for anotherUser
     }
+
+    @Test
+    void findByUserId_ShouldReturnContactsForSpecificUser() {
+        // When
+        Page<Contact> result = contactRepository.findByUserId(testUser.getId(), PageRequest.of(0, 10));
+
+        // Then
+        assertThat(result.getContent())
+                .extracting(Contact::getFirstName)
+                .containsExactlyInAnyOrder("John", "Jane", "Bob");
+    }
+
+    @Test
+    void searchByUserIdAndQuery_ShouldMatchSameRowsAsSearchByUser() {
+        // When
+        List<Contact> results = contactRepository.searchByUserIdAndQuery(testUser.getId(), "Jo");
+
+        // Then
+        assertThat(results)
+                .extracting(Contact::getFirstName)
+                .containsExactlyInAnyOrder("John", "Bob");
+        assertThat(contactRepository.searchByUserIdAndQuery(anotherUser.getId(), "Jo")).isEmpty();
+    }
+
+    @Test
+    void searchByUserIdAndQuery_ShouldMatchWildcardCharactersLiterally_LikeTheSearchIndex() {
+        for (String lastName : List.of("a_b", "axb", "50%", "500", "[x]", "x", "back\\slash", "backxslash")) {
+            createContact("wild", lastName, null, testUser);
+        }
+        entityManager.flush();
+        ContactSearchIndex index = new ContactSearchIndex(contactRepository, true, 10);
+
+        for (String query : List.of("a_b", "50%", "[x]", "k\\s", "_", "%")) {
+            List<String> sql = contactRepository.searchByUserIdAndQuery(testUser.getId(), query).stream()
+                    .map(Contact::getLastName).toList();
+            List<String> indexed = index.search(testUser.getId(), query).orElseThrow().stream()
+                    .map(ContactDto::getLastName).toList();
+
+            assertThat(sql).as(query).containsExactlyInAnyOrderElementsOf(indexed);
+        }
+        assertThat(contactRepository.searchByUserIdAndQuery(testUser.getId(), "a_b"))
+                .extracting(Contact::getLastName).containsExactly("a_b");
+        assertThat(contactRepository.searchPageByUserIdAndQuery(testUser.getId(), "50%", 0L, PageRequest.of(0, 10)))
+                .extracting(ContactDto::getLastName).containsExactly("50%");
+    }
+
+    @Test
+    void searchPageByUserIdAndQuery_ShouldReturnBoundedSlicesAfterCursor() {
+        // When
+        Slice<ContactDto> first = contactRepository.searchPageByUserIdAndQuery(
+                testUser.getId(), "Jo", 0L, PageRequest.of(0, 1));
+        Long cursor = first.getContent().get(0).getId();
+        Slice<ContactDto> second = contactRepository.searchPageByUserIdAndQuery(
+                testUser.getId(), "Jo", cursor, PageRequest.of(0, 1));
+
+        // Then
+        assertThat(first.getContent()).hasSize(1);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).hasSize(1);
+        assertThat(second.getContent().get(0).getId()).isGreaterThan(cursor);
+        assertThat(second.hasNext()).isFalse();
+        assertThat(List.of(first.getContent().get(0).getFirstName(), second.getContent().get(0).getFirstName()))
+                .containsExactlyInAnyOrder("John", "Bob");
+    }
+
+    @Test
+    void keysetPages_ShouldWalkAllContactsInNameOrder_WithTiesBrokenById() {
+        // Given: same last name, and an exact duplicate of John Doe
+        Contact adam = createContact("Adam", "Doe", "Intern", testUser);
+        Contact secondJohn = createContact("John", "Doe", "Twin", testUser);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When: walking pages of two, seeking from the last row of each page
+        List<Long> walked = new ArrayList<>();
+        List<ContactDto> page = contactRepository.findFirstPageByUserId(testUser.getId(), Limit.of(2));
+        while (!page.isEmpty()) {
+            page.forEach(c -> walked.add(c.getId()));
+            ContactDto last = page.get(page.size() - 1);
+            page = contactRepository.findPageByUserIdAfter(testUser.getId(),
+                    last.getLastName(), last.getFirstName(), last.getId(), Limit.of(2));
+        }
+
+        // Then
+        assertThat(walked).containsExactly(adam.getId(), contact1.getId(), secondJohn.getId(),
+                contact3.getId(), contact2.getId());
+    }
+
+    @Test
+    void keysetPages_ShouldWalkBackfilledBlankNames() {
+        // Given: rows stored without names, as db/sqlserver/002-contact-blank-names.sql leaves them
+        Contact noNames = createContact("", "", "Legacy", testUser);
+        Contact noLastName = createContact("Zed", "", "Legacy", testUser);
+        Contact noFirstName = createContact("", "Smith", "Legacy", testUser);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When: walking every page of one
+        List<Long> walked = new ArrayList<>();
+        List<ContactDto> page = contactRepository.findFirstPageByUserId(testUser.getId(), Limit.of(1));
+        while (!page.isEmpty()) {
+            ContactDto last = page.get(0);
+            walked.add(last.getId());
+            page = contactRepository.findPageByUserIdAfter(testUser.getId(),
+                    last.getLastName(), last.getFirstName(), last.getId(), Limit.of(1));
+        }
+
+        // Then
+        assertThat(walked).containsExactly(noNames.getId(), noLastName.getId(), contact1.getId(),
+                contact3.getId(), noFirstName.getId(), contact2.getId());
+    }
+
+    @Test
+    void findAllByUserIdOrderByIdAsc_ShouldReturnOnlyThatUsersContactsInIdOrder() {
+        // When
+        List<ContactDto> results = contactRepository.findAllByUserIdOrderByIdAsc(testUser.getId());
+
+        // Then
+        assertThat(results).extracting(ContactDto::getId)
+                .containsExactly(contact1.getId(), contact2.getId(), contact3.getId());
+    }
+
+    @Test
+    void findDtosByUserId_ShouldProjectAllFieldsAndCount() {
+        // When
+        Page<ContactDto> page = contactRepository.findDtosByUserId(testUser.getId(), PageRequest.of(0, 2));
+
+        // Then
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).hasSize(2);
+        ContactDto john = contactRepository.findDtosByUserId(testUser.getId(), PageRequest.of(0, 10)).getContent().stream()
+                .filter(c -> c.getId().equals(contact1.getId()))
+                .findFirst().orElseThrow();
+        assertThat(john.getFirstName()).isEqualTo("John");
+        assertThat(john.getLastName()).isEqualTo("Doe");
+        assertThat(john.getTitle()).isEqualTo("Manager");
+        assertThat(john.getEmailWork()).isEqualTo("john.work@example.com");
+        assertThat(john.getEmailPersonal()).isEqualTo("john.personal@example.com");
+        assertThat(john.getPhoneWork()).isEqualTo("111-222-3333");
+        assertThat(john.getPhoneHome()).isEqualTo("444-555-6666");
+        assertThat(john.getPhonePersonal()).isEqualTo("777-888-9999");
+    }
+
+    @Test
+    void findDtoByIdAndUserId_ShouldOnlyFindOwnContacts() {
+        assertThat(contactRepository.findDtoByIdAndUserId(contact1.getId(), testUser.getId()))
+                .get().extracting(ContactDto::getFirstName).isEqualTo("John");
+        assertThat(contactRepository.findDtoByIdAndUserId(contact1.getId(), anotherUser.getId())).isEmpty();
+    }
+
+    @Test
+    void updateByIdAndUserId_ShouldOnlyUpdateOwnContacts() {
+        ContactDto changes = new ContactDto(null, "Johnny", "Doe", "Director", null, null, null, null, null);
+
+        assertThat(contactRepository.updateByIdAndUserId(contact1.getId(), anotherUser.getId(), changes)).isZero();
+        assertThat(contactRepository.updateByIdAndUserId(contact1.getId(), testUser.getId(), changes)).isEqualTo(1);
+        entityManager.clear();
+
+        Contact updated = contactRepository.findById(contact1.getId()).orElseThrow();
+        assertThat(updated.getFirstName()).isEqualTo("Johnny");
+        assertThat(updated.getTitle()).isEqualTo("Director");
+        assertThat(updated.getEmailWork()).isNull();
+        assertThat(updated.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void updateByIdAndUserIdAndVersionIn_ShouldOnlyUpdateExpectedVersion() {
+        ContactDto changes = new ContactDto(null, "Johnny", "Doe", null, null, null, null, null, null);
+
+        assertThat(contactRepository.updateByIdAndUserIdAndVersionIn(contact1.getId(), testUser.getId(), List.of(1L), changes)).isZero();
+        assertThat(contactRepository.updateByIdAndUserIdAndVersionIn(contact1.getId(), testUser.getId(), List.of(0L), changes)).isEqualTo(1);
+        assertThat(contactRepository.deleteByIdAndUserIdAndVersionIn(contact1.getId(), testUser.getId(), List.of(0L))).isZero();
+        assertThat(contactRepository.deleteByIdAndUserIdAndVersionIn(contact1.getId(), testUser.getId(), List.of(1L))).isEqualTo(1);
+    }
+
+    @Test
+    void patchByIdAndUserIdAndVersion_ShouldSetOnlyGivenColumns_AtTheExpectedVersion() {
+        Map<String, String> changes = new HashMap<>();
+        changes.put("title", "Director");
+        changes.put("emailWork", null);
+
+        assertThat(contactRepository.patchByIdAndUserIdAndVersion(contact1.getId(), anotherUser.getId(), 0, changes)).isZero();
+        assertThat(contactRepository.patchByIdAndUserIdAndVersion(contact1.getId(), testUser.getId(), 1, changes)).isZero();
+        assertThat(contactRepository.patchByIdAndUserIdAndVersion(contact1.getId(), testUser.getId(), 0, changes)).isEqualTo(1);
+        entityManager.clear();
+
+        Contact patched = contactRepository.findById(contact1.getId()).orElseThrow();
+        assertThat(patched.getTitle()).isEqualTo("Director");
+        assertThat(patched.getEmailWork()).isNull();
+        assertThat(patched.getFirstName()).isEqualTo(contact1.getFirstName());
+        assertThat(patched.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void findVersionByIdAndUserId_ShouldFollowUpdates_AndOnlyFindOwnContacts() {
+        assertThat(contactRepository.findVersionByIdAndUserId(contact1.getId(), testUser.getId())).contains(0L);
+        assertThat(contactRepository.findVersionByIdAndUserId(contact1.getId(), anotherUser.getId())).isEmpty();
+
+        Contact managed = contactRepository.findById(contact1.getId()).orElseThrow();
+        managed.setTitle("Changed");
+        entityManager.flush();
+
+        assertThat(contactRepository.findVersionByIdAndUserId(contact1.getId(), testUser.getId())).contains(1L);
+    }
+
+    @Test
+    void deleteByIdAndUserId_ShouldOnlyDeleteOwnContacts() {
+        assertThat(contactRepository.deleteByIdAndUserId(contact1.getId(), anotherUser.getId())).isZero();
+        assertThat(contactRepository.deleteByIdAndUserId(contact1.getId(), testUser.getId())).isEqualTo(1);
+        entityManager.clear();
+
+        assertThat(contactRepository.existsById(contact1.getId())).isFalse();
+        assertThat(contactRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void bulkQueries_ShouldOnlyTouchOwnContacts() {
+        List<Long> ids = List.of(contact1.getId(), contact2.getId(), contact4.getId());
+
+        assertThat(contactRepository.findAllByIdInAndUserId(ids, testUser.getId()))
+                .extracting(Contact::getFirstName).containsExactlyInAnyOrder("John", "Jane");
+        assertThat(contactRepository.findIdsByIdInAndUserId(ids, anotherUser.getId())).containsExactly(contact4.getId());
+
+        assertThat(contactRepository.deleteAllByIdInAndUserId(ids, testUser.getId())).isEqualTo(2);
+        entityManager.clear();
+        assertThat(contactRepository.findAll()).extracting(Contact::getFirstName).containsExactlyInAnyOrder("Bob", "Alice");
+    }
+
+    @Test
+    void streamByUserId_ShouldReadOwnContactsInNameOrder() {
+        try (Stream<ContactDto> contacts = contactRepository.streamByUserId(testUser.getId())) {
+            assertThat(contacts.map(ContactDto::getLastName)).containsExactly("Doe", "Johnson", "Smith");
+        }
+    }
 }
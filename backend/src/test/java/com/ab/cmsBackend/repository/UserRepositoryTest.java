@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 import java.util.Optional;
@@ -231,4 +232,17 @@ class UserRepositoryTest {
         // Then: Should return false
         assertFalse(exists, "User should not exist");
     }
-}
\ No newline at end of file
+
+    @Test
+    void findByIdGreaterThan_ShouldPageEmailsInIdOrder() {
+        // When: Read one row at a time, starting before the first id
+        List<UserRepository.EmailRow> firstPage = userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1));
+        List<UserRepository.EmailRow> secondPage =
+                userRepository.findByIdGreaterThanOrderByIdAsc(firstPage.get(0).getId(), Limit.of(1));
+
+        // Then: Each page continues after the last id seen
+        assertEquals("john@example.com", firstPage.get(0).getEmail());
+        assertEquals("jane@example.com", secondPage.get(0).getEmail());
+        assertTrue(userRepository.findByIdGreaterThanOrderByIdAsc(secondPage.get(0).getId(), Limit.of(1)).isEmpty());
+    }
+}
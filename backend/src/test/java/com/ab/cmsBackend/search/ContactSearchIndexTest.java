@@ -0,0 +1,102 @@
+package com.ab.cmsBackend.search;
+
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.event.ContactChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ab.cmsBackend.search.TrigramIndexTest.contact;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactSearchIndexTest {
+
+    @Test
+    void search_ShouldLoadOnceAndServeLaterSearchesFromMemory() {
+        AtomicInteger loads = new AtomicInteger();
+        ContactSearchIndex index = new ContactSearchIndex(userId -> {
+            loads.incrementAndGet();
+            return List.of(contact(1L, "John", "Doe"), contact(2L, "Jane", "Smith"));
+        }, true, 10);
+
+        assertEquals(1, index.search(1L, "doe").orElseThrow().size());
+        assertEquals(1, index.search(1L, "smi").orElseThrow().size());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onContactChanged_ShouldKeepIndexCurrent() {
+        ContactSearchIndex index = new ContactSearchIndex(userId -> List.of(contact(1L, "John", "Doe")), true, 10);
+        index.search(1L, "doe");
+
+        index.onContactChanged(ContactChangedEvent.created(1L, contact(2L, "Johnny", "Cash")));
+        index.onContactChanged(ContactChangedEvent.updated(1L, contact(1L, "John", "Smith")));
+
+        assertEquals(List.of(1L, 2L), ids(index.search(1L, "john").orElseThrow()));
+        assertTrue(index.search(1L, "doe").orElseThrow().isEmpty());
+
+        index.onContactChanged(ContactChangedEvent.deleted(1L, 2L));
+
+        assertEquals(List.of(1L), ids(index.search(1L, "john").orElseThrow()));
+    }
+
+    @Test
+    void onContactChanged_ShouldReplayChangesMadeWhileLoading() {
+        ContactSearchIndex[] holder = new ContactSearchIndex[1];
+        holder[0] = new ContactSearchIndex(userId -> {
+            // A write commits after the snapshot was read but before the index is ready
+            holder[0].onContactChanged(ContactChangedEvent.deleted(1L, 1L));
+            holder[0].onContactChanged(ContactChangedEvent.created(1L, contact(3L, "Late", "Arrival")));
+            return List.of(contact(1L, "John", "Doe"));
+        }, true, 10);
+
+        List<ContactDto> results = holder[0].search(1L, "").orElseThrow();
+
+        assertEquals(List.of(3L), ids(results));
+    }
+
+    @Test
+    void onContactChanged_ShouldIgnoreUsersWithoutIndex() {
+        ContactSearchIndex index = new ContactSearchIndex(userId -> List.of(), true, 10);
+
+        index.onContactChanged(ContactChangedEvent.created(1L, contact(1L, "John", "Doe")));
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void search_ShouldEvictLeastRecentlyUsedUsers() {
+        AtomicInteger loads = new AtomicInteger();
+        ContactSearchIndex index = new ContactSearchIndex(userId -> {
+            loads.incrementAndGet();
+            return List.of();
+        }, true, 2);
+
+        index.search(1L, "a");
+        index.search(2L, "a");
+        index.search(1L, "a");
+        index.search(3L, "a");
+        index.search(1L, "a");
+        index.search(2L, "a");
+
+        assertEquals(2, index.size());
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void search_ShouldFallBack_WhenDisabledOrLoadFails() {
+        ContactSearchIndex disabled = new ContactSearchIndex(userId -> List.of(), false, 10);
+        ContactSearchIndex failing = new ContactSearchIndex(userId -> {
+            throw new RuntimeException("Database down");
+        }, true, 10);
+
+        assertTrue(disabled.search(1L, "a").isEmpty());
+        assertTrue(failing.search(1L, "a").isEmpty());
+        assertEquals(0, failing.size());
+    }
+
+    private static List<Long> ids(List<ContactDto> contacts) {
+        return contacts.stream().map(ContactDto::getId).toList();
+    }
+}
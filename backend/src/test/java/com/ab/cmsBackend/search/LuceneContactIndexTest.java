@@ -0,0 +1,208 @@
+package com.ab.cmsBackend.search;
+
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.event.ContactChangedEvent;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LuceneContactIndexTest {
+
+    private final Map<Long, List<ContactDto>> database = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private LuceneContactIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        database.put(1L, new ArrayList<>(List.of(
+                contact(1L, "John", "Doe", "Sales Manager", "john.doe@acme.com", "555-123-4567"),
+                contact(2L, "Johanna", "Smith", "Engineer", "jo@example.com", "555-987-6543"),
+                contact(3L, "Bob", "Johnson", "Director", "bob@acme.com", null))));
+        database.put(2L, new ArrayList<>(List.of(
+                contact(10L, "John", "Other", null, null, null))));
+        index = open(new ByteBuffersDirectory());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.destroy();
+    }
+
+    @Test
+    void search_ShouldRankExactNameMatchAbovePrefixAndOtherFields() {
+        // John (exact first name) before Johnson (prefix of last name); Johanna does not match
+        assertEquals(List.of(1L, 3L), ids(index.search(1L, "john", 10).orElseThrow()));
+        // "jo" is an exact email term for Johanna but a prefix of both other contacts' names
+        assertEquals(3, index.search(1L, "jo", 10).orElseThrow().size());
+    }
+
+    @Test
+    void search_ShouldMatchPrefixesAcrossAllFields() {
+        assertEquals(List.of(1L), ids(index.search(1L, "sal", 10).orElseThrow()));
+        assertEquals(List.of(2L), ids(index.search(1L, "engin", 10).orElseThrow()));
+        assertEquals(List.of(3L), ids(index.search(1L, "bob@acme", 10).orElseThrow()));
+        assertEquals(List.of(2L), ids(index.search(1L, "5559876", 10).orElseThrow()));
+        assertEquals(List.of(1L), ids(index.search(1L, "555-123", 10).orElseThrow()));
+    }
+
+    @Test
+    void search_ShouldRequireEveryWord() {
+        assertEquals(List.of(1L), ids(index.search(1L, "john doe", 10).orElseThrow()));
+        assertTrue(index.search(1L, "john nobody", 10).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void search_ShouldOnlySeeOwnPartition() {
+        assertEquals(List.of(10L), ids(index.search(2L, "other", 10).orElseThrow()));
+        assertTrue(index.search(1L, "other", 10).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void search_ShouldBuildPartitionOnce() {
+        index.search(1L, "john", 10);
+        index.search(1L, "doe", 10);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onContactChanged_ShouldBeSearchableWithoutRebuild() throws Exception {
+        index.search(1L, "john", 10);
+
+        index.onContactChanged(ContactChangedEvent.created(1L,
+                contact(4L, "Zelda", "Fitzgerald", null, null, null)));
+        index.onContactChanged(ContactChangedEvent.deleted(1L, 1L));
+
+        assertEquals(List.of(4L), awaitIds(1L, "zel"));
+        assertFalse(awaitIds(1L, "doe").contains(1L));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void rebuild_ShouldReplacePartitionWithDatabaseState() {
+        index.search(1L, "john", 10);
+        database.get(1L).remove(0);
+
+        index.rebuild(1L);
+
+        assertEquals(List.of(2L, 3L), ids(index.search(1L, "jo", 10).orElseThrow()).stream().sorted().toList());
+    }
+
+    @Test
+    void search_ShouldTrustCommittedPartitions_AfterACleanShutdown(@TempDir Path path) throws IOException {
+        LuceneContactIndex first = open(FSDirectory.open(path));
+        first.search(1L, "john", 10);
+        first.destroy();
+
+        LuceneContactIndex second = open(FSDirectory.open(path));
+        try {
+            assertEquals(List.of(1L, 3L), ids(second.search(1L, "john", 10).orElseThrow()));
+            assertEquals(1, loads.get());
+        } finally {
+            second.destroy();
+        }
+    }
+
+    @Test
+    void search_ShouldRebuildPartitions_AfterTheProcessDied(@TempDir Path path, @TempDir Path afterCrash)
+            throws IOException {
+        LuceneContactIndex running = open(FSDirectory.open(path));
+        try {
+            running.search(1L, "john", 10);
+            running.commit();
+            // Deleted after the last commit; the process dies before the next one
+            database.get(1L).remove(0);
+            running.onContactChanged(ContactChangedEvent.deleted(1L, 1L));
+            copyAsLeftOnDisk(path, afterCrash);
+        } finally {
+            running.destroy();
+        }
+
+        LuceneContactIndex restarted = open(FSDirectory.open(afterCrash));
+        try {
+            assertEquals(List.of(3L), ids(restarted.search(1L, "john", 10).orElseThrow()));
+            assertEquals(2, loads.get());
+        } finally {
+            restarted.destroy();
+        }
+    }
+
+    @Test
+    void search_ShouldCapLimit() {
+        List<ContactDto> many = new ArrayList<>();
+        for (long id = 100; id < 300; id++) {
+            many.add(contact(id, "Same", "Name", null, null, null));
+        }
+        database.put(3L, many);
+
+        assertEquals(LuceneContactIndex.MAX_RESULTS, index.search(3L, "same", 1000).orElseThrow().size());
+    }
+
+    @Test
+    void search_ShouldReturnEmpty_WhenDisabled() throws IOException {
+        LuceneContactIndex disabled = new LuceneContactIndex(null, userId -> List.of(), 100);
+
+        assertTrue(disabled.search(1L, "john", 10).isEmpty());
+    }
+
+    // Updates become visible at the next near-real-time refresh
+    private List<Long> awaitIds(Long userId, String query) throws InterruptedException {
+        List<Long> last = List.of();
+        for (int i = 0; i < 50; i++) {
+            last = ids(index.search(userId, query, 10).orElseThrow());
+            if (!last.isEmpty() && !(query.equals("doe") && last.contains(1L))) {
+                return last;
+            }
+            Thread.sleep(20);
+        }
+        return last;
+    }
+
+    private LuceneContactIndex open(Directory directory) throws IOException {
+        return new LuceneContactIndex(directory, userId -> {
+            loads.incrementAndGet();
+            return database.getOrDefault(userId, List.of());
+        }, 100);
+    }
+
+    // The index files of a running writer, without its lock, as a killed process leaves them
+    private static void copyAsLeftOnDisk(Path from, Path to) throws IOException {
+        try (Stream<Path> files = Files.list(from)) {
+            for (Path file : files.filter(file -> !file.getFileName().toString().equals("write.lock")).toList()) {
+                Files.copy(file, to.resolve(file.getFileName()));
+            }
+        }
+    }
+
+    private static List<Long> ids(List<ContactDto> contacts) {
+        return contacts.stream().map(ContactDto::getId).toList();
+    }
+
+    private static ContactDto contact(Long id, String firstName, String lastName, String title,
+                                      String email, String phone) {
+        ContactDto dto = new ContactDto();
+        dto.setId(id);
+        dto.setFirstName(firstName);
+        dto.setLastName(lastName);
+        dto.setTitle(title);
+        dto.setEmailWork(email);
+        dto.setPhoneWork(phone);
+        return dto;
+    }
+}
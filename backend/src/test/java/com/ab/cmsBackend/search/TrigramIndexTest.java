@@ -0,0 +1,158 @@
+package com.ab.cmsBackend.search;
+
+import com.ab.cmsBackend.dto.ContactDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    @Test
+    void search_ShouldMatchSubstringOfFirstOrLastName_IgnoringCase() {
+        TrigramIndex index = new TrigramIndex();
+        index.upsert(contact(1L, "John", "Doe"));
+        index.upsert(contact(2L, "Jane", "Johnson"));
+        index.upsert(contact(3L, "Bob", "Smith"));
+
+        assertEquals(List.of(1L, 2L), ids(index.search("john")));
+        assertEquals(List.of(1L, 2L), ids(index.search("JOH")));
+        assertEquals(List.of(3L), ids(index.search("mit")));
+        assertEquals(List.of(), ids(index.search("xyz")));
+    }
+
+    @Test
+    void search_ShouldHandleShortAndEmptyQueries() {
+        TrigramIndex index = new TrigramIndex();
+        index.upsert(contact(1L, "John", "Doe"));
+        index.upsert(contact(2L, "Al", null));
+
+        assertEquals(List.of(1L), ids(index.search("oe")));
+        assertEquals(List.of(2L), ids(index.search("a")));
+        assertEquals(List.of(1L, 2L), ids(index.search("")));
+        assertEquals(List.of(), ids(index.search(null)));
+    }
+
+    @Test
+    void upsert_ShouldReplacePreviousNames() {
+        TrigramIndex index = new TrigramIndex();
+        index.upsert(contact(1L, "John", "Doe"));
+
+        index.upsert(contact(1L, "Jack", "Black"));
+
+        assertEquals(List.of(), ids(index.search("john")));
+        assertEquals(List.of(1L), ids(index.search("black")));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void remove_ShouldDropContactAndReuseSlot() {
+        TrigramIndex index = new TrigramIndex();
+        index.upsert(contact(1L, "John", "Doe"));
+        index.upsert(contact(2L, "Jane", "Doe"));
+
+        index.remove(1L);
+        index.upsert(contact(3L, "Johnny", "Cash"));
+
+        assertEquals(List.of(3L), ids(index.search("john")));
+        assertEquals(List.of(2L), ids(index.search("doe")));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void search_ShouldReturnCopies() {
+        TrigramIndex index = new TrigramIndex();
+        index.upsert(contact(1L, "John", "Doe"));
+
+        index.search("john").get(0).setFirstName("Changed");
+
+        assertEquals("John", index.search("john").get(0).getFirstName());
+    }
+
+    @Test
+    void boundedSearch_ShouldReturnLowestIdsAfterCursor() {
+        TrigramIndex index = new TrigramIndex();
+        // Inserted out of id order so slot order differs from id order
+        for (long id : new long[]{5, 2, 9, 1, 7, 3}) {
+            index.upsert(contact(id, "John", "Doe"));
+        }
+
+        assertEquals(List.of(1L, 2L), ids(index.search("john", 0, 2)));
+        assertEquals(List.of(3L, 5L, 7L), ids(index.search("john", 2, 3)));
+        assertEquals(List.of(9L), ids(index.search("john", 7, 10)));
+        assertEquals(List.of(), ids(index.search("john", 9, 10)));
+        assertEquals(List.of(), ids(index.search(null, 0, 10)));
+    }
+
+    @Test
+    void search_ShouldAgreeWithLikeSemantics_OnRandomData() {
+        Random random = new Random(42);
+        TrigramIndex index = new TrigramIndex();
+        List<ContactDto> all = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            ContactDto contact = contact(id, randomName(random), random.nextInt(10) == 0 ? null : randomName(random));
+            all.add(contact);
+            index.upsert(contact);
+        }
+        // Churn so removed and reused slots are covered too
+        for (int i = 0; i < 500; i++) {
+            long id = 1 + random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                index.remove(id);
+                all.removeIf(c -> c.getId() == id);
+            } else {
+                ContactDto replacement = contact(id, randomName(random), randomName(random));
+                index.upsert(replacement);
+                all.removeIf(c -> c.getId() == id);
+                all.add(replacement);
+            }
+        }
+
+        for (int i = 0; i < 500; i++) {
+            String query = randomName(random).substring(0, 1 + random.nextInt(4));
+            List<Long> expected = all.stream()
+                    .filter(c -> like(c.getFirstName(), query) || like(c.getLastName(), query))
+                    .map(ContactDto::getId)
+                    .sorted()
+                    .toList();
+
+            assertEquals(expected, ids(index.search(query)), "Query: " + query);
+
+            long afterId = random.nextInt(2_000);
+            int limit = 1 + random.nextInt(50);
+            assertEquals(expected.stream().filter(id -> id > afterId).limit(limit).toList(),
+                    ids(index.search(query, afterId, limit)), "Query: " + query + " after " + afterId);
+        }
+    }
+
+    // firstName LIKE %query% under a case-insensitive collation
+    private static boolean like(String value, String query) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT));
+    }
+
+    private static String randomName(Random random) {
+        String alphabet = "abcdeJKLmno";
+        StringBuilder name = new StringBuilder();
+        int length = 4 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            name.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return name.toString();
+    }
+
+    private static List<Long> ids(List<ContactDto> contacts) {
+        return contacts.stream().map(ContactDto::getId).toList();
+    }
+
+    static ContactDto contact(Long id, String firstName, String lastName) {
+        ContactDto dto = new ContactDto();
+        dto.setId(id);
+        dto.setFirstName(firstName);
+        dto.setLastName(lastName);
+        return dto;
+    }
+}
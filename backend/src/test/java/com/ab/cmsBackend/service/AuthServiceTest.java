@@ -1,22 +1,30 @@
 package com.ab.cmsBackend.service;
 
+import com.ab.cmsBackend.cache.KnownEmailFilter;
+import com.ab.cmsBackend.cache.UserLookupCache;
+import com.ab.cmsBackend.config.JwtTokenProvider;
+import com.ab.cmsBackend.config.TokenRevocationList;
 import com.ab.cmsBackend.dto.LoginDto;
 import com.ab.cmsBackend.dto.RegisterDto;
 import com.ab.cmsBackend.entity.User;
+import com.ab.cmsBackend.repository.RefreshTokenRepository;
 import com.ab.cmsBackend.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 // This annotation tells JUnit to use Mockito for mocking
@@ -30,9 +38,20 @@ class AuthServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;  // Fake password encoder
 
+    @Mock
+    private PasswordRehashService passwordRehashService;  // Fake background rehash
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;  // Fake refresh token store
+
+    // Real token provider so the generated JWT can be checked
+    private final JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(
+            "test-secret-key-that-is-long-enough-for-hmac-sha-signing-in-unit-tests-0123456789", 3600000);
+
     // The service we want to test (it will use our mock objects)
-    @InjectMocks
     private AuthService authService;
+    private SessionService sessionService;
+    private UserLookupCache userLookupCache;
 
     // Test data
     private RegisterDto registerDto;
@@ -42,6 +61,16 @@ class AuthServiceTest {
     // This runs before each test
     @BeforeEach
     void setUp() {
+        // Lookup cache disabled: lookups go straight to the mocked repository
+        userLookupCache = new UserLookupCache(userRepository, false, 100, Duration.ofMinutes(5), Clock.systemUTC());
+        sessionService = new SessionService(jwtTokenProvider, new TokenRevocationList(3600000, 1000),
+                refreshTokenRepository, userLookupCache, 86400000, 10000);
+        // Hash used to equalise timing for unknown emails
+        when(passwordEncoder.encode("dummy-password-for-unknown-users")).thenReturn("dummyHash");
+        // Filter disabled: every email may exist
+        authService = new AuthService(userRepository, passwordEncoder, sessionService, userLookupCache,
+                passwordRehashService, new KnownEmailFilter(userRepository, false, 1000, 0.01));
+
         // Setup test data for registration
         registerDto = new RegisterDto();
         registerDto.setEmail("test@example.com");
@@ -129,7 +158,7 @@ class AuthServiceTest {
         when(passwordEncoder.matches("password123", "encodedPassword123")).thenReturn(true);
 
         // When: Call login method
-        String token = authService.login(loginDto);
+        String token = authService.login(loginDto).getAccessToken();
 
         // Then: Should return a token (JWT string)
         assertNotNull(token, "Token should not be null");
@@ -138,6 +167,8 @@ class AuthServiceTest {
         // Verify the mocks were called
         verify(userRepository).findByEmail("test@example.com");
         verify(passwordEncoder).matches("password123", "encodedPassword123");
+        // The stored hash is checked for a cost upgrade after a successful login
+        verify(passwordRehashService).upgradeIfNeeded(testUser, "password123");
     }
 
     // Test 5: Login fails when user not found
@@ -156,12 +187,37 @@ class AuthServiceTest {
             authService.login(wrongLoginDto);
         });
 
-        assertEquals("User not found", exception.getMessage());
+        // Same message as a wrong password, so the response does not reveal whether the account exists
+        assertEquals("Invalid credentials", exception.getMessage());
 
         // Verify repository was called
         verify(userRepository).findByEmail("nonexistent@example.com");
-        // Password encoder should NOT be called if user not found
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        // A dummy hash is still checked so unknown emails take as long as wrong passwords
+        verify(passwordEncoder).matches("password123", "dummyHash");
+    }
+
+    @Test
+    void login_ShouldSkipDatabase_WhenEmailFilterRulesItOut() {
+        // Given: filter loaded from a table that only knows test@example.com
+        UserRepository.EmailRow row = mock(UserRepository.EmailRow.class);
+        when(row.getId()).thenReturn(1L);
+        when(row.getEmail()).thenReturn("Test@Example.com");
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of(row));
+        KnownEmailFilter knownEmailFilter = new KnownEmailFilter(userRepository, true, 1000, 0.001);
+        knownEmailFilter.load();
+        authService = new AuthService(userRepository, passwordEncoder, sessionService, userLookupCache,
+                passwordRehashService, knownEmailFilter);
+
+        LoginDto unknown = new LoginDto();
+        unknown.setEmail("stuffed@example.com");
+        unknown.setPassword("password123");
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> authService.login(unknown));
+
+        assertEquals("Invalid credentials", exception.getMessage());
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(passwordEncoder).matches("password123", "dummyHash");
     }
 
     // Test 6: Login fails when password is wrong
@@ -184,6 +240,7 @@ class AuthServiceTest {
         });
 
         assertEquals("Invalid credentials", exception.getMessage());
+        verifyNoInteractions(passwordRehashService);
 
         // Verify both mocks were called
         verify(userRepository).findByEmail("test@example.com");
@@ -211,7 +268,7 @@ class AuthServiceTest {
         anotherLoginDto.setPassword("password456");
 
         // When: Call login
-        String token = authService.login(anotherLoginDto);
+        String token = authService.login(anotherLoginDto).getAccessToken();
 
         // Then: Should return token
         assertNotNull(token);
@@ -229,13 +286,13 @@ class AuthServiceTest {
         when(passwordEncoder.matches("password123", "encodedPassword123")).thenReturn(true);
 
         // When
-        String token = authService.login(loginDto);
+        String token = authService.login(loginDto).getAccessToken();
 
         // Then: The token should be a JWT (starts with 3 parts separated by dots)
         assertTrue(token.split("\\.").length == 3, "Token should be a valid JWT with 3 parts");
 
-        // Note: We can't easily check the content without decoding, but we can check it's not empty
-        assertFalse(token.isEmpty());
+        // The subject of the signed token is the user's email
+        assertEquals("test@example.com", jwtTokenProvider.parseClaims(token).getSubject());
     }
 
     // Test 9: Login with empty password
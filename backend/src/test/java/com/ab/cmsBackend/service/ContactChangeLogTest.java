@@ -0,0 +1,65 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.entity.ContactChange;
+import com.ab.cmsBackend.event.ContactChangedEvent;
+import com.ab.cmsBackend.repository.ContactChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactChangeLogTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    @Mock
+    private ContactChangeRepository contactChangeRepository;
+
+    private ContactChangeLog contactChangeLog;
+
+    @BeforeEach
+    void setUp() {
+        contactChangeLog = new ContactChangeLog(contactChangeRepository, Duration.ofDays(30), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void record_ShouldLogEachContactOnce_WithItsFinalState() {
+        ContactDto contact = new ContactDto(5L, "John", "Doe", null, null, null, null, null, null);
+
+        contactChangeLog.record(1L, 9, List.of(
+                ContactChangedEvent.updated(1L, contact),
+                ContactChangedEvent.deleted(1L, 6L),
+                ContactChangedEvent.deleted(1L, 5L)));
+
+        verify(contactChangeRepository).saveAll(List.of(
+                new ContactChange(1L, 9, 5L, true, NOW),
+                new ContactChange(1L, 9, 6L, true, NOW)));
+    }
+
+    @Test
+    void prune_ShouldDeleteInBatches_KeepingAMarginPastTheRetention() {
+        Instant cutoff = NOW.minus(Duration.ofDays(30)).minus(Duration.ofHours(1));
+        when(contactChangeRepository.findIdsChangedBefore(cutoff, Limit.of(1000)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of());
+        when(contactChangeRepository.deleteAllByIdIn(List.of(1L, 2L))).thenReturn(2);
+
+        contactChangeLog.prune();
+
+        verify(contactChangeRepository).deleteAllByIdIn(List.of(1L, 2L));
+        verify(contactChangeRepository, times(2)).findIdsChangedBefore(any(), any());
+    }
+}
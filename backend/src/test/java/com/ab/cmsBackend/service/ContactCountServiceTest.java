@@ -0,0 +1,136 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.entity.ContactCount;
+import com.ab.cmsBackend.repository.ContactCountRepository;
+import com.ab.cmsBackend.repository.ContactRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactCountServiceTest {
+
+    @Mock
+    private ContactCountRepository contactCountRepository;
+
+    @Mock
+    private ContactRepository contactRepository;
+
+    private ContactCountService contactCountService;
+
+    @BeforeEach
+    void setUp() {
+        contactCountService = new ContactCountService(contactCountRepository, contactRepository,
+                TransactionOperations.withoutTransaction());
+    }
+
+    @Test
+    void getCount_ShouldReadStoredCounter_WithoutCounting() {
+        when(contactCountRepository.findById(1L)).thenReturn(Optional.of(new ContactCount(1L, 42)));
+
+        assertEquals(42, contactCountService.getCount(1L));
+        verifyNoInteractions(contactRepository);
+    }
+
+    @Test
+    void getCount_ShouldCountOnceAndStore_WhenNoCounterYet() {
+        when(contactCountRepository.findById(1L)).thenReturn(Optional.empty());
+        when(contactRepository.countByUserId(1L)).thenReturn(7L);
+
+        assertEquals(7, contactCountService.getCount(1L));
+        verify(contactCountRepository).insert(1L, 7);
+    }
+
+    @Test
+    void getCount_ShouldTolerateConcurrentInitialization() {
+        when(contactCountRepository.findById(1L)).thenReturn(Optional.empty());
+        when(contactRepository.countByUserId(1L)).thenReturn(7L);
+        when(contactCountRepository.insert(1L, 7)).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertEquals(7, contactCountService.getCount(1L));
+    }
+
+    @Test
+    void getListVersion_ShouldReadStoredVersion() {
+        when(contactCountRepository.findById(1L)).thenReturn(Optional.of(new ContactCount(1L, 42, 5)));
+
+        assertEquals(Optional.of(5L), contactCountService.getListVersion(1L));
+        verifyNoInteractions(contactRepository);
+    }
+
+    @Test
+    void getListVersion_ShouldCreateRowButReturnEmpty_WhenNoCounterYet() {
+        when(contactCountRepository.findById(1L)).thenReturn(Optional.empty());
+        when(contactRepository.countByUserId(1L)).thenReturn(7L);
+
+        assertEquals(Optional.empty(), contactCountService.getListVersion(1L));
+        verify(contactCountRepository).insert(1L, 7);
+    }
+
+    @Test
+    void adjust_ShouldReturnTheNewListVersion() {
+        when(contactCountRepository.adjust(1L, -2)).thenReturn(1);
+        when(contactCountRepository.findListVersion(1L)).thenReturn(6L);
+
+        assertEquals(6, contactCountService.adjust(1L, -2));
+        verifyNoInteractions(contactRepository);
+    }
+
+    @Test
+    void touch_ShouldCreateTheRow_OnTheUsersFirstWrite() {
+        when(contactCountRepository.touch(1L)).thenReturn(0).thenReturn(1);
+        when(contactRepository.countByUserId(1L)).thenReturn(4L);
+        when(contactCountRepository.findListVersion(1L)).thenReturn(1L);
+
+        assertEquals(1, contactCountService.touch(1L));
+        verify(contactCountRepository).insert(1L, 4);
+        verify(contactCountRepository, times(2)).touch(1L);
+    }
+
+    @Test
+    void adjust_ShouldStartTheRowFromCommittedContacts_AndApplyTheDeltaOnTop() {
+        when(contactCountRepository.adjust(1L, 2)).thenReturn(0).thenReturn(1);
+        // Includes the two contacts this transaction just inserted
+        when(contactRepository.countByUserId(1L)).thenReturn(6L);
+        when(contactCountRepository.findListVersion(1L)).thenReturn(1L);
+
+        assertEquals(1, contactCountService.adjust(1L, 2));
+        verify(contactCountRepository).insert(1L, 4);
+        verify(contactCountRepository, times(2)).adjust(1L, 2);
+    }
+
+    @Test
+    void adjust_ShouldUseTheRowAConcurrentRequestCreated_WhenItsOwnInsertLoses() {
+        when(contactCountRepository.adjust(1L, 1)).thenReturn(0).thenReturn(1);
+        when(contactRepository.countByUserId(1L)).thenReturn(5L);
+        when(contactCountRepository.insert(1L, 4)).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(contactCountRepository.findListVersion(1L)).thenReturn(3L);
+
+        assertEquals(3, contactCountService.adjust(1L, 1));
+        verify(contactCountRepository, times(2)).adjust(1L, 1);
+    }
+
+    @Test
+    void reconcile_ShouldWalkUserIdsInBatches() {
+        when(contactCountRepository.findUserIdsAfter(0L, Limit.of(1000))).thenReturn(List.of(3L, 8L, 20L));
+        when(contactCountRepository.findUserIdsAfter(20L, Limit.of(1000))).thenReturn(List.of());
+        when(contactCountRepository.reconcile(3L, 20L)).thenReturn(1);
+
+        contactCountService.reconcile();
+
+        verify(contactCountRepository).reconcile(3L, 20L);
+        verify(contactCountRepository, times(2)).findUserIdsAfter(anyLong(), any());
+    }
+}
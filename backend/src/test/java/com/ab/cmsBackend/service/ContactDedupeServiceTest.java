@@ -0,0 +1,64 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.dto.DuplicateClusterDto;
+import com.ab.cmsBackend.repository.ContactRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactDedupeServiceTest {
+
+    @Mock
+    private ContactService contactService;
+
+    @Mock
+    private ContactRepository contactRepository;
+
+    private ContactDedupeService dedupeService;
+
+    @BeforeEach
+    void setUp() {
+        dedupeService = new ContactDedupeService(contactService, contactRepository, 2, 20, 0.7, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dedupeService.destroy();
+    }
+
+    @Test
+    void findDuplicates_ShouldScanCurrentUsersContacts_AndCapClusters() {
+        when(contactService.getCurrentUserId()).thenReturn(1L);
+        List<ContactDto> contacts = new ArrayList<>();
+        for (long i = 0; i < 3; i++) {
+            contacts.add(new ContactDto(2 * i + 1, "Name" + i, "Twin", null, "twin" + i + "@example.com", null, null, null, null));
+            contacts.add(new ContactDto(2 * i + 2, "Other" + i, "Twin", null, "twin" + i + "@example.com", null, null, null, null));
+        }
+        when(contactRepository.findAllByUserIdOrderByIdAsc(1L)).thenReturn(contacts);
+
+        List<DuplicateClusterDto> clusters = dedupeService.findDuplicates(null, 10);
+
+        // Three clusters found, two allowed
+        assertEquals(2, clusters.size());
+        assertEquals(2, clusters.get(0).getContacts().size());
+    }
+
+    @Test
+    void findDuplicates_ShouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> dedupeService.findDuplicates(1.5, 10));
+        assertThrows(IllegalArgumentException.class, () -> dedupeService.findDuplicates(0.0, 10));
+        assertThrows(IllegalArgumentException.class, () -> dedupeService.findDuplicates(null, 0));
+        verifyNoInteractions(contactRepository);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ab.cmsBackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactEtagsTest {
+
+    @Test
+    void versions_ShouldAcceptAnyVersion_WithoutHeaderOrWithStar() {
+        assertNull(ContactEtags.versions(1L, null));
+        assertNull(ContactEtags.versions(1L, " "));
+        assertNull(ContactEtags.versions(1L, "*"));
+    }
+
+    @Test
+    void versions_ShouldReadStrongTagsForThisContact() {
+        assertEquals(Set.of(3L), ContactEtags.versions(1L, "\"" + ContactEtags.of(1L, 3) + "\""));
+        assertEquals(Set.of(3L, 4L), ContactEtags.versions(1L, "\"1-3\", \"1-4\""));
+    }
+
+    @Test
+    void versions_ShouldIgnoreWeakForeignAndMalformedTags() {
+        assertEquals(Set.of(), ContactEtags.versions(1L, "W/\"1-3\""));
+        assertEquals(Set.of(), ContactEtags.versions(1L, "\"11-3\""));
+        assertEquals(Set.of(), ContactEtags.versions(1L, "\"1-x\", 1-3, \""));
+    }
+}
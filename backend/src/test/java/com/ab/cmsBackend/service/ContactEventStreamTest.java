@@ -0,0 +1,221 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.controller.ContactSyncController;
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.event.ContactChangedEvent;
+import com.ab.cmsBackend.event.ContactsChangedEvent;
+import com.ab.cmsBackend.exception.ServiceBusyException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+class ContactEventStreamTest {
+
+    @Mock
+    private ContactService contactService;
+
+    // Sender tasks are queued here and only run when a test says so, standing in for stalled sockets
+    private final List<Runnable> pendingSends = new ArrayList<>();
+
+    private ContactEventStream stream(int bufferSize, int maxSubscribers, int maxPerUser) {
+        return new ContactEventStream(contactService, pendingSends::add, bufferSize, maxSubscribers, maxPerUser, 60_000, 60_000,
+                SseEmitter::new);
+    }
+
+    @Test
+    void subscribe_ShouldRefuse_WhenTheNodeIsFull() {
+        when(contactService.getCurrentUserId()).thenReturn(1L);
+        ContactEventStream stream = stream(4, 2, 10);
+        stream.subscribe();
+        stream.subscribe();
+
+        assertThrows(ServiceBusyException.class, stream::subscribe);
+        assertEquals(2, stream.getSubscriberCount());
+    }
+
+    @Test
+    void subscribe_ShouldCloseTheUsersOldestStream_BeyondThePerUserLimit() {
+        when(contactService.getCurrentUserId()).thenReturn(1L);
+        ContactEventStream stream = stream(4, 100, 2);
+
+        for (int i = 0; i < 5; i++) {
+            stream.subscribe();
+        }
+
+        assertEquals(2, stream.getSubscriberCount());
+    }
+
+    @Test
+    void onContactsChanged_ShouldDropOnlyTheSubscribersThatFallBehind() {
+        ContactEventStream stream = stream(2, 100, 10);
+        when(contactService.getCurrentUserId()).thenReturn(1L);
+        stream.subscribe();
+        when(contactService.getCurrentUserId()).thenReturn(2L);
+        stream.subscribe();
+        ContactDto contact = new ContactDto(5L, "John", "Doe", null, null, null, null, null, null);
+
+        stream.onContactsChanged(write(ContactChangedEvent.updated(1L, contact)));
+        stream.onContactsChanged(write(ContactChangedEvent.deleted(1L, 6L)));
+        // One drain task for the buffer however many messages wait in it
+        assertEquals(1, pendingSends.size());
+        assertEquals(2, stream.getSubscriberCount());
+
+        stream.onContactsChanged(write(ContactChangedEvent.deleted(1L, 7L)));
+
+        assertEquals(1, stream.getSubscriberCount());
+    }
+
+    @Test
+    void onContactsChanged_ShouldSendABulkWriteAsOneMessage_SoItFitsTheBuffer() {
+        List<Object> received = new ArrayList<>();
+        ContactEventStream stream = new ContactEventStream(contactService, pendingSends::add, 32, 100, 10, 60_000, 60_000,
+                timeout -> new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) {
+                        builder.build().forEach(part -> received.add(part.getData()));
+                    }
+                });
+        when(contactService.getCurrentUserId()).thenReturn(1L);
+        stream.subscribe();
+        List<ContactChangedEvent> bulkDelete = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            bulkDelete.add(ContactChangedEvent.deleted(1L, id));
+        }
+
+        // Published before the sender gets to run, as at commit
+        stream.onContactsChanged(new ContactsChangedEvent(1L, bulkDelete));
+        stream.onContactsChanged(write(ContactChangedEvent.deleted(1L, 101L)));
+
+        assertEquals(1, stream.getSubscriberCount());
+        pendingSends.remove(0).run();
+        List<?> firstWrite = (List<?>) received.stream().filter(List.class::isInstance).findFirst().orElseThrow();
+        assertEquals(100, firstWrite.size());
+        assertEquals(1, stream.getSubscriberCount());
+    }
+
+    @Test
+    void heartbeat_ShouldReachEverySubscriber_AndDropThoseStillBehind() {
+        ContactEventStream stream = stream(1, 100, 10);
+        when(contactService.getCurrentUserId()).thenReturn(1L);
+        stream.subscribe();
+        stream.subscribe();
+
+        stream.heartbeat();
+        assertEquals(2, pendingSends.size());
+        pendingSends.get(0).run();
+
+        stream.heartbeat();
+
+        // The drained stream took the second heartbeat, the stalled one was dropped
+        assertEquals(1, stream.getSubscriberCount());
+    }
+
+    @Test
+    void stream_ShouldWriteTheUsersChangesAsServerSentEvents() throws Exception {
+        when(contactService.getCurrentUserId()).thenReturn(1L);
+        // Sends on the publishing thread, so the events are in the response once publishing returns
+        ContactEventStream stream = new ContactEventStream(contactService, Runnable::run, 4, 100, 10, 60_000, 60_000,
+                SseEmitter::new);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(
+                new ContactSyncController(mock(ContactSyncService.class), stream)).build();
+
+        MvcResult result = mockMvc.perform(get("/api/contacts/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        stream.onContactsChanged(write(ContactChangedEvent.updated(1L, new ContactDto(5L, "John", "Doe", null, null, null, null, null, null))));
+        stream.onContactsChanged(write(ContactChangedEvent.deleted(2L, 6L)));
+        stream.onContactsChanged(write(ContactChangedEvent.deleted(1L, 7L)));
+        stream.heartbeat();
+
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.contains("event:contacts\ndata:[{\"contactId\":5,\"type\":\"UPSERT\",\"contact\":{\"id\":5,"), body);
+        assertTrue(body.contains("event:contacts\ndata:[{\"contactId\":7,\"type\":\"DELETE\",\"contact\":null}]"), body);
+        assertTrue(body.contains(":heartbeat"), body);
+        // Another user's change
+        assertFalse(body.contains("\"contactId\":6"), body);
+    }
+
+    private static ContactsChangedEvent write(ContactChangedEvent change) {
+        return new ContactsChangedEvent(change.userId(), List.of(change));
+    }
+
+    @Test
+    void checkStalledSends_ShouldDropAStalledClient_AndKeepDeliveringToTheOthers() throws Exception {
+        CountDownLatch stalledWriteStarted = new CountDownLatch(1);
+        CountDownLatch clientReads = new CountDownLatch(1);
+        CountDownLatch otherUserReceived = new CountDownLatch(1);
+        // The first stream's writes block like a socket whose client stopped reading
+        List<SseEmitter> handedOut = new ArrayList<>(List.of(
+                new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        stalledWriteStarted.countDown();
+                        try {
+                            clientReads.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                },
+                new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) {
+                        otherUserReceived.countDown();
+                    }
+                }));
+        // A single sender thread, which the stalled write takes
+        ThreadPoolExecutor sender = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        ContactEventStream stream = new ContactEventStream(contactService, sender, 4, 100, 10, 60_000, 10,
+                timeout -> handedOut.remove(0));
+        try {
+            when(contactService.getCurrentUserId()).thenReturn(1L);
+            stream.subscribe();
+            when(contactService.getCurrentUserId()).thenReturn(2L);
+            stream.subscribe();
+
+            stream.onContactsChanged(write(ContactChangedEvent.deleted(1L, 5L)));
+            assertTrue(stalledWriteStarted.await(5, TimeUnit.SECONDS));
+            stream.onContactsChanged(write(ContactChangedEvent.deleted(2L, 6L)));
+            Thread.sleep(50);
+            assertEquals(1, otherUserReceived.getCount());
+
+            stream.checkStalledSends();
+
+            assertTrue(otherUserReceived.await(5, TimeUnit.SECONDS));
+            assertEquals(1, stream.getSubscriberCount());
+            assertEquals(2, sender.getCorePoolSize());
+
+            // Once the write returns the pool gives back the extra thread
+            clientReads.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sender.getCorePoolSize() != 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, sender.getCorePoolSize());
+            assertEquals(1, sender.getMaximumPoolSize());
+        } finally {
+            clientReads.countDown();
+            sender.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.repository.ContactRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactExportServiceTest {
+
+    @Mock
+    private ContactService contactService;
+
+    @Mock
+    private ContactRepository contactRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ContactExportService exportService;
+    private final AtomicBoolean streamClosed = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ContactExportService(contactService, contactRepository, new ObjectMapper(), transactionManager);
+        when(contactService.getCurrentUserId()).thenReturn(1L);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(contactRepository.streamByUserId(1L)).thenReturn(Stream.of(
+                new ContactDto(1L, "John", "Doe", "Manager", "john@work.com", null, null, null, null),
+                new ContactDto(2L, "Jane", "Smith, Jr.", null, null, null, null, null, "555")
+        ).onClose(() -> streamClosed.set(true)));
+    }
+
+    @Test
+    void export_ShouldWriteCsvWithImportableHeader() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(ContactExportService.Format.CSV).writeTo(out);
+
+        assertEquals("id,firstName,lastName,title,emailWork,emailPersonal,phoneWork,phoneHome,phonePersonal\r\n"
+                + "1,John,Doe,Manager,john@work.com,,,,\r\n"
+                + "2,Jane,\"Smith, Jr.\",,,,,,555\r\n", out.toString(StandardCharsets.UTF_8));
+        assertTrue(streamClosed.get());
+    }
+
+    @Test
+    void export_ShouldEscapeFieldsThatSpreadsheetsWouldRunAsFormulas() throws Exception {
+        when(contactRepository.streamByUserId(1L)).thenReturn(Stream.of(
+                new ContactDto(3L, "=HYPERLINK(\"http://evil\",\"x\")", "@Doe", "-", null, null, "+1 555", null, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(ContactExportService.Format.CSV).writeTo(out);
+
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith(
+                "3,\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\",\"'@Doe\",\"'-\",,,\"'+1 555\",,\r\n"));
+    }
+
+    @Test
+    void export_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(ContactExportService.Format.NDJSON).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals("Doe", mapper.readValue(lines[0], ContactDto.class).getLastName());
+        assertEquals("555", mapper.readValue(lines[1], ContactDto.class).getPhonePersonal());
+    }
+
+    @Test
+    void export_ShouldReadInOneReadOnlyTransaction() throws Exception {
+        exportService.export(ContactExportService.Format.CSV).writeTo(new ByteArrayOutputStream());
+
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(transactionManager).commit(any());
+        verify(contactRepository, times(1)).streamByUserId(1L);
+    }
+}
@@ -0,0 +1,184 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.cache.BoundedCache;
+import com.ab.cmsBackend.dto.BulkContactResultDto;
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.dto.ImportJobDto;
+import com.ab.cmsBackend.dto.RejectedRowDto;
+import com.ab.cmsBackend.exception.ImportJobNotFoundException;
+import com.ab.cmsBackend.exception.ServiceBusyException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactImportServiceTest {
+
+    @Mock
+    private ContactService contactService;
+
+    private ContactImportService importService;
+    private final List<Integer> chunkSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Runs each import on the calling thread, so it has finished when startImport returns
+        importService = new ContactImportService(contactService, Runnable::run, 2, 2,
+                new BoundedCache<>(100, Duration.ofHours(1), Clock.systemUTC()));
+        lenient().when(contactService.getCurrentUserId()).thenReturn(1L);
+    }
+
+    @Test
+    void startImport_ShouldImportInChunks_AndReportRejectedRowsByLine() throws Exception {
+        stubCreateContacts();
+
+        ImportJobDto job = importService.startImport(csv("""
+                First Name,last_name,Email Work,Unknown
+                John,Doe,john@work.com,ignored
+                Jane,,jane@work.com,x
+
+                Bob,Smith
+                "Multi
+                Line",Lee,,
+                """));
+
+        assertEquals(ImportJobDto.Status.COMPLETED, job.getStatus());
+        assertEquals(4, job.getRowsRead());
+        assertEquals(3, job.getImported());
+        assertEquals(1, job.getRejected());
+        assertEquals(List.of(new RejectedRowDto(3, List.of("Last name is required"))), job.getRejectedRows());
+        // Never more than chunk-size rows in one transaction
+        assertEquals(List.of(2, 2), chunkSizes);
+    }
+
+    @Test
+    void startImport_ShouldMapColumnsByHeader() throws Exception {
+        List<ContactDto> written = new ArrayList<>();
+        when(contactService.createContactsForUser(eq(1L), anyList())).thenAnswer(invocation -> {
+            List<ContactDto> chunk = invocation.getArgument(1);
+            written.addAll(chunk);
+            return created(chunk);
+        });
+
+        importService.startImport(csv("lastName,TITLE,phone-home,firstName\n Doe ,Manager,555,John\n"));
+
+        ContactDto john = written.get(0);
+        assertEquals("John", john.getFirstName());
+        assertEquals("Doe", john.getLastName());
+        assertEquals("Manager", john.getTitle());
+        assertEquals("555", john.getPhoneHome());
+        assertNull(john.getEmailWork());
+    }
+
+    @Test
+    void startImport_ShouldRestoreFieldsTheExportEscapedAsFormulas() throws Exception {
+        List<ContactDto> written = new ArrayList<>();
+        when(contactService.createContactsForUser(eq(1L), anyList())).thenAnswer(invocation -> {
+            List<ContactDto> chunk = invocation.getArgument(1);
+            written.addAll(chunk);
+            return created(chunk);
+        });
+
+        importService.startImport(csv("firstName,lastName,phoneWork,title\nJohn,'=Doe,\"'+1 555\",'CEO\n"));
+
+        ContactDto john = written.get(0);
+        assertEquals("=Doe", john.getLastName());
+        assertEquals("+1 555", john.getPhoneWork());
+        // Only a ' in front of a formula character was added by the export
+        assertEquals("'CEO", john.getTitle());
+    }
+
+    @Test
+    void startImport_ShouldCapReportedRejections_ButCountAll() throws Exception {
+        stubCreateContacts();
+
+        ImportJobDto job = importService.startImport(csv("firstName,lastName\nA,\nB,\nC,\n"));
+
+        assertEquals(3, job.getRejected());
+        assertEquals(2, job.getRejectedRows().size());
+    }
+
+    @Test
+    void startImport_ShouldFail_WhenNameColumnsAreMissing() throws Exception {
+        ImportJobDto job = importService.startImport(csv("first,last\nJohn,Doe\n"));
+
+        assertEquals(ImportJobDto.Status.FAILED, job.getStatus());
+        assertEquals("The header must name the firstName and lastName columns", job.getError());
+        verify(contactService, never()).createContactsForUser(any(), anyList());
+    }
+
+    @Test
+    void startImport_ShouldKeepCommittedChunks_WhenFileTurnsOutMalformed() throws Exception {
+        stubCreateContacts();
+
+        ImportJobDto job = importService.startImport(csv("firstName,lastName\nA,B\nC,D\n\"E,unterminated\n"));
+
+        assertEquals(ImportJobDto.Status.FAILED, job.getStatus());
+        assertEquals(2, job.getImported());
+        assertTrue(job.getError().contains("unterminated"));
+    }
+
+    @Test
+    void startImport_ShouldRejectEmptyFile() {
+        assertThrows(IllegalArgumentException.class, () -> importService.startImport(csv("")));
+    }
+
+    @Test
+    void startImport_ShouldThrowServiceBusy_WhenQueueIsFull() {
+        importService = new ContactImportService(contactService, task -> {
+            throw new RejectedExecutionException();
+        }, 2, 2, new BoundedCache<>(100, Duration.ofHours(1), Clock.systemUTC()));
+
+        assertThrows(ServiceBusyException.class, () -> importService.startImport(csv("firstName,lastName\nA,B\n")));
+    }
+
+    @Test
+    void getJob_ShouldOnlyShowJobsToTheirOwner() throws Exception {
+        stubCreateContacts();
+        ImportJobDto job = importService.startImport(csv("firstName,lastName\nA,B\n"));
+
+        assertEquals(1, importService.getJob(job.getId()).getImported());
+
+        when(contactService.getCurrentUserId()).thenReturn(2L);
+        assertThrows(ImportJobNotFoundException.class, () -> importService.getJob(job.getId()));
+        assertThrows(ImportJobNotFoundException.class, () -> importService.getJob("unknown"));
+    }
+
+    // Behaves like ContactService.createContactsForUser for the name constraints
+    private void stubCreateContacts() {
+        when(contactService.createContactsForUser(eq(1L), anyList())).thenAnswer(invocation -> {
+            List<ContactDto> chunk = invocation.getArgument(1);
+            chunkSizes.add(chunk.size());
+            return created(chunk);
+        });
+    }
+
+    private static List<BulkContactResultDto> created(List<ContactDto> chunk) {
+        List<BulkContactResultDto> results = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(chunk.get(i).getLastName() == null
+                    ? new BulkContactResultDto(i, BulkContactResultDto.Status.INVALID, null, List.of("Last name is required"))
+                    : new BulkContactResultDto(i, BulkContactResultDto.Status.CREATED, (long) i, null));
+        }
+        return results;
+    }
+
+    private static MockMultipartFile csv(String content) {
+        return new MockMultipartFile("file", "contacts.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
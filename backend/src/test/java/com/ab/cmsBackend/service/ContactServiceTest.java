@@ -1,26 +1,48 @@
 package com.ab.cmsBackend.service;
 
+import com.ab.cmsBackend.cache.UserLookupCache;
+import com.ab.cmsBackend.config.AuthenticatedUser;
+import com.ab.cmsBackend.dto.BulkContactResultDto;
 import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.dto.ContactPageDto;
 import com.ab.cmsBackend.entity.Contact;
 import com.ab.cmsBackend.entity.User;
+import com.ab.cmsBackend.event.ContactChangedEvent;
+import com.ab.cmsBackend.event.ContactsChangedEvent;
+import com.ab.cmsBackend.exception.ContactChangedException;
+import com.ab.cmsBackend.exception.ContactNotFoundException;
 import com.ab.cmsBackend.repository.ContactRepository;
 import com.ab.cmsBackend.repository.UserRepository;
+import com.ab.cmsBackend.search.ContactSearchIndex;
+import com.ab.cmsBackend.search.LuceneContactIndex;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -30,6 +52,9 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class ContactServiceTest {
 
+    // Real bean validation, so bulk requests are checked against the ContactDto constraints
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
     // Mock objects (fake objects) for dependencies
     @Mock
     private ContactRepository contactRepository;  // Fake contact database
@@ -37,6 +62,18 @@ class ContactServiceTest {
     @Mock
     private UserRepository userRepository;  // Fake user database
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;  // Fake event bus
+
+    @Mock
+    private LuceneContactIndex luceneContactIndex;  // Fake full-text index
+
+    @Mock
+    private ContactCountService contactCountService;  // Fake per-user counters
+
+    @Mock
+    private ContactChangeLog contactChangeLog;  // Fake change log
+
     @Mock
     private SecurityContext securityContext;  // Fake security context
 
@@ -44,7 +81,6 @@ class ContactServiceTest {
     private Authentication authentication;  // Fake authentication
 
     // The service we want to test
-    @InjectMocks
     private ContactService contactService;
 
     // Test data
@@ -57,6 +93,13 @@ class ContactServiceTest {
     // This runs before each test
     @BeforeEach
     void setUp() {
+        // Lookup cache disabled: lookups go straight to the mocked repository
+        // Search index disabled: searches go straight to the mocked repository
+        contactService = new ContactService(contactRepository, userRepository,
+                new UserLookupCache(userRepository, false, 100, Duration.ofMinutes(5), Clock.systemUTC()),
+                new ContactSearchIndex(contactRepository, false, 100), luceneContactIndex, contactCountService,
+                contactChangeLog, eventPublisher, VALIDATOR, 100, 1000);
+
         // Setup current user (logged in user)
         currentUser = new User();
         currentUser.setId(1L);
@@ -120,6 +163,20 @@ class ContactServiceTest {
         when(userRepository.findByEmail("current@example.com")).thenReturn(Optional.of(currentUser));
     }
 
+    // What the repository's projection queries return for a contact
+    private static ContactDto dto(Contact contact) {
+        return new ContactDto(contact.getId(), contact.getFirstName(), contact.getLastName(), contact.getTitle(),
+                contact.getEmailWork(), contact.getEmailPersonal(), contact.getPhoneWork(), contact.getPhoneHome(),
+                contact.getPhonePersonal());
+    }
+
+    // Helper method for tokens that carry the user id (no user lookup needed)
+    private void mockAuthenticatedUser() {
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(new AuthenticatedUser(1L, "current@example.com"));
+        SecurityContextHolder.setContext(securityContext);
+    }
+
     // Get All Contacts Test
 
     @Test
@@ -128,8 +185,8 @@ class ContactServiceTest {
         mockSecurityContext();
 
         // Create a page of contacts
-        Page<Contact> contactPage = new PageImpl<>(Arrays.asList(contact1, contact2));
-        when(contactRepository.findByUser(eq(currentUser), any(PageRequest.class)))
+        Page<ContactDto> contactPage = new PageImpl<>(Arrays.asList(dto(contact1), dto(contact2)));
+        when(contactRepository.findDtosByUserId(eq(1L), any(PageRequest.class)))
                 .thenReturn(contactPage);
 
         // When: Call getAllContacts
@@ -142,7 +199,7 @@ class ContactServiceTest {
 
         // Verify mocks were called
         verify(userRepository).findByEmail("current@example.com");
-        verify(contactRepository).findByUser(eq(currentUser), any(PageRequest.class));
+        verify(contactRepository).findDtosByUserId(eq(1L), any(PageRequest.class));
     }
 
     @Test
@@ -151,8 +208,8 @@ class ContactServiceTest {
         mockSecurityContext();
 
         // Empty page for contacts
-        Page<Contact> emptyPage = new PageImpl<>(List.of());
-        when(contactRepository.findByUser(eq(currentUser), any(PageRequest.class)))
+        Page<ContactDto> emptyPage = new PageImpl<>(List.of());
+        when(contactRepository.findDtosByUserId(eq(1L), any(PageRequest.class)))
                 .thenReturn(emptyPage);
 
         // When: Call getAllContacts
@@ -186,17 +243,17 @@ class ContactServiceTest {
         mockSecurityContext();
 
         // Mock repository to return contacts containing "John"
-        when(contactRepository.searchByUserAndQuery(currentUser, "John"))
-                .thenReturn(Arrays.asList(contact1));
+        when(contactRepository.searchPageByUserIdAndQuery(eq(1L), eq("John"), eq(0L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(dto(contact1))));
 
         // When: Search for "John"
-        List<ContactDto> result = contactService.searchContacts("John");
+        List<ContactDto> result = contactService.searchContacts("John", 0, 10, null).getContent();
 
         // Then: Should find 1 contact
         assertEquals(1, result.size());
         assertEquals("John", result.get(0).getFirstName());
 
-        verify(contactRepository).searchByUserAndQuery(currentUser, "John");
+        verify(contactRepository).searchPageByUserIdAndQuery(1L, "John", 0L, PageRequest.of(0, 10));
     }
 
     @Test
@@ -205,11 +262,11 @@ class ContactServiceTest {
         mockSecurityContext();
 
         // Mock empty results
-        when(contactRepository.searchByUserAndQuery(currentUser, "NoMatch"))
-                .thenReturn(List.of());
+        when(contactRepository.searchPageByUserIdAndQuery(eq(1L), eq("NoMatch"), eq(0L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
 
         // When: Search for non-existent name
-        List<ContactDto> result = contactService.searchContacts("NoMatch");
+        List<ContactDto> result = contactService.searchContacts("NoMatch", 0, 10, null).getContent();
 
         // Then: Should be empty
         assertTrue(result.isEmpty());
@@ -221,11 +278,11 @@ class ContactServiceTest {
         mockSecurityContext();
 
         // Mock returning all contacts for empty query
-        when(contactRepository.searchByUserAndQuery(currentUser, ""))
-                .thenReturn(Arrays.asList(contact1, contact2));
+        when(contactRepository.searchPageByUserIdAndQuery(eq(1L), eq(""), eq(0L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(dto(contact1), dto(contact2))));
 
         // When: Search with empty string
-        List<ContactDto> result = contactService.searchContacts("");
+        List<ContactDto> result = contactService.searchContacts("", 0, 10, null).getContent();
 
         // Then: Should return all 2 contacts
         assertEquals(2, result.size());
@@ -268,52 +325,167 @@ class ContactServiceTest {
         // Given: Mock security context
         mockSecurityContext();
 
-        // Mock finding contact
-        when(contactRepository.findById(1L)).thenReturn(Optional.of(contact1));
-        when(contactRepository.save(any(Contact.class))).thenReturn(contact1);
+        // One row matched id and owner
+        when(contactRepository.updateByIdAndUserId(1L, 1L, contactDto)).thenReturn(1);
 
         // When: Update contact
         ContactDto result = contactService.updateContact(1L, contactDto);
 
-        // Then: Should return updated contact
-        assertNotNull(result);
+        // Then: Should return the stored state without reading the contact
+        assertEquals(1L, result.getId());
+        assertEquals("New", result.getFirstName());
+        verify(contactRepository, never()).findById(anyLong());
+        verify(contactRepository, never()).save(any());
+        // The list changed too, so its version moves
+        verify(contactCountService).touch(1L);
+    }
+
+    @Test
+    void updateContact_ShouldLogTheChangeUnderTheNewListVersion() {
+        mockAuthenticatedUser();
+        when(contactRepository.updateByIdAndUserId(1L, 1L, contactDto)).thenReturn(1);
+        when(contactCountService.touch(1L)).thenReturn(8L);
 
-        // Verify contact was found and saved
-        verify(contactRepository).findById(1L);
-        verify(contactRepository).save(contact1);
+        contactService.updateContact(1L, contactDto);
+
+        verify(contactChangeLog).record(eq(1L), eq(8L), argThat(events -> events.size() == 1
+                && events.get(0).type() == ContactChangedEvent.Type.UPDATED && events.get(0).contactId() == 1L));
     }
 
     @Test
-    void updateContact_ShouldThrowException_WhenContactNotFound() {
+    void updateContact_ShouldThrowNotFound_WhenContactMissingOrNotOwned() {
         // Given: Mock security context
         mockSecurityContext();
 
-        // Mock not finding contact
-        when(contactRepository.findById(999L)).thenReturn(Optional.empty());
+        // No row matched: missing and not-owned look the same
+        when(contactRepository.updateByIdAndUserId(999L, 1L, contactDto)).thenReturn(0);
 
         // When & Then: Should throw exception
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+        ContactNotFoundException exception = assertThrows(ContactNotFoundException.class, () -> {
             contactService.updateContact(999L, contactDto);
         });
 
-        assertEquals("Contact not found", exception.getMessage());
+        assertEquals("Contact not found: 999", exception.getMessage());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    void updateContact_ShouldThrowException_WhenUserDoesNotOwnContact() {
-        // Given: Mock security context
-        mockSecurityContext();
+    void updateContact_WithExpectedVersion_ShouldUpdateOnlyThatVersion() {
+        mockAuthenticatedUser();
+        when(contactRepository.updateByIdAndUserIdAndVersionIn(1L, 1L, Set.of(3L), contactDto)).thenReturn(1);
 
-        // Contact belongs to other user
-        contact1.setUser(otherUser);
-        when(contactRepository.findById(1L)).thenReturn(Optional.of(contact1));
+        assertEquals("New", contactService.updateContact(1L, contactDto, Set.of(3L)).getFirstName());
+        verify(contactRepository, never()).updateByIdAndUserId(anyLong(), anyLong(), any());
+    }
 
-        // When & Then: Should throw exception
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            contactService.updateContact(1L, contactDto);
-        });
+    @Test
+    void updateContact_ShouldThrowChanged_WhenVersionIsStale() {
+        mockAuthenticatedUser();
+        when(contactRepository.updateByIdAndUserIdAndVersionIn(1L, 1L, Set.of(3L), contactDto)).thenReturn(0);
+        when(contactRepository.findVersionByIdAndUserId(1L, 1L)).thenReturn(Optional.of(4L));
+
+        assertThrows(ContactChangedException.class, () -> contactService.updateContact(1L, contactDto, Set.of(3L)));
+        verifyNoInteractions(contactCountService, eventPublisher);
+    }
+
+    @Test
+    void updateContact_ShouldThrowNotFound_WhenConditionalTargetIsMissing() {
+        mockAuthenticatedUser();
+        when(contactRepository.findVersionByIdAndUserId(1L, 1L)).thenReturn(Optional.empty());
+
+        // No usable tag: nothing is written, and the contact is not there either
+        assertThrows(ContactNotFoundException.class, () -> contactService.updateContact(1L, contactDto, Set.of()));
+        verify(contactRepository, never()).updateByIdAndUserIdAndVersionIn(anyLong(), anyLong(), any(), any());
+    }
+
+    @Test
+    void deleteContact_ShouldThrowChanged_WhenVersionIsStale() {
+        mockAuthenticatedUser();
+        when(contactRepository.deleteByIdAndUserIdAndVersionIn(1L, 1L, Set.of(3L))).thenReturn(0);
+        when(contactRepository.findVersionByIdAndUserId(1L, 1L)).thenReturn(Optional.of(4L));
 
-        assertEquals("You do not have permission to update this contact", exception.getMessage());
+        assertThrows(ContactChangedException.class, () -> contactService.deleteContact(1L, Set.of(3L)));
+        verifyNoInteractions(contactCountService, eventPublisher);
+    }
+
+    @Test
+    void patchContact_ShouldWriteOnlyChangedFields_AndClearNulls() {
+        mockAuthenticatedUser();
+        contact1.setVersion(2);
+        when(contactRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(contact1));
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("title", "Director");
+        patch.put("phoneHome", null);
+        patch.put("firstName", "John");
+        Map<String, String> changes = new HashMap<>();
+        changes.put("title", "Director");
+        changes.put("phoneHome", null);
+        when(contactRepository.patchByIdAndUserIdAndVersion(1L, 1L, 2L, changes)).thenReturn(1);
+
+        ContactService.TaggedContact result = contactService.patchContact(1L, patch, Set.of(2L));
+
+        // The unchanged first name is left out of the UPDATE
+        assertEquals("Director", result.contact().getTitle());
+        assertNull(result.contact().getPhoneHome());
+        assertEquals("john@work.com", result.contact().getEmailWork());
+        assertEquals("1-3", result.etag());
+        verify(contactCountService).touch(1L);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof ContactChangedEvent changed
+                && changed.type() == ContactChangedEvent.Type.UPDATED && "Director".equals(changed.contact().getTitle())));
+    }
+
+    @Test
+    void patchContact_ShouldWriteNothing_WhenNothingChanges() {
+        mockAuthenticatedUser();
+        when(contactRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(contact1));
+
+        assertEquals("1-0", contactService.patchContact(1L, Map.of("firstName", "John"), null).etag());
+
+        verify(contactRepository, never()).patchByIdAndUserIdAndVersion(anyLong(), anyLong(), anyLong(), any());
+        verifyNoInteractions(contactCountService, eventPublisher);
+    }
+
+    @Test
+    void patchContact_ShouldThrowChanged_WhenSomeoneWritesAfterTheRead() {
+        mockAuthenticatedUser();
+        when(contactRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(contact1));
+        when(contactRepository.patchByIdAndUserIdAndVersion(1L, 1L, 0L, Map.of("title", "Director"))).thenReturn(0);
+        when(contactRepository.findVersionByIdAndUserId(1L, 1L)).thenReturn(Optional.of(1L));
+
+        assertThrows(ContactChangedException.class,
+                () -> contactService.patchContact(1L, Map.of("title", "Director"), null));
+        verifyNoInteractions(contactCountService, eventPublisher);
+    }
+
+    @Test
+    void patchContact_ShouldThrowChanged_WhenVersionIsStale() {
+        mockAuthenticatedUser();
+        contact1.setVersion(4);
+        when(contactRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(contact1));
+
+        assertThrows(ContactChangedException.class,
+                () -> contactService.patchContact(1L, Map.of("title", "Director"), Set.of(3L)));
+        verify(contactRepository, never()).patchByIdAndUserIdAndVersion(anyLong(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void patchContact_ShouldRejectUnknownFieldsAndInvalidResults() {
+        mockAuthenticatedUser();
+        when(contactRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(contact1));
+        Map<String, Object> clearsName = new HashMap<>();
+        clearsName.put("lastName", null);
+
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> contactService.patchContact(1L, Map.of("id", 7), null));
+        IllegalArgumentException notString = assertThrows(IllegalArgumentException.class,
+                () -> contactService.patchContact(1L, Map.of("title", 7), null));
+        IllegalArgumentException invalid = assertThrows(IllegalArgumentException.class,
+                () -> contactService.patchContact(1L, clearsName, null));
+
+        assertEquals("Field cannot be patched: id", unknown.getMessage());
+        assertEquals("Field must be a string or null: title", notString.getMessage());
+        assertEquals("Last name is required", invalid.getMessage());
+        verify(contactRepository, never()).patchByIdAndUserIdAndVersion(anyLong(), anyLong(), anyLong(), any());
     }
 
     // Delete Contact Test
@@ -323,35 +495,31 @@ class ContactServiceTest {
         // Given: Mock security context
         mockSecurityContext();
 
-        // Mock finding contact
-        when(contactRepository.findById(1L)).thenReturn(Optional.of(contact1));
-        doNothing().when(contactRepository).delete(contact1);
+        // One row matched id and owner
+        when(contactRepository.deleteByIdAndUserId(1L, 1L)).thenReturn(1);
 
         // When: Delete contact
         contactService.deleteContact(1L);
 
-        // Then: Should delete without exception
-        verify(contactRepository).delete(contact1);
+        // Then: Should delete without loading it first
+        verify(contactRepository, never()).findById(anyLong());
+        verify(contactCountService).adjust(1L, -1);
     }
 
     @Test
-    void deleteContact_ShouldThrowException_WhenUserDoesNotOwnContact() {
+    void deleteContact_ShouldThrowNotFound_WhenContactMissingOrNotOwned() {
         // Given: Mock security context
         mockSecurityContext();
 
-        // Contact belongs to other user
-        contact1.setUser(otherUser);
-        when(contactRepository.findById(1L)).thenReturn(Optional.of(contact1));
+        when(contactRepository.deleteByIdAndUserId(1L, 1L)).thenReturn(0);
 
         // When & Then: Should throw exception
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+        assertThrows(ContactNotFoundException.class, () -> {
             contactService.deleteContact(1L);
         });
 
-        assertEquals("Unauthorized delete attempt", exception.getMessage());
-
-        // Should NOT delete
-        verify(contactRepository, never()).delete(any());
+        // Should NOT touch the counter or announce a delete
+        verifyNoInteractions(contactCountService, eventPublisher);
     }
 
     // Get Contact By ID Test
@@ -362,7 +530,7 @@ class ContactServiceTest {
         mockSecurityContext();
 
         // Mock finding contact
-        when(contactRepository.findById(1L)).thenReturn(Optional.of(contact1));
+        when(contactRepository.findDtoByIdAndUserId(1L, 1L)).thenReturn(Optional.of(dto(contact1)));
 
         // When: Get contact by ID
         ContactDto result = contactService.getContactById(1L);
@@ -374,52 +542,68 @@ class ContactServiceTest {
     }
 
     @Test
-    void getContactById_ShouldThrowException_WhenUserDoesNotOwnContact() {
+    void getContactById_ShouldThrowNotFound_WhenContactMissingOrNotOwned() {
         // Given: Mock security context
         mockSecurityContext();
 
-        // Contact belongs to other user
-        contact1.setUser(otherUser);
-        when(contactRepository.findById(1L)).thenReturn(Optional.of(contact1));
+        // Mock not finding contact for this owner
+        when(contactRepository.findDtoByIdAndUserId(999L, 1L)).thenReturn(Optional.empty());
 
         // When & Then: Should throw exception
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            contactService.getContactById(1L);
+        assertThrows(ContactNotFoundException.class, () -> {
+            contactService.getContactById(999L);
         });
 
-        assertEquals("Access denied", exception.getMessage());
+        verify(contactRepository, never()).existsById(any());
     }
 
     @Test
-    void getContactById_ShouldThrowException_WhenContactNotFound() {
-        // Given: Mock security context
+    void getContactEtag_ShouldComeFromTheVersionAlone() {
         mockSecurityContext();
+        when(contactRepository.findVersionByIdAndUserId(1L, 1L)).thenReturn(Optional.of(4L));
 
-        // Mock not finding contact
-        when(contactRepository.findById(999L)).thenReturn(Optional.empty());
+        assertEquals("1-4", contactService.getContactEtag(1L));
+        verify(contactRepository, never()).findDtoByIdAndUserId(anyLong(), anyLong());
+    }
 
-        // When & Then: Should throw exception
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            contactService.getContactById(999L);
-        });
+    @Test
+    void getContactEtag_ShouldThrowNotFound_WhenContactMissingOrNotOwned() {
+        mockSecurityContext();
+        when(contactRepository.findVersionByIdAndUserId(999L, 1L)).thenReturn(Optional.empty());
+
+        assertThrows(ContactNotFoundException.class, () -> contactService.getContactEtag(999L));
+    }
+
+    @Test
+    void getContactsEtag_ShouldCombineUserAndListVersion() {
+        mockSecurityContext();
+        when(contactCountService.getListVersion(1L)).thenReturn(Optional.of(12L));
+
+        assertEquals("1-12", contactService.getContactsEtag());
+    }
+
+    @Test
+    void getContactsEtag_ShouldBeNull_UntilTheListVersionExists() {
+        mockSecurityContext();
+        when(contactCountService.getListVersion(1L)).thenReturn(Optional.empty());
 
-        assertEquals("Contact not found", exception.getMessage());
+        assertNull(contactService.getContactsEtag());
     }
 
     // DTO/Entity Conversion Test
 
     @Test
     void toDto_ShouldConvertContactToDto() {
-        // This is a private method, but we can test it indirectly through public methods
+        // This is a private method, but we can test it indirectly through createContact
 
         // Given: Mock security context
         mockSecurityContext();
 
         // Mock repository
-        when(contactRepository.findById(1L)).thenReturn(Optional.of(contact1));
+        when(contactRepository.save(any(Contact.class))).thenReturn(contact1);
 
-        // When: Get contact (which calls toDto internally)
-        ContactDto result = contactService.getContactById(1L);
+        // When: Create contact (which calls toDto on the saved entity)
+        ContactDto result = contactService.createContact(contactDto);
 
         // Then: All fields should be converted correctly
         assertEquals(1L, result.getId());
@@ -482,8 +666,8 @@ class ContactServiceTest {
         mockSecurityContext();
 
         // Create page with 1 contact (testing different page size)
-        Page<Contact> contactPage = new PageImpl<>(List.of(contact1));
-        when(contactRepository.findByUser(eq(currentUser), any(PageRequest.class)))
+        Page<ContactDto> contactPage = new PageImpl<>(List.of(dto(contact1)));
+        when(contactRepository.findDtosByUserId(eq(1L), any(PageRequest.class)))
                 .thenReturn(contactPage);
 
         // When: Get contacts with page size 1
@@ -520,13 +704,373 @@ class ContactServiceTest {
         mockSecurityContext();
 
         // Mock returning no results for null
-        when(contactRepository.searchByUserAndQuery(currentUser, null))
-                .thenReturn(List.of());
+        when(contactRepository.searchPageByUserIdAndQuery(eq(1L), isNull(), eq(0L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
 
         // When: Search with null
-        List<ContactDto> result = contactService.searchContacts(null);
+        List<ContactDto> result = contactService.searchContacts(null, 0, 10, null).getContent();
 
         // Then: Should return empty list
         assertTrue(result.isEmpty());
     }
-}
\ No newline at end of file
+
+    // Principal With User Id
+
+    @Test
+    void getAllContacts_ShouldNotLookUpUser_WhenPrincipalCarriesId() {
+        mockAuthenticatedUser();
+
+        Page<ContactDto> contactPage = new PageImpl<>(Arrays.asList(dto(contact1), dto(contact2)));
+        when(contactRepository.findDtosByUserId(eq(1L), any(PageRequest.class))).thenReturn(contactPage);
+
+        Page<ContactDto> result = contactService.getAllContacts(0, 10);
+
+        assertEquals(2, result.getContent().size());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void createContact_ShouldUseUserReference_WhenPrincipalCarriesId() {
+        mockAuthenticatedUser();
+        when(userRepository.getReferenceById(1L)).thenReturn(currentUser);
+        when(contactRepository.save(any(Contact.class))).thenReturn(contact1);
+
+        contactService.createContact(contactDto);
+
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(contactRepository).save(argThat(contact -> contact.getUser() == currentUser));
+    }
+
+    @Test
+    void searchContacts_ShouldUseIndex_AfterFirstLoad() {
+        mockAuthenticatedUser();
+        contactService = new ContactService(contactRepository, userRepository,
+                new UserLookupCache(userRepository, false, 100, Duration.ofMinutes(5), Clock.systemUTC()),
+                new ContactSearchIndex(contactRepository, true, 100), luceneContactIndex, contactCountService,
+                contactChangeLog, eventPublisher, VALIDATOR, 100, 1000);
+        when(contactRepository.findAllByUserIdOrderByIdAsc(1L)).thenReturn(Arrays.asList(dto(contact1), dto(contact2)));
+
+        List<ContactDto> first = contactService.searchContacts("john", 0, 10, null).getContent();
+        List<ContactDto> second = contactService.searchContacts("JOHN", 0, 10, null).getContent();
+
+        assertEquals(1, first.size());
+        assertEquals("John", second.get(0).getFirstName());
+        verify(contactRepository, times(1)).findAllByUserIdOrderByIdAsc(1L);
+        verify(contactRepository, never()).searchPageByUserIdAndQuery(anyLong(), anyString(), anyLong(), any());
+    }
+
+    @Test
+    void createUpdateDelete_ShouldPublishContactChangedEvents() {
+        mockAuthenticatedUser();
+        when(userRepository.getReferenceById(1L)).thenReturn(currentUser);
+        when(contactRepository.save(any(Contact.class))).thenReturn(contact1);
+        when(contactRepository.updateByIdAndUserId(1L, 1L, contactDto)).thenReturn(1);
+        when(contactRepository.deleteByIdAndUserId(1L, 1L)).thenReturn(1);
+
+        contactService.createContact(contactDto);
+        contactService.updateContact(1L, contactDto);
+        contactService.deleteContact(1L);
+
+        ArgumentCaptor<ContactChangedEvent> events = ArgumentCaptor.forClass(ContactChangedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertEquals(List.of(ContactChangedEvent.Type.CREATED, ContactChangedEvent.Type.UPDATED,
+                        ContactChangedEvent.Type.DELETED),
+                events.getAllValues().stream().map(ContactChangedEvent::type).toList());
+        assertTrue(events.getAllValues().stream().allMatch(e -> e.userId().equals(1L) && e.contactId().equals(1L)));
+        // And once per write as a whole
+        verify(eventPublisher, times(3)).publishEvent(any(ContactsChangedEvent.class));
+    }
+
+    @Test
+    void rankedSearch_ShouldUseFullTextIndexForCurrentUser() {
+        mockAuthenticatedUser();
+        ContactDto hit = new ContactDto();
+        hit.setId(1L);
+        when(luceneContactIndex.search(1L, "jo", 20)).thenReturn(Optional.of(List.of(hit)));
+
+        List<ContactDto> results = contactService.rankedSearch("jo", 20);
+
+        assertEquals(List.of(hit), results);
+        verify(contactRepository, never()).searchPageByUserIdAndQuery(anyLong(), anyString(), anyLong(), any());
+    }
+
+    @Test
+    void rankedSearch_ShouldFallBackToSubstringSearch_WhenFullTextDisabled() {
+        mockAuthenticatedUser();
+        when(luceneContactIndex.search(1L, "John", 20)).thenReturn(Optional.empty());
+        when(contactRepository.searchPageByUserIdAndQuery(1L, "John", 0L, PageRequest.of(0, 20)))
+                .thenReturn(new SliceImpl<>(List.of(dto(contact1))));
+
+        List<ContactDto> results = contactService.rankedSearch("John", 20);
+
+        assertEquals(1, results.size());
+        assertEquals("John", results.get(0).getFirstName());
+    }
+
+    // Bounded Search Pages
+
+    @Test
+    void searchContacts_ShouldCapPageSize() {
+        mockAuthenticatedUser();
+        when(contactRepository.searchPageByUserIdAndQuery(eq(1L), eq("a"), eq(0L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(dto(contact1))));
+
+        ContactPageDto result = contactService.searchContacts("a", 0, 1_000_000, null);
+
+        assertEquals(100, result.getSize());
+        verify(contactRepository).searchPageByUserIdAndQuery(1L, "a", 0L, PageRequest.of(0, 100));
+    }
+
+    @Test
+    void searchContacts_ShouldReturnCursor_WhenMoreResultsFollow() {
+        mockAuthenticatedUser();
+        when(contactRepository.searchPageByUserIdAndQuery(1L, "o", 5L, PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(dto(contact1), dto(contact2)), PageRequest.of(0, 2), true));
+
+        ContactPageDto result = contactService.searchContacts("o", 0, 2, 5L);
+
+        assertTrue(result.isHasNext());
+        assertEquals("2", result.getNextCursor());
+    }
+
+    @Test
+    void searchContacts_ShouldPageThroughIndex() {
+        mockAuthenticatedUser();
+        contactService = new ContactService(contactRepository, userRepository,
+                new UserLookupCache(userRepository, false, 100, Duration.ofMinutes(5), Clock.systemUTC()),
+                new ContactSearchIndex(contactRepository, true, 100), luceneContactIndex, contactCountService,
+                contactChangeLog, eventPublisher, VALIDATOR, 100, 1000);
+        when(contactRepository.findAllByUserIdOrderByIdAsc(1L)).thenReturn(Arrays.asList(dto(contact1), dto(contact2)));
+
+        ContactPageDto first = contactService.searchContacts("j", 0, 1, null);
+        ContactPageDto byCursor = contactService.searchContacts("j", 0, 1, Long.valueOf(first.getNextCursor()));
+        ContactPageDto byNumber = contactService.searchContacts("j", 1, 1, null);
+
+        assertEquals(List.of(contact1.getId()), first.getContent().stream().map(ContactDto::getId).toList());
+        assertTrue(first.isHasNext());
+        assertEquals(List.of(contact2.getId()), byCursor.getContent().stream().map(ContactDto::getId).toList());
+        assertFalse(byCursor.isHasNext());
+        assertNull(byCursor.getNextCursor());
+        assertEquals(byCursor.getContent(), byNumber.getContent());
+    }
+
+    @Test
+    void searchContacts_ShouldRejectInvalidPaging() {
+        assertThrows(IllegalArgumentException.class, () -> contactService.searchContacts("a", -1, 10, null));
+        assertThrows(IllegalArgumentException.class, () -> contactService.searchContacts("a", 0, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> contactService.searchContacts("a", 2, 10, 7L));
+        verifyNoInteractions(contactRepository);
+    }
+
+    // Keyset Listing
+
+    @Test
+    void listContacts_ShouldReadOneExtraRowAndReturnCursor() {
+        mockAuthenticatedUser();
+        when(contactRepository.findFirstPageByUserId(1L, Limit.of(2))).thenReturn(Arrays.asList(dto(contact1), dto(contact2)));
+
+        ContactPageDto result = contactService.listContacts(1, null);
+
+        assertEquals(List.of(1L), result.getContent().stream().map(ContactDto::getId).toList());
+        assertTrue(result.isHasNext());
+        assertEquals(new ContactCursor("Doe", "John", 1L), ContactCursor.decode(result.getNextCursor()));
+        verify(contactRepository, never()).findDtosByUserId(anyLong(), any());
+    }
+
+    @Test
+    void listContacts_ShouldSeekAfterCursor() {
+        mockAuthenticatedUser();
+        String cursor = new ContactCursor("Doe", "John", 1L).encode();
+        when(contactRepository.findPageByUserIdAfter(1L, "Doe", "John", 1L, Limit.of(11)))
+                .thenReturn(List.of(dto(contact2)));
+
+        ContactPageDto result = contactService.listContacts(10, cursor);
+
+        assertEquals(List.of(2L), result.getContent().stream().map(ContactDto::getId).toList());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void listContacts_ShouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> contactService.listContacts(10, "not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> contactService.listContacts(10, "AQ"));
+        verifyNoInteractions(contactRepository);
+    }
+
+    @Test
+    void contactCursor_ShouldRoundTripAnyName() {
+        ContactCursor cursor = new ContactCursor("O'Brien-Müller", "José \u00e9 / + =", Long.MAX_VALUE);
+
+        String token = cursor.encode();
+
+        assertEquals(cursor, ContactCursor.decode(token));
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    // Slice Listing And Counts
+
+    @Test
+    void getContactSlice_ShouldNotCount() {
+        mockAuthenticatedUser();
+        when(contactRepository.findSliceByUserId(1L, PageRequest.of(0, 1, Sort.by("id"))))
+                .thenReturn(new SliceImpl<>(List.of(dto(contact1)), PageRequest.of(0, 1), true));
+
+        ContactPageDto result = contactService.getContactSlice(0, 1);
+
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        verify(contactRepository, never()).findDtosByUserId(anyLong(), any());
+        verify(contactRepository, never()).countByUserId(anyLong());
+    }
+
+    @Test
+    void countContacts_ShouldReadCounterForCurrentUser() {
+        mockAuthenticatedUser();
+        when(contactCountService.getCount(1L)).thenReturn(42L);
+
+        assertEquals(42L, contactService.countContacts());
+    }
+
+    @Test
+    void createAndDelete_ShouldAdjustCounter() {
+        mockAuthenticatedUser();
+        when(userRepository.getReferenceById(1L)).thenReturn(currentUser);
+        when(contactRepository.save(any(Contact.class))).thenReturn(contact1);
+        when(contactRepository.deleteByIdAndUserId(1L, 1L)).thenReturn(1);
+
+        contactService.createContact(contactDto);
+        contactService.deleteContact(1L);
+
+        verify(contactCountService).adjust(1L, 1);
+        verify(contactCountService).adjust(1L, -1);
+    }
+
+    // Bulk Write Tests
+
+    @Test
+    void createContacts_ShouldSaveValidItems_AndReportInvalidOnes() {
+        mockAuthenticatedUser();
+        when(userRepository.getReferenceById(1L)).thenReturn(currentUser);
+        when(contactRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Contact> contacts = invocation.getArgument(0);
+            contacts.forEach(contact -> contact.setId(10L));
+            return contacts;
+        });
+
+        List<BulkContactResultDto> results = contactService.createContacts(Arrays.asList(contactDto, new ContactDto(), null));
+
+        assertEquals(3, results.size());
+        assertEquals(BulkContactResultDto.Status.CREATED, results.get(0).getStatus());
+        assertEquals(10L, results.get(0).getId());
+        assertEquals(BulkContactResultDto.Status.INVALID, results.get(1).getStatus());
+        assertEquals(List.of("First name is required", "Last name is required"), results.get(1).getErrors());
+        assertEquals(List.of("Contact is required"), results.get(2).getErrors());
+        assertEquals(List.of(0, 1, 2), results.stream().map(BulkContactResultDto::getIndex).toList());
+
+        // Only the valid item is saved, counted and announced
+        verify(contactRepository).saveAll(argThat(contacts -> ((List<Contact>) contacts).size() == 1));
+        verify(contactCountService).adjust(1L, 1);
+        verify(eventPublisher).publishEvent(any(ContactChangedEvent.class));
+    }
+
+    @Test
+    void createContactsForUser_ShouldNotNeedSecurityContext() {
+        when(userRepository.getReferenceById(7L)).thenReturn(otherUser);
+        when(contactRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BulkContactResultDto> results = contactService.createContactsForUser(7L, List.of(contactDto));
+
+        assertEquals(BulkContactResultDto.Status.CREATED, results.get(0).getStatus());
+        verify(contactRepository).saveAll(argThat(contacts -> ((List<Contact>) contacts).get(0).getUser() == otherUser));
+        verify(contactCountService).adjust(2L, 1);
+    }
+
+    @Test
+    void updateContacts_ShouldChangeOwnedContactsInPlace_AndReportTheRest() {
+        mockAuthenticatedUser();
+        ContactDto notOwned = new ContactDto(99L, "Other", "Person", null, null, null, null, null, null);
+        contactDto.setId(1L);
+        ContactDto withoutId = new ContactDto(null, "No", "Id", null, null, null, null, null, null);
+        when(contactRepository.findAllByIdInAndUserId(Set.of(1L, 99L), 1L)).thenReturn(List.of(contact1));
+
+        List<BulkContactResultDto> results = contactService.updateContacts(List.of(contactDto, notOwned, withoutId));
+
+        assertEquals(BulkContactResultDto.Status.UPDATED, results.get(0).getStatus());
+        assertEquals(BulkContactResultDto.Status.NOT_FOUND, results.get(1).getStatus());
+        assertEquals(99L, results.get(1).getId());
+        assertEquals(List.of("Id is required"), results.get(2).getErrors());
+        // The managed entity is changed; the flush writes it, no save call needed
+        assertEquals("New", contact1.getFirstName());
+        verify(contactRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof ContactChangedEvent changed
+                && changed.type() == ContactChangedEvent.Type.UPDATED && changed.contactId() == 1L));
+        verify(contactCountService).touch(1L);
+    }
+
+    @Test
+    void deleteContacts_ShouldDeleteOwnedIdsInOneStatement() {
+        mockAuthenticatedUser();
+        when(contactRepository.findIdsByIdInAndUserId(Set.of(1L, 2L), 1L)).thenReturn(List.of(1L));
+
+        List<BulkContactResultDto> results = contactService.deleteContacts(Arrays.asList(1L, 2L, null, 1L));
+
+        assertEquals(List.of(BulkContactResultDto.Status.DELETED, BulkContactResultDto.Status.NOT_FOUND,
+                        BulkContactResultDto.Status.INVALID, BulkContactResultDto.Status.DELETED),
+                results.stream().map(BulkContactResultDto::getStatus).toList());
+        verify(contactRepository).deleteAllByIdInAndUserId(Set.of(1L), 1L);
+        verify(contactCountService).adjust(1L, -1);
+    }
+
+    @Test
+    void bulkWrites_ShouldRejectRequestsAboveMaxBulkSize() {
+        contactService = new ContactService(contactRepository, userRepository,
+                new UserLookupCache(userRepository, false, 100, Duration.ofMinutes(5), Clock.systemUTC()),
+                new ContactSearchIndex(contactRepository, false, 100), luceneContactIndex, contactCountService,
+                contactChangeLog, eventPublisher, VALIDATOR, 100, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> contactService.createContacts(List.of(contactDto, contactDto, contactDto)));
+        assertThrows(IllegalArgumentException.class, () -> contactService.deleteContacts(List.of(1L, 2L, 3L)));
+        verifyNoInteractions(contactRepository);
+    }
+
+    // Merge Tests
+
+    @Test
+    void mergeContacts_ShouldFillBlanksFromSources_AndDeleteThem() {
+        mockAuthenticatedUser();
+        Contact target = new Contact();
+        target.setId(1L);
+        target.setFirstName("John");
+        target.setLastName("Doe");
+        target.setUser(currentUser);
+        when(contactRepository.findAllByIdInAndUserId(Set.of(1L, 2L), 1L)).thenReturn(List.of(target, contact2));
+
+        ContactDto merged = contactService.mergeContacts(1L, List.of(2L));
+
+        // Kept its own names, took the rest from the duplicate
+        assertEquals("John", merged.getFirstName());
+        assertEquals("Developer", merged.getTitle());
+        assertEquals("jane@work.com", merged.getEmailWork());
+        verify(contactRepository).deleteAllByIdInAndUserId(Set.of(2L), 1L);
+        verify(contactCountService).adjust(1L, -1);
+        verify(eventPublisher).publishEvent(ContactChangedEvent.deleted(1L, 2L));
+    }
+
+    @Test
+    void mergeContacts_ShouldChangeNothing_WhenAnyContactIsNotOwned() {
+        mockAuthenticatedUser();
+        when(contactRepository.findAllByIdInAndUserId(Set.of(1L, 2L), 1L)).thenReturn(List.of(contact1));
+
+        assertThrows(ContactNotFoundException.class, () -> contactService.mergeContacts(1L, List.of(2L)));
+
+        verify(contactRepository, never()).deleteAllByIdInAndUserId(any(), any());
+        verifyNoInteractions(contactCountService, eventPublisher);
+    }
+
+    @Test
+    void mergeContacts_ShouldRejectMergingIntoItself() {
+        assertThrows(IllegalArgumentException.class, () -> contactService.mergeContacts(1L, List.of(1L, 2L)));
+        verifyNoInteractions(contactRepository);
+    }
+}
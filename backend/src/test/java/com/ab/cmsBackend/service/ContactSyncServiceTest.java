@@ -0,0 +1,159 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.dto.ContactChangeDto;
+import com.ab.cmsBackend.dto.ContactChangesDto;
+import com.ab.cmsBackend.dto.ContactDto;
+import com.ab.cmsBackend.entity.ContactChange;
+import com.ab.cmsBackend.exception.ChangeCursorExpiredException;
+import com.ab.cmsBackend.repository.ContactChangeRepository;
+import com.ab.cmsBackend.repository.ContactRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactSyncServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    @Mock
+    private ContactService contactService;
+
+    @Mock
+    private ContactCountService contactCountService;
+
+    @Mock
+    private ContactChangeRepository contactChangeRepository;
+
+    @Mock
+    private ContactRepository contactRepository;
+
+    private ContactSyncService contactSyncService;
+
+    @BeforeEach
+    void setUp() {
+        ContactChangeLog contactChangeLog = new ContactChangeLog(contactChangeRepository, Duration.ofDays(30),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        contactSyncService = new ContactSyncService(contactService, contactCountService, contactChangeLog,
+                contactChangeRepository, contactRepository, 2);
+    }
+
+    @Test
+    void getChanges_WithoutSince_ShouldReturnACursorForThePresent() {
+        when(contactService.getCurrentUserId()).thenReturn(1L);
+        when(contactCountService.getListVersion(1L)).thenReturn(Optional.of(7L));
+
+        ContactChangesDto result = contactSyncService.getChanges(null, 100);
+
+        assertTrue(result.getChanges().isEmpty());
+        assertFalse(result.isHasMore());
+        assertEquals(new ChangeCursor(7, Long.MAX_VALUE, NOW.toEpochMilli()), ChangeCursor.decode(result.getCursor()));
+        verifyNoInteractions(contactChangeRepository);
+    }
+
+    @Test
+    void getChanges_WithoutSince_ShouldRetry_WhenTheFirstCallCreatedTheRow() {
+        when(contactService.getCurrentUserId()).thenReturn(1L);
+        when(contactCountService.getListVersion(1L)).thenReturn(Optional.empty()).thenReturn(Optional.of(0L));
+
+        ContactChangesDto result = contactSyncService.getChanges(null, 100);
+
+        assertEquals(0, ChangeCursor.decode(result.getCursor()).listVersion());
+    }
+
+    @Test
+    void getChanges_ShouldReturnCurrentStateAndTombstones_InBatchesCappedByTheMaximum() {
+        when(contactService.getCurrentUserId()).thenReturn(1L);
+        String since = new ChangeCursor(3, Long.MAX_VALUE, NOW.toEpochMilli()).encode();
+        // Contact 10 was updated and then deleted by another user session; the batch limit is 2, so 3 are asked for
+        when(contactChangeRepository.findAfter(1L, 3, Long.MAX_VALUE, Limit.of(3))).thenReturn(List.of(
+                new ContactChange(1L, 4, 10L, false, NOW),
+                new ContactChange(1L, 4, 11L, false, NOW),
+                new ContactChange(1L, 5, 10L, true, NOW)));
+        ContactDto contact = new ContactDto(11L, "John", "Doe", null, null, null, null, null, null);
+        when(contactRepository.findDtosByIdInAndUserId(List.of(10L, 11L), 1L)).thenReturn(List.of(contact));
+
+        ContactChangesDto result = contactSyncService.getChanges(since, 100);
+
+        // Contact 10 is already gone, so its upsert turns into a delete
+        assertEquals(List.of(
+                new ContactChangeDto(10L, ContactChangeDto.Type.DELETE, null),
+                new ContactChangeDto(11L, ContactChangeDto.Type.UPSERT, contact)), result.getChanges());
+        assertTrue(result.isHasMore());
+        assertEquals(new ChangeCursor(4, 11, NOW.toEpochMilli()), ChangeCursor.decode(result.getCursor()));
+    }
+
+    @Test
+    void getChanges_ShouldKeepThePosition_WhenNothingChanged() {
+        when(contactService.getCurrentUserId()).thenReturn(1L);
+        String since = new ChangeCursor(3, 12, NOW.minus(Duration.ofDays(29)).toEpochMilli()).encode();
+        when(contactChangeRepository.findAfter(1L, 3, 12, Limit.of(2))).thenReturn(List.of());
+
+        ContactChangesDto result = contactSyncService.getChanges(since, 1);
+
+        assertTrue(result.getChanges().isEmpty());
+        assertFalse(result.isHasMore());
+        // The issue time moves on, so polling keeps the cursor from expiring
+        assertEquals(new ChangeCursor(3, 12, NOW.toEpochMilli()), ChangeCursor.decode(result.getCursor()));
+        verifyNoInteractions(contactRepository);
+    }
+
+    @Test
+    void getChanges_ShouldKeepTheIssueTime_UntilTheClientReachesTheEnd_SoAPruneInBetweenIsNotSkipped() {
+        when(contactService.getCurrentUserId()).thenReturn(1L);
+        Instant issued = NOW.minus(Duration.ofDays(29));
+        String since = new ChangeCursor(3, Long.MAX_VALUE, issued.toEpochMilli()).encode();
+        when(contactChangeRepository.findAfter(1L, 3, Long.MAX_VALUE, Limit.of(3))).thenReturn(List.of(
+                new ContactChange(1L, 4, 10L, true, issued),
+                new ContactChange(1L, 5, 11L, true, issued),
+                new ContactChange(1L, 6, 12L, true, issued)));
+
+        ContactChangesDto firstPage = contactSyncService.getChanges(since, 100);
+
+        assertTrue(firstPage.isHasMore());
+        assertEquals(new ChangeCursor(5, 11, issued.toEpochMilli()), ChangeCursor.decode(firstPage.getCursor()));
+
+        // Two days later the unread entry has been pruned, so the rest of the backlog cannot be served
+        Instant later = NOW.plus(Duration.ofDays(2));
+        ContactChangeLog laterLog = new ContactChangeLog(contactChangeRepository, Duration.ofDays(30),
+                Clock.fixed(later, ZoneOffset.UTC));
+        when(contactChangeRepository.findIdsChangedBefore(later.minus(Duration.ofDays(30)).minus(Duration.ofHours(1)),
+                Limit.of(1000))).thenReturn(List.of(3L)).thenReturn(List.of());
+        when(contactChangeRepository.deleteAllByIdIn(List.of(3L))).thenReturn(1);
+        laterLog.prune();
+        ContactSyncService laterService = new ContactSyncService(contactService, contactCountService, laterLog,
+                contactChangeRepository, contactRepository, 2);
+
+        assertThrows(ChangeCursorExpiredException.class, () -> laterService.getChanges(firstPage.getCursor(), 100));
+    }
+
+    @Test
+    void getChanges_ShouldRefuseCursorsOlderThanTheRetention() {
+        when(contactService.getCurrentUserId()).thenReturn(1L);
+        String since = new ChangeCursor(3, 12, NOW.minus(Duration.ofDays(31)).toEpochMilli()).encode();
+
+        assertThrows(ChangeCursorExpiredException.class, () -> contactSyncService.getChanges(since, 100));
+        verifyNoInteractions(contactChangeRepository);
+    }
+
+    @Test
+    void getChanges_ShouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> contactSyncService.getChanges(null, 0));
+        when(contactService.getCurrentUserId()).thenReturn(1L);
+        assertThrows(IllegalArgumentException.class, () -> contactSyncService.getChanges("not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> contactSyncService.getChanges("", 10));
+    }
+}
@@ -0,0 +1,88 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.cache.UserLookupCache;
+import com.ab.cmsBackend.config.BoundedPasswordEncoder;
+import com.ab.cmsBackend.entity.User;
+import com.ab.cmsBackend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordRehashServiceTest {
+
+    @Mock
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserLookupCache userLookupCache;
+
+    @InjectMocks
+    private PasswordRehashService passwordRehashService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("$2a$08$oldHash");
+    }
+
+    @Test
+    void upgradeIfNeeded_ShouldDoNothing_WhenHashIsCurrent() {
+        when(passwordEncoder.upgradeEncoding("$2a$08$oldHash")).thenReturn(false);
+
+        passwordRehashService.upgradeIfNeeded(testUser, "password123");
+
+        verify(passwordEncoder, never()).encodeAsync(any());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void upgradeIfNeeded_ShouldStoreNewHash_WhenCostDiffers() {
+        when(passwordEncoder.upgradeEncoding("$2a$08$oldHash")).thenReturn(true);
+        when(passwordEncoder.encodeAsync("password123")).thenReturn(CompletableFuture.completedFuture("{bcrypt}$2a$12$newHash"));
+        when(userRepository.updatePasswordIfUnchanged(1L, "$2a$08$oldHash", "{bcrypt}$2a$12$newHash")).thenReturn(1);
+
+        passwordRehashService.upgradeIfNeeded(testUser, "password123");
+
+        verify(userRepository).updatePasswordIfUnchanged(1L, "$2a$08$oldHash", "{bcrypt}$2a$12$newHash");
+        verify(userLookupCache).invalidate(testUser);
+    }
+
+    @Test
+    void upgradeIfNeeded_ShouldKeepCache_WhenPasswordChangedMeanwhile() {
+        when(passwordEncoder.upgradeEncoding("$2a$08$oldHash")).thenReturn(true);
+        when(passwordEncoder.encodeAsync("password123")).thenReturn(CompletableFuture.completedFuture("{bcrypt}$2a$12$newHash"));
+        when(userRepository.updatePasswordIfUnchanged(anyLong(), anyString(), anyString())).thenReturn(0);
+
+        passwordRehashService.upgradeIfNeeded(testUser, "password123");
+
+        verifyNoInteractions(userLookupCache);
+    }
+
+    @Test
+    void upgradeIfNeeded_ShouldSkip_WhenPoolIsFull() {
+        when(passwordEncoder.upgradeEncoding("$2a$08$oldHash")).thenReturn(true);
+        when(passwordEncoder.encodeAsync("password123"))
+                .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("full")));
+
+        passwordRehashService.upgradeIfNeeded(testUser, "password123");
+
+        verifyNoInteractions(userRepository);
+    }
+}
@@ -0,0 +1,68 @@
+package com.ab.cmsBackend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordResetDispatcherTest {
+
+    @Mock
+    private UserService userService;
+
+    private PasswordResetDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.destroy();
+    }
+
+    @Test
+    void dispatch_ShouldSwallowFailures_InTheBackground() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            done.countDown();
+            throw new RuntimeException("User not found with email: nobody@example.com");
+        }).when(userService).initiatePasswordReset("nobody@example.com");
+        dispatcher = new PasswordResetDispatcher(userService, 1, 1);
+
+        dispatcher.dispatch("nobody@example.com");
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    void dispatch_ShouldDropAndCount_WhenTheQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(userService).initiatePasswordReset("first@example.com");
+        dispatcher = new PasswordResetDispatcher(userService, 1, 1);
+
+        try {
+            dispatcher.dispatch("first@example.com");
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            dispatcher.dispatch("queued@example.com");
+
+            // One running, one waiting: the third has nowhere to go, and the caller is not told
+            assertDoesNotThrow(() -> dispatcher.dispatch("dropped@example.com"));
+            assertEquals(1, dispatcher.getDroppedCount());
+        } finally {
+            release.countDown();
+        }
+        verify(userService, timeout(5000)).initiatePasswordReset("queued@example.com");
+        verify(userService, never()).initiatePasswordReset("dropped@example.com");
+    }
+}
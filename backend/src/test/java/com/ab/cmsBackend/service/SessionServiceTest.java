@@ -0,0 +1,162 @@
+package com.ab.cmsBackend.service;
+
+import com.ab.cmsBackend.cache.UserLookupCache;
+import com.ab.cmsBackend.config.JwtTokenProvider;
+import com.ab.cmsBackend.config.TokenRevocationList;
+import com.ab.cmsBackend.dto.TokenResponseDto;
+import com.ab.cmsBackend.entity.RefreshToken;
+import com.ab.cmsBackend.entity.User;
+import com.ab.cmsBackend.exception.InvalidRefreshTokenException;
+import com.ab.cmsBackend.repository.RefreshTokenRepository;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserLookupCache userLookupCache;
+
+    private final JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(
+            "test-secret-key-that-is-long-enough-for-hmac-sha-signing-in-unit-tests-0123456789", 900000);
+    private TokenRevocationList tokenRevocationList;
+    private SessionService sessionService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationList = new TokenRevocationList(900000, 1000);
+        sessionService = new SessionService(jwtTokenProvider, tokenRevocationList, refreshTokenRepository,
+                userLookupCache, 86400000, 10000);
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("test@example.com");
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyTheHashOfTheRefreshToken() {
+        TokenResponseDto tokens = sessionService.issue(testUser);
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertNotEquals(tokens.getRefreshToken(), saved.getValue().getTokenHash());
+        assertEquals(64, saved.getValue().getTokenHash().length());
+        assertEquals(1L, saved.getValue().getUserId());
+        assertEquals(900, tokens.getExpiresIn());
+        assertEquals("test@example.com", jwtTokenProvider.parseClaims(tokens.getAccessToken()).getSubject());
+    }
+
+    @Test
+    void refresh_ShouldRotateToken() {
+        RefreshToken stored = new RefreshToken();
+        stored.setUserId(1L);
+        stored.setExpiresAt(LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.deleteByTokenHash(anyString())).thenReturn(1);
+        when(userLookupCache.findById(1L)).thenReturn(Optional.of(testUser));
+
+        TokenResponseDto tokens = sessionService.refresh("old-refresh-token");
+
+        assertNotEquals("old-refresh-token", tokens.getRefreshToken());
+        verify(refreshTokenRepository).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void refresh_ShouldAnswerWithTheSameSuccessor_WhenTheTokenIsReplayedWithinTheGracePeriod() {
+        RefreshToken stored = new RefreshToken();
+        stored.setUserId(1L);
+        stored.setExpiresAt(LocalDateTime.now().plusDays(1));
+        // The old token, and later its successor, are found
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.deleteByTokenHash(anyString())).thenReturn(1);
+        when(userLookupCache.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // Two tabs refreshing with the same token
+        TokenResponseDto first = sessionService.refresh("shared-refresh-token");
+        TokenResponseDto second = sessionService.refresh("shared-refresh-token");
+
+        assertSame(first, second);
+        verify(refreshTokenRepository, times(1)).deleteByTokenHash(anyString());
+        verify(refreshTokenRepository, times(1)).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void refresh_ShouldRefuseAReplay_OnceTheSuccessorIsGone() {
+        RefreshToken stored = new RefreshToken();
+        stored.setUserId(1L);
+        stored.setExpiresAt(LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.deleteByTokenHash(anyString())).thenReturn(1);
+        when(userLookupCache.findById(1L)).thenReturn(Optional.of(testUser));
+        sessionService.refresh("shared-refresh-token");
+
+        // Logged out with the successor, and the old token is long consumed
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> sessionService.refresh("shared-refresh-token"));
+    }
+
+    @Test
+    void refresh_ShouldFail_WhenTokenAlreadyUsed() {
+        RefreshToken stored = new RefreshToken();
+        stored.setUserId(1L);
+        stored.setExpiresAt(LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.deleteByTokenHash(anyString())).thenReturn(0);
+
+        InvalidRefreshTokenException exception = assertThrows(InvalidRefreshTokenException.class,
+                () -> sessionService.refresh("used-refresh-token"));
+
+        assertEquals("Invalid refresh token", exception.getMessage());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void refresh_ShouldFail_WhenTokenExpired() {
+        RefreshToken stored = new RefreshToken();
+        stored.setUserId(1L);
+        stored.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.deleteByTokenHash(anyString())).thenReturn(1);
+
+        InvalidRefreshTokenException exception = assertThrows(InvalidRefreshTokenException.class,
+                () -> sessionService.refresh("expired-refresh-token"));
+
+        assertEquals("Refresh token has expired", exception.getMessage());
+    }
+
+    @Test
+    void logout_ShouldRevokeAccessToken() {
+        String accessToken = sessionService.issue(testUser).getAccessToken();
+        Claims claims = jwtTokenProvider.parseClaims(accessToken);
+
+        sessionService.logout("refresh-token", accessToken);
+
+        verify(refreshTokenRepository).deleteByTokenHash(anyString());
+        assertTrue(tokenRevocationList.isRevoked(claims.getId(), 1L, claims.getIssuedAt().getTime() / 1000));
+    }
+
+    @Test
+    void revokeAll_ShouldDeleteRefreshTokensAndRevokeUser() {
+        sessionService.revokeAll(1L);
+
+        verify(refreshTokenRepository).deleteByUserId(1L);
+        assertTrue(tokenRevocationList.isRevoked(null, 1L, 0));
+    }
+}
@@ -1,12 +1,14 @@
 package com.ab.cmsBackend.service;
 
+import com.ab.cmsBackend.config.AuthenticatedUser;
+import com.ab.cmsBackend.cache.KnownEmailFilter;
+import com.ab.cmsBackend.cache.UserLookupCache;
 import com.ab.cmsBackend.dto.RegisterDto;
 import com.ab.cmsBackend.entity.User;
 import com.ab.cmsBackend.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
@@ -14,6 +16,8 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +36,12 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;  // Fake password encoder
 
+    @Mock
+    private EmailService emailService;  // Fake email sender
+
+    @Mock
+    private SessionService sessionService;  // Fake session store
+
     @Mock
     private SecurityContext securityContext;  // Fake security context
 
@@ -39,7 +49,6 @@ class UserServiceTest {
     private Authentication authentication;  // Fake authentication
 
     // The service we want to test
-    @InjectMocks
     private UserService userService;
 
     // Test data
@@ -48,6 +57,11 @@ class UserServiceTest {
     // This runs before each test
     @BeforeEach
     void setUp() {
+        // Lookup cache disabled: lookups go straight to the mocked repository
+        userService = new UserService(userRepository, passwordEncoder, emailService,
+                new UserLookupCache(userRepository, false, 100, Duration.ofMinutes(5), Clock.systemUTC()),
+                sessionService, new KnownEmailFilter(userRepository, false, 1000, 0.01));
+
         // Setup a test user
         testUser = new User();
         testUser.setId(1L);
@@ -150,6 +164,8 @@ class UserServiceTest {
         assertEquals("newEncodedPassword456", testUser.getPassword());
         verify(userRepository).save(testUser);
         verify(passwordEncoder).encode("newPassword123");
+        // Other sessions are logged out
+        verify(sessionService).revokeAll(1L);
     }
 
     @Test
@@ -375,4 +391,20 @@ class UserServiceTest {
         verify(userRepository).save(user);
         verify(passwordEncoder).encode("MyNewSecurePassword!123");
     }
-}
\ No newline at end of file
+
+    @Test
+    void getProfile_ShouldLoadById_WhenPrincipalCarriesId() {
+        // Given: Principal installed from a token with the user id claim
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(new AuthenticatedUser(1L, "test@example.com"));
+        SecurityContextHolder.setContext(securityContext);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // When
+        RegisterDto result = userService.getProfile();
+
+        // Then: Primary key lookup, no email lookup
+        assertEquals("test@example.com", result.getEmail());
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+}
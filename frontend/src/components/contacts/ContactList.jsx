@@ -26,24 +26,30 @@ const ContactList = () => {
       setError('');
 
       let result;
+      let count;
       if (query.trim()) {
-        result = await contactService.searchContacts(query);
+        result = await contactService.searchContacts(query, page, pageSize);
       } else {
-        result = await contactService.getAllContacts(page, pageSize);
+        [result, count] = await Promise.all([
+          contactService.getContactSlice(page, pageSize),
+          contactService.countContacts()
+        ]);
       }
 
       if (result.success) {
-        const data = query.trim() ? result.data : (result.data.content || []);
+        const data = result.data.content || [];
 
         setContacts(data);
         setFilteredContacts(data);
 
         if (!query.trim()) {
-          setTotalPages(result.data.totalPages || 0);
-          setTotalElements(result.data.totalElements || 0);
+          const total = count.success ? count.data : page * pageSize + data.length;
+          setTotalPages(Math.ceil(total / pageSize));
+          setTotalElements(total);
         } else {
-          setTotalElements(data.length);
-          setTotalPages(0);
+          // Search pages carry no total, only whether another page follows
+          setTotalElements(page * pageSize + data.length);
+          setTotalPages(result.data.hasNext ? page + 2 : page + 1);
         }
       } else {
         setError(result.error);
@@ -94,7 +100,7 @@ const ContactList = () => {
             Add New Contact
           </Link>
         </div>
-        <SearchBar onSearch={(term) => setSearchTerm(term)} />
+        <SearchBar onSearch={(term) => { setSearchTerm(term); setCurrentPage(0); }} />
       </div>
 
       {error && <ErrorAlert message={error} />}
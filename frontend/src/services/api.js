@@ -13,4 +13,46 @@ api.interceptors.request.use((config) => {
   return config;
 });
 
+// Access tokens are short-lived: on the first 401/403 swap the refresh token for a new pair and retry once.
+// Tabs share the pair in localStorage; the server answers a refresh token replayed right after its rotation
+// with the same new pair, so tabs refreshing together end up with one session.
+let refreshing = null;
+
+api.interceptors.response.use(
+  (response) => response,
+  async (error) => {
+    const original = error.config;
+    const status = error.response?.status;
+    const refreshToken = localStorage.getItem('refreshToken');
+
+    if ((status === 401 || status === 403) && refreshToken && original && !original._retry
+        && !original.url?.startsWith('/api/auth/')) {
+      original._retry = true;
+      try {
+        if (!refreshing) {
+          refreshing = api.post('/api/auth/refresh', { refreshToken })
+            .finally(() => { refreshing = null; });
+        }
+        const { data } = await refreshing;
+        localStorage.setItem('token', data.accessToken);
+        localStorage.setItem('refreshToken', data.refreshToken);
+        original.headers.Authorization = `Bearer ${data.accessToken}`;
+        return api(original);
+      } catch (refreshError) {
+        // Another tab may have rotated the shared pair first; carry on with its tokens instead of logging out
+        if (localStorage.getItem('refreshToken') !== refreshToken && localStorage.getItem('token')) {
+          original.headers.Authorization = `Bearer ${localStorage.getItem('token')}`;
+          return api(original);
+        }
+        localStorage.removeItem('token');
+        localStorage.removeItem('refreshToken');
+        localStorage.removeItem('user');
+        window.location.href = '/login';
+        return Promise.reject(refreshError);
+      }
+    }
+    return Promise.reject(error);
+  }
+);
+
 export default api;
\ No newline at end of file
@@ -6,13 +6,14 @@ export const authService = {
     try {
       const response = await api.post('/api/auth/login', { email, password });
 
-      // Store token as a string we take this as JSON later:
-      const token = response.data;
+      // Short-lived access token plus the refresh token used to renew it
+      const { accessToken: token, refreshToken } = response.data;
 
       // Creating user object
       const user = { email: email };
 
       localStorage.setItem('token', token);
+      localStorage.setItem('refreshToken', refreshToken);
       localStorage.setItem('user', JSON.stringify(user));
 
       return { success: true, data: { token, user } };
@@ -52,8 +53,16 @@ export const authService = {
   },
 
   // Logout user
-  logout: () => {
+  logout: async () => {
+    const refreshToken = localStorage.getItem('refreshToken');
+    try {
+      // Revokes the refresh token and the current access token on the server
+      await api.post('/api/auth/logout', { refreshToken });
+    } catch (error) {
+      // Local logout still proceeds
+    }
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('user');
     window.location.href = '/login';
   },
@@ -16,11 +16,22 @@ export const contactService = {
       };
     }
   },
+  // Page without a total; pair with countContacts, which is served from a cached counter
+  getContactSlice: async (page = 0, size = 10) => {
+    try {
+      const response = await api.get('/api/contacts/slice', {
+        params: { page, size }
+      });
+      return { success: true, data: response.data };
+    } catch (error) {
+      return { success: false, error: error.response?.data?.message || 'Failed to fetch contacts' };
+    }
+  },
   // Searching contacts
-  searchContacts: async (query) => {
+  searchContacts: async (query, page = 0, size = 10) => {
     try {
       const response = await api.get('/api/contacts/search', {
-        params: { query }
+        params: { query, page, size }
       });
       return { success: true, data: response.data };
     } catch (error) {
@@ -28,11 +39,11 @@ export const contactService = {
     }
   },
 
-  // Get single contact
+  // Get single contact; etag can be passed back to updateContact, patchContact or deleteContact
   getContactById: async (id) => {
     try {
       const response = await api.get(`/api/contacts/${id}`);
-      return { success: true, data: response.data };
+      return { success: true, data: response.data, etag: response.headers.etag };
     } catch (error) {
       return { success: false, error: error.response?.data?.message || 'Failed to fetch contact' };
     }
@@ -48,26 +59,145 @@ export const contactService = {
     }
   },
 
-  // Updating a contact
-  updateContact: async (id, contactData) => {
+  // Updating a contact; with an etag the server refuses (conflict: true) if someone changed it since
+  updateContact: async (id, contactData, etag) => {
     try {
-      const response = await api.put(`/api/contacts/${id}`, contactData);
-      return { success: true, data: response.data };
+      const response = await api.put(`/api/contacts/${id}`, contactData, {
+        headers: etag ? { 'If-Match': etag } : {}
+      });
+      return { success: true, data: response.data, etag: response.headers.etag };
+    } catch (error) {
+      return {
+        success: false,
+        conflict: error.response?.status === 412,
+        error: error.response?.data?.message || 'Failed to update contact'
+      };
+    }
+  },
+
+  // Change only the given fields; null clears a field
+  patchContact: async (id, changes, etag) => {
+    try {
+      const headers = { 'Content-Type': 'application/merge-patch+json' };
+      if (etag) {
+        headers['If-Match'] = etag;
+      }
+      const response = await api.patch(`/api/contacts/${id}`, changes, { headers });
+      return { success: true, data: response.data, etag: response.headers.etag };
     } catch (error) {
-      return { success: false, error: error.response?.data?.message || 'Failed to update contact' };
+      return {
+        success: false,
+        conflict: error.response?.status === 412,
+        error: error.response?.data?.message || 'Failed to update contact'
+      };
     }
   },
 
   // Deleting a contact
-  deleteContact: async (id) => {
+  deleteContact: async (id, etag) => {
     try {
-      await api.delete(`/api/contacts/${id}`);
+      await api.delete(`/api/contacts/${id}`, {
+        headers: etag ? { 'If-Match': etag } : {}
+      });
       return { success: true };
     } catch (error) {
-      return { success: false, error: error.response?.data?.message || 'Failed to delete contact' };
+      return {
+        success: false,
+        conflict: error.response?.status === 412,
+        error: error.response?.data?.message || 'Failed to delete contact'
+      };
+    }
+  },
+
+  // Start a background CSV import; poll getImportJob with the returned job id
+  importContacts: async (file) => {
+    try {
+      const formData = new FormData();
+      formData.append('file', file);
+      const response = await api.post('/api/contacts/import', formData);
+      return { success: true, data: response.data };
+    } catch (error) {
+      return { success: false, error: error.response?.data?.message || 'Failed to start import' };
     }
   },
 
+  getImportJob: async (jobId) => {
+    try {
+      const response = await api.get(`/api/contacts/import/${jobId}`);
+      return { success: true, data: response.data };
+    } catch (error) {
+      return { success: false, error: error.response?.data?.message || 'Failed to fetch import progress' };
+    }
+  },
+
+  // Download all contacts as 'csv' or 'ndjson'
+  exportContacts: async (format = 'csv') => {
+    try {
+      const response = await api.get('/api/contacts/export', {
+        params: { format },
+        responseType: 'blob'
+      });
+      return { success: true, data: response.data };
+    } catch (error) {
+      return { success: false, error: 'Failed to export contacts' };
+    }
+  },
+
+  // Changes since a cursor from an earlier call (none: start from now); gone: true means reload everything
+  getChanges: async (since, limit = 100) => {
+    try {
+      const response = await api.get('/api/contacts/changes', {
+        params: since ? { since, limit } : { limit }
+      });
+      return { success: true, data: response.data };
+    } catch (error) {
+      return {
+        success: false,
+        gone: error.response?.status === 410,
+        error: error.response?.data?.message || 'Failed to fetch contact changes'
+      };
+    }
+  },
+
+  // Push each { contactId, type, contact } change to onChange as it happens; returns a function that closes the stream.
+  // Every event carries all the changes of one write.
+  // fetch rather than EventSource, which cannot send the Authorization header. When the stream ends
+  // (token lifetime, slow client, server restart) call onClose and catch up with getChanges before reopening.
+  subscribeToChanges: (onChange, onClose) => {
+    const controller = new AbortController();
+    (async () => {
+      try {
+        const response = await fetch(`${api.defaults.baseURL}/api/contacts/events`, {
+          headers: { Authorization: `Bearer ${localStorage.getItem('token')}`, Accept: 'text/event-stream' },
+          signal: controller.signal
+        });
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffered = '';
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) {
+            break;
+          }
+          buffered += value;
+          const events = buffered.split('\n\n');
+          buffered = events.pop();
+          events.forEach((event) => {
+            const data = event.split('\n').filter((line) => line.startsWith('data:')).map((line) => line.slice(5)).join('\n');
+            if (data) {
+              JSON.parse(data).forEach(onChange);
+            }
+          });
+        }
+      } catch (error) {
+        // Aborted or disconnected; either way the stream is over
+      }
+      if (!controller.signal.aborted && onClose) {
+        onClose();
+      }
+    })();
+    return () => controller.abort();
+  },
+
   // Count contacts and show on homepage
   countContacts: async () => {
     try {